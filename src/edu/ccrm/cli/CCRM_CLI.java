@@ -1,12 +1,16 @@
 package edu.ccrm.cli;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import edu.ccrm.config.AppConfig;
 import edu.ccrm.domain.course.Course;
 import edu.ccrm.domain.enrollment.Grade;
 import edu.ccrm.domain.enrollment.Semester;
@@ -14,6 +18,8 @@ import edu.ccrm.domain.enrollment.Enrollment;
 import edu.ccrm.domain.person.Student;
 import edu.ccrm.domain.person.Instructor;
 import edu.ccrm.domain.Transcript;
+import edu.ccrm.event.ChangeEventBus;
+import edu.ccrm.event.ChangeLogWriter;
 import edu.ccrm.exception.CourseNotFoundException;
 import edu.ccrm.exception.DuplicateEnrollmentException;
 import edu.ccrm.exception.EnrollmentNotFoundException;
@@ -23,8 +29,10 @@ import edu.ccrm.exception.PrerequisiteNotMetException;
 import edu.ccrm.exception.StudentNotFoundException;
 import edu.ccrm.io.BackupService;
 import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.TranscriptExportService;
 import edu.ccrm.service.CourseService;
 import edu.ccrm.service.DataStore;
+import edu.ccrm.service.EnrollmentCommandPipeline;
 import edu.ccrm.service.EnrollmentService;
 import edu.ccrm.service.ReportingService;
 import edu.ccrm.service.StudentService;
@@ -41,9 +49,13 @@ public class CCRM_CLI {
     private final StudentService studentService;
     private final CourseService courseService;
     private final EnrollmentService enrollmentService;
+    private final EnrollmentCommandPipeline enrollmentPipeline; // Null unless enrollment.pipeline.enabled
     private final ImportExportService importExportService;
     private final BackupService backupService;
     private final ReportingService reportingService;
+    private final TranscriptExportService transcriptExportService;
+    private ChangeLogWriter changeLog; // Null unless events.log.file is set
+    private ChangeEventBus.Subscription changeLogSubscription;
 
     public CCRM_CLI() {
         this.scanner = new Scanner(System.in);
@@ -51,14 +63,41 @@ public class CCRM_CLI {
         this.studentService = new StudentService(dataStore);
         this.courseService = new CourseService(dataStore);
         this.enrollmentService = new EnrollmentService(dataStore);
+        this.enrollmentPipeline = Boolean.parseBoolean(AppConfig.getInstance().getProperty("enrollment.pipeline.enabled", "false"))
+                ? new EnrollmentCommandPipeline(enrollmentService)
+                : null;
         this.importExportService = new ImportExportService(dataStore);
         this.backupService = new BackupService();
         this.reportingService = new ReportingService(dataStore);
+        this.transcriptExportService = new TranscriptExportService(dataStore);
+        
+        // Attach the durable change log before loading data so the initial load is recorded too
+        startChangeLog();
         
         // Load initial data from CSV files if they exist
         loadInitialData();
     }
     
+    /**
+     * Subscribes a ChangeLogWriter to the DataStore change stream when events.log.file is set.
+     */
+    private void startChangeLog() {
+        AppConfig config = AppConfig.getInstance();
+        String logFile = config.getProperty("events.log.file", "").trim();
+        if (logFile.isEmpty()) {
+            return;
+        }
+        try {
+            changeLog = new ChangeLogWriter(Paths.get(logFile));
+            changeLogSubscription = dataStore.getChangeEvents().subscribe("change-log", changeLog,
+                    config.getIntProperty("events.queue.capacity", 4096),
+                    config.getIntProperty("events.batch.size", 256));
+            System.out.println("Change log enabled: " + logFile);
+        } catch (IOException e) {
+            System.err.println("Could not open change log " + logFile + ": " + e.getMessage());
+        }
+    }
+    
     /**
      * Loads initial data from CSV files in the data directory.
      * This method is called during application startup to populate the system
@@ -121,9 +160,30 @@ public class CCRM_CLI {
                 scanner.nextLine(); // Clear the invalid input
             }
         }
+        shutdown();
         scanner.close();
     }
 
+    /**
+     * Lets background writers finish what they have queued before the JVM exits, then stops
+     * the reporting subscribers and threads. The change log goes last, so it records every
+     * change made before exit.
+     */
+    private void shutdown() {
+        if (enrollmentPipeline != null) {
+            enrollmentPipeline.close();
+        }
+        reportingService.close();
+        if (changeLogSubscription != null) {
+            changeLogSubscription.close(); // Delivers what is still queued
+            try {
+                changeLog.close();
+            } catch (IOException e) {
+                System.err.println("Could not close change log: " + e.getMessage());
+            }
+        }
+    }
+
     private void manageStudents() {
         boolean back = false;
         // 'do-while' loop for the student management submenu
@@ -247,6 +307,11 @@ public class CCRM_CLI {
             case 8 -> deleteBackup();
             case 9 -> performDirectoryAnalysis();
             case 10 -> listFilesByDepth();
+            case 11 -> bulkExportTranscripts();
+            case 12 -> importEnrollmentsFromFile();
+            case 13 -> importExportService.exportDelta();
+            case 14 -> importExportService.compactDeltas();
+            case 15 -> validateImportFiles();
             case 0 -> {}
             default -> System.out.println("Invalid option.");
         }
@@ -270,6 +335,32 @@ public class CCRM_CLI {
         importExportService.importCourses(filename);
     }
     
+    private void importEnrollmentsFromFile() {
+        System.out.print("Enter CSV filename for enrollments (or press Enter for default 'enrollments.csv'): ");
+        String filename = scanner.nextLine().trim();
+        if (filename.isEmpty()) {
+            filename = "enrollments.csv";
+        }
+        importExportService.importEnrollments(filename);
+    }
+    
+    private void validateImportFiles() {
+        String courses = promptDryRunFile("courses", "courses.csv");
+        String students = promptDryRunFile("students", "students.csv");
+        String enrollments = promptDryRunFile("enrollments", "enrollments.csv");
+        importExportService.validateImport(courses, students, enrollments);
+    }
+    
+    // Enter keeps the default name, "-" skips the file
+    private String promptDryRunFile(String kind, String defaultName) {
+        System.out.print("Enter " + kind + " file to validate (Enter for '" + defaultName + "', '-' to skip): ");
+        String filename = scanner.nextLine().trim();
+        if (filename.equals("-")) {
+            return null;
+        }
+        return filename.isEmpty() ? defaultName : filename;
+    }
+    
     private void exportSpecificDataType() {
         System.out.println("Select data type to export:");
         System.out.println("1. Students only");
@@ -291,6 +382,53 @@ public class CCRM_CLI {
         }
     }
     
+    private void bulkExportTranscripts() {
+        try {
+            System.out.print("Transcript type (1. Official, 2. Unofficial, 3. Semester): ");
+            int type = scanner.nextInt();
+            scanner.nextLine();
+            TranscriptExportService.Kind kind = switch (type) {
+                case 1 -> TranscriptExportService.Kind.OFFICIAL;
+                case 2 -> TranscriptExportService.Kind.UNOFFICIAL;
+                case 3 -> TranscriptExportService.Kind.SEMESTER;
+                default -> null;
+            };
+            if (kind == null) {
+                System.out.println("Invalid choice.");
+                return;
+            }
+            Semester semester = null;
+            if (kind == TranscriptExportService.Kind.SEMESTER) {
+                System.out.print("Enter Semester (SPRING, FALL, SUMMER): ");
+                semester = Semester.valueOf(scanner.nextLine().trim().toUpperCase());
+            }
+
+            System.out.print("Students (1. All, 2. Active only, 3. Graduated only): ");
+            int population = scanner.nextInt();
+            scanner.nextLine();
+            Predicate<Student> selection = switch (population) {
+                case 2 -> s -> s.getStatus() == Student.Status.ACTIVE;
+                case 3 -> s -> s.getStatus() == Student.Status.GRADUATED;
+                default -> s -> true;
+            };
+
+            System.out.print("Output (1. One file per student, 2. Single combined file): ");
+            int layout = scanner.nextInt();
+            scanner.nextLine();
+            if (layout == 2) {
+                String filename = "transcripts_" + kind.name().toLowerCase() + ".txt";
+                transcriptExportService.exportCombined(kind, semester, selection, filename);
+            } else {
+                transcriptExportService.exportPerStudent(kind, semester, selection);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid semester. Please use SPRING, FALL, or SUMMER.");
+        } catch (InputMismatchException e) {
+            System.err.println("Invalid input. Please enter a number.");
+            scanner.nextLine();
+        }
+    }
+
     private void createBackup() {
         System.out.println("Creating timestamped backup...");
         String backupPath = backupService.backupData();
@@ -397,6 +535,22 @@ public class CCRM_CLI {
         switch(choice) {
             case 1 -> reportingService.printTopStudentsByGpa(3);
             case 2 -> reportingService.printGpaDistribution();
+            case 3 -> reportingService.verifyStudentAggregates();
+            case 4 -> {
+                System.out.print("Enter Semester (SPRING, FALL, SUMMER): ");
+                try {
+                    Semester semester = Semester.valueOf(scanner.nextLine().trim().toUpperCase());
+                    reportingService.printTopStudentsBySemester(5, semester);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Invalid semester. Please use SPRING, FALL, or SUMMER.");
+                }
+            }
+            case 5 -> {
+                System.out.print("Enter Department: ");
+                reportingService.printTopStudentsByDepartment(5, scanner.nextLine().trim());
+            }
+            case 6 -> reportingService.printGradeDistributionByDepartment();
+            case 7 -> reportingService.printCampusAnalytics();
             case 0 -> {}
             default -> System.out.println("Invalid option.");
         }
@@ -747,10 +901,10 @@ public class CCRM_CLI {
             System.out.print("Enter Semester (SPRING, FALL, SUMMER) or press Enter for course default: ");
             String semesterStr = scanner.nextLine();
             
-            if (semesterStr.isEmpty()) {
-                enrollmentService.enrollStudent(studentId, courseCode);
+            Semester semester = semesterStr.isEmpty() ? null : Semester.valueOf(semesterStr.toUpperCase());
+            if (enrollmentPipeline != null) {
+                enrollmentPipeline.enrollAndWait(studentId, courseCode, semester);
             } else {
-                Semester semester = Semester.valueOf(semesterStr.toUpperCase());
                 enrollmentService.enrollStudent(studentId, courseCode, semester);
             }
             System.out.println("Enrollment successful!");
@@ -774,7 +928,11 @@ public class CCRM_CLI {
             String courseCode = scanner.nextLine();
             System.out.print("Enter Grade (S, A, B, C, D, F): ");
             Grade grade = Grade.valueOf(scanner.nextLine().toUpperCase());
-            enrollmentService.assignGrade(studentId, courseCode, grade);
+            if (enrollmentPipeline != null) {
+                enrollmentPipeline.assignGradeAndWait(studentId, courseCode, grade);
+            } else {
+                enrollmentService.assignGrade(studentId, courseCode, grade);
+            }
             System.out.println("Grade recorded successfully.");
         } catch (StudentNotFoundException | EnrollmentNotFoundException e) {
             System.err.println("Error: " + e.getMessage());
@@ -790,7 +948,11 @@ public class CCRM_CLI {
             scanner.nextLine();
             System.out.print("Enter Course Code: ");
             String courseCode = scanner.nextLine();
-            enrollmentService.unenrollStudent(studentId, courseCode);
+            if (enrollmentPipeline != null) {
+                enrollmentPipeline.dropAndWait(studentId, courseCode);
+            } else {
+                enrollmentService.unenrollStudent(studentId, courseCode);
+            }
             System.out.println("Student unenrolled successfully.");
         } catch (StudentNotFoundException | EnrollmentNotFoundException | InvalidUnenrollmentException e) {
             System.err.println("Unenrollment failed: " + e.getMessage());
@@ -810,7 +972,11 @@ public class CCRM_CLI {
             System.out.print("Enter Marks (0-100): ");
             double marks = scanner.nextDouble();
             scanner.nextLine();
-            enrollmentService.assignMarks(studentId, courseCode, marks);
+            if (enrollmentPipeline != null) {
+                enrollmentPipeline.assignMarksAndWait(studentId, courseCode, marks);
+            } else {
+                enrollmentService.assignMarks(studentId, courseCode, marks);
+            }
             System.out.println("Marks recorded successfully. Grade automatically assigned.");
         } catch (StudentNotFoundException | EnrollmentNotFoundException e) {
             System.err.println("Error: " + e.getMessage());
@@ -71,6 +71,11 @@ public class Menu {
         System.out.println("8. Delete Backup");
         System.out.println("9. Recursive Directory Analysis");
         System.out.println("10. List Files by Depth");
+        System.out.println("11. Bulk Export Transcripts");
+        System.out.println("12. Import Enrollments from CSV");
+        System.out.println("13. Export Changes Since Last Delta Export");
+        System.out.println("14. Compact Delta Exports into Full Export");
+        System.out.println("15. Validate Import Files (Dry Run)");
         System.out.println("0. Back to Main Menu");
         System.out.print("Enter your choice: ");
     }
@@ -79,6 +84,11 @@ public class Menu {
         System.out.println("\n--- Reports ---");
         System.out.println("1. View Top N Students by GPA");
         System.out.println("2. View GPA Distribution");
+        System.out.println("3. Verify GPA Aggregates");
+        System.out.println("4. View Top Students by Semester");
+        System.out.println("5. View Top Students by Department");
+        System.out.println("6. View GPA Distribution by Department");
+        System.out.println("7. View Campus Analytics");
         System.out.println("0. Back to Main Menu");
         System.out.print("Enter your choice: ");
     }
@@ -64,9 +64,35 @@ public final class AppConfig {
         // Default properties
         properties.setProperty("data.directory", "data/");
         properties.setProperty("backup.directory", "backup/");
+        properties.setProperty("backup.hash.buffer.size", "65536");
         properties.setProperty("max.credits.per.semester", "18");
         properties.setProperty("min.credits.per.semester", "12");
         properties.setProperty("enrollment.deadline.hours", "168"); // 1 week
+        properties.setProperty("enrollment.pipeline.enabled", "false");
+        properties.setProperty("enrollment.pipeline.partitions", "2");
+        properties.setProperty("enrollment.pipeline.buffer.size", "1024");
+        properties.setProperty("idempotency.max.entries", "10000");
+        properties.setProperty("idempotency.ttl.seconds", "600");
+        properties.setProperty("events.queue.capacity", "4096");
+        properties.setProperty("events.batch.size", "256");
+        properties.setProperty("events.log.file", "");
+        properties.setProperty("analytics.parallelism", "0");
+        properties.setProperty("analytics.leaf.size", "2048");
+        properties.setProperty("import.parallelism", "0");
+        properties.setProperty("import.parallel.min.bytes", "8388608"); // 8 MB
+        properties.setProperty("import.pipeline.batch.size", "1024");
+        properties.setProperty("import.pipeline.window", "16");
+        properties.setProperty("import.errors.max", "1000");
+        properties.setProperty("import.checkpoint.bytes", "67108864"); // 64 MB
+        properties.setProperty("export.buffer.size", "65536");
+        properties.setProperty("export.compress", "false");
+        properties.setProperty("export.format", "csv");
+        properties.setProperty("export.delta.directory", "deltas");
+        properties.setProperty("compression.buffer.size", "65536");
+        properties.setProperty("compression.level", "6");
+        properties.setProperty("transcript.export.directory", "transcripts");
+        properties.setProperty("transcript.export.io.concurrency", "16");
+        properties.setProperty("transcript.export.window", "256");
         properties.setProperty("app.name", "Campus Course & Records Manager");
         properties.setProperty("app.version", "1.0.0");
         properties.setProperty("app.environment", "development");
@@ -1,130 +1,125 @@
 package edu.ccrm.domain;
 
+import edu.ccrm.domain.course.Course;
 import edu.ccrm.domain.enrollment.Enrollment;
 import edu.ccrm.domain.enrollment.Semester;
 import edu.ccrm.domain.person.Student;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Represents a student's academic transcript.
  * This class demonstrates polymorphism via the generateTranscript method and various transcript types.
  */
 public class Transcript {
+    // Precomputed separator lines and table header
+    protected static final String RULE_50 = "=".repeat(50) + "\n";
+    protected static final String RULE_60 = "=".repeat(60) + "\n";
+    protected static final String RULE_70 = "-".repeat(70) + "\n";
+    protected static final String SEMESTER_HEADER =
+            "Course Code  | Course Title                   | Credits | Marks    | Grade\n";
+
     protected final Student student;
 
     public Transcript(Student student) {
         this.student = student;
     }
 
+    // GPA and credit figures come from the student's running totals (O(1) per call)
     public double calculateOverallGPA() {
-        List<Enrollment> gradedEnrollments = student.getEnrollments().stream()
-                .filter(e -> !e.isDropped())
-                .filter(e -> e.getGrade().countsTowardGPA())
-                .collect(Collectors.toList());
-
-        if (gradedEnrollments.isEmpty()) {
-            return 0.0;
-        }
-
-        double totalQualityPoints = gradedEnrollments.stream()
-                .mapToDouble(Enrollment::getQualityPoints)
-                .sum();
-
-        int totalCredits = gradedEnrollments.stream()
-                .mapToInt(Enrollment::getGPACredits)
-                .sum();
-        
-        return (totalCredits > 0) ? totalQualityPoints / totalCredits : 0.0;
+        return student.getAcademicTotals().getOverallGPA();
     }
 
     public double calculateSemesterGPA(Semester semester) {
-        List<Enrollment> semesterEnrollments = student.getEnrollments().stream()
-                .filter(e -> !e.isDropped())
-                .filter(e -> e.getSemester() == semester)
-                .filter(e -> e.getGrade().countsTowardGPA())
-                .collect(Collectors.toList());
-
-        if (semesterEnrollments.isEmpty()) {
-            return 0.0;
-        }
-
-        double totalQualityPoints = semesterEnrollments.stream()
-                .mapToDouble(Enrollment::getQualityPoints)
-                .sum();
-
-        int totalCredits = semesterEnrollments.stream()
-                .mapToInt(Enrollment::getGPACredits)
-                .sum();
-
-        return (totalCredits > 0) ? totalQualityPoints / totalCredits : 0.0;
+        return student.getAcademicTotals().getSemesterGPA(semester);
     }
 
     public int getTotalCreditsEarned() {
-        return student.getEnrollments().stream()
-                .filter(e -> !e.isDropped())
-                .filter(e -> e.getGrade().isPassing())
-                .mapToInt(e -> e.getCourse().getCredits())
-                .sum();
+        return student.getAcademicTotals().getTotalCreditsEarned();
     }
 
     public int getTotalCreditsAttempted() {
-        return student.getEnrollments().stream()
-                .filter(e -> !e.isDropped())
-                .filter(e -> e.getGrade().countsTowardGPA())
-                .mapToInt(e -> e.getCourse().getCredits())
-                .sum();
+        return student.getAcademicTotals().getTotalCreditsAttempted();
     }
 
     // Virtual method for polymorphism - can be overridden by subclasses
     public String generateTranscript() {
-        return generateFullTranscript();
+        StringBuilder sb = new StringBuilder(2048);
+        try {
+            writeTranscript(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder does not throw
+        }
+        return sb.toString();
     }
 
-    protected String generateFullTranscript() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=".repeat(60)).append("\n");
-        sb.append("           OFFICIAL ACADEMIC TRANSCRIPT\n");
-        sb.append("=".repeat(60)).append("\n");
-        sb.append(student.getProfile()).append("\n");
-        sb.append("=".repeat(60)).append("\n");
+    /**
+     * Streams the transcript into the given Appendable (StringBuilder, Writer, PrintStream...).
+     * Rendering appends directly to the output: separators are precomputed and numbers are
+     * formatted by hand, so no intermediate Strings are built per row.
+     */
+    public void writeTranscript(Appendable out) throws IOException {
+        writeFullTranscript(out);
+    }
 
-        // Group enrollments by semester
-        Map<Semester, List<Enrollment>> enrollmentsBySemester = student.getEnrollments().stream()
-                .filter(e -> !e.isDropped())
-                .collect(Collectors.groupingBy(Enrollment::getSemester));
+    protected void writeFullTranscript(Appendable out) throws IOException {
+        out.append(RULE_60);
+        out.append("           OFFICIAL ACADEMIC TRANSCRIPT\n");
+        out.append(RULE_60);
+        out.append(student.getProfile()).append('\n');
+        out.append(RULE_60);
 
+        List<Enrollment> enrollments = student.getEnrollments();
         for (Semester semester : Semester.values()) {
-            List<Enrollment> semesterEnrollments = enrollmentsBySemester.get(semester);
-            if (semesterEnrollments != null && !semesterEnrollments.isEmpty()) {
-                sb.append(generateSemesterSection(semester, semesterEnrollments));
+            if (hasEnrollments(enrollments, semester)) {
+                writeSemesterSection(out, semester, enrollments);
             }
         }
 
-        sb.append(generateSummarySection());
-        sb.append("=".repeat(60)).append("\n");
-        return sb.toString();
+        writeSummarySection(out);
+        out.append(RULE_60);
     }
 
-    protected String generateSemesterSection(Semester semester, List<Enrollment> enrollments) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("\n--- %s SEMESTER ---\n", semester.name()));
-        sb.append(String.format("%-12s | %-30s | %-7s | %-8s | %-5s\n", 
-                "Course Code", "Course Title", "Credits", "Marks", "Grade"));
-        sb.append("-".repeat(70)).append("\n");
+    /**
+     * Writes one semester section for the enrollments of that semester that are not dropped.
+     */
+    protected void writeSemesterSection(Appendable out, Semester semester, List<Enrollment> enrollments)
+            throws IOException {
+        out.append("\n--- ").append(semester.name()).append(" SEMESTER ---\n");
+        out.append(SEMESTER_HEADER);
+        out.append(RULE_70);
 
         double semesterQualityPoints = 0.0;
         int semesterCredits = 0;
 
         for (Enrollment e : enrollments) {
-            String marksStr = (e.getMarks() >= 0) ? String.format("%.1f", e.getMarks()) : "N/A";
-            sb.append(String.format("%-12s | %-30s | %-7d | %-8s | %-5s\n",
-                    e.getCourse().getCourseCode().getCode(),
-                    truncate(e.getCourse().getTitle(), 30),
-                    e.getCourse().getCredits(),
-                    marksStr,
-                    e.getGrade().name()));
+            if (e.isDropped() || e.getSemester() != semester) {
+                continue;
+            }
+            Course course = e.getCourse();
+            padRight(out, course.getCourseCode().getCode(), 12);
+            out.append(" | ");
+            String title = course.getTitle();
+            if (title.length() <= 30) {
+                padRight(out, title, 30);
+            } else {
+                out.append(title, 0, 27).append("...");
+            }
+            out.append(" | ");
+            pad(out, 7 - appendDigits(out, course.getCredits()));
+            out.append(" | ");
+            if (e.getMarks() >= 0) {
+                pad(out, 8 - appendFixed(out, e.getMarks(), 1));
+            } else {
+                out.append("N/A     ");
+            }
+            out.append(" | ");
+            padRight(out, e.getGrade().name(), 5);
+            out.append('\n');
 
             if (e.getGrade().countsTowardGPA()) {
                 semesterQualityPoints += e.getQualityPoints();
@@ -132,28 +127,101 @@ public class Transcript {
             }
         }
 
-        sb.append("-".repeat(70)).append("\n");
+        out.append(RULE_70);
         double semesterGPA = (semesterCredits > 0) ? semesterQualityPoints / semesterCredits : 0.0;
-        sb.append(String.format("Semester Credits: %d | Semester GPA: %.2f\n", 
-                semesterCredits, semesterGPA));
-        sb.append("\n");
-
-        return sb.toString();
+        out.append("Semester Credits: ");
+        appendDigits(out, semesterCredits);
+        out.append(" | Semester GPA: ");
+        appendFixed(out, semesterGPA, 2);
+        out.append("\n\n");
     }
 
-    protected String generateSummarySection() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n--- ACADEMIC SUMMARY ---\n");
-        sb.append(String.format("Total Credits Attempted: %d\n", getTotalCreditsAttempted()));
-        sb.append(String.format("Total Credits Earned: %d\n", getTotalCreditsEarned()));
-        sb.append(String.format("Cumulative GPA: %.2f\n", calculateOverallGPA()));
-        
-        // Academic standing
+    protected void writeSummarySection(Appendable out) throws IOException {
+        out.append("\n--- ACADEMIC SUMMARY ---\n");
+        out.append("Total Credits Attempted: ");
+        appendDigits(out, getTotalCreditsAttempted());
+        out.append("\nTotal Credits Earned: ");
+        appendDigits(out, getTotalCreditsEarned());
+        out.append('\n');
         double gpa = calculateOverallGPA();
-        String standing = getAcademicStanding(gpa);
-        sb.append(String.format("Academic Standing: %s\n", standing));
-        
-        return sb.toString();
+        out.append("Cumulative GPA: ");
+        appendFixed(out, gpa, 2);
+        out.append('\n');
+
+        // Academic standing
+        out.append("Academic Standing: ").append(getAcademicStanding(gpa)).append('\n');
+    }
+
+    protected static boolean hasEnrollments(List<Enrollment> enrollments, Semester semester) {
+        for (Enrollment e : enrollments) {
+            if (!e.isDropped() && e.getSemester() == semester) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Fixed-width helpers matching the %-Ns / %-Nd / %.Nf conversions they replace
+
+    private static final String SPACES = " ".repeat(64);
+
+    protected static void padRight(Appendable out, String text, int width) throws IOException {
+        out.append(text);
+        pad(out, width - text.length());
+    }
+
+    protected static void pad(Appendable out, int count) throws IOException {
+        while (count > 0) {
+            int n = Math.min(count, SPACES.length());
+            out.append(SPACES, 0, n);
+            count -= n;
+        }
+    }
+
+    /**
+     * Appends a non-negative number digit by digit.
+     * @return the number of characters written
+     */
+    protected static int appendDigits(Appendable out, long value) throws IOException {
+        long divisor = 1;
+        int written = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+            written++;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (value / divisor) % 10));
+        }
+        return written;
+    }
+
+    /**
+     * Appends value with the given number of decimals, rounded half-up like String.format("%.Nf").
+     * @return the number of characters written
+     */
+    protected static int appendFixed(Appendable out, double value, int decimals) throws IOException {
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+        double scaled = value * scale;
+        double fraction = scaled - Math.floor(scaled);
+        if (!(value >= 0) || scaled >= 1e15 || Math.abs(fraction - 0.5) < 1e-6) {
+            // Negative, huge or close to a rounding tie: the shortest decimal form decides, as in Formatter
+            String text = Double.isFinite(value)
+                    ? new BigDecimal(Double.toString(value)).setScale(decimals, RoundingMode.HALF_UP).toPlainString()
+                    : Double.toString(value);
+            out.append(text);
+            return text.length();
+        }
+        long units = Math.round(scaled);
+        int written = appendDigits(out, units / scale);
+        out.append('.');
+        long remainder = units % scale;
+        for (long divisor = scale / 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (remainder / divisor) % 10));
+        }
+        return written + 1 + decimals;
     }
 
     protected String getAcademicStanding(double gpa) {
@@ -195,14 +263,12 @@ public class Transcript {
         }
 
         @Override
-        public String generateTranscript() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("*** OFFICIAL TRANSCRIPT ***\n");
-            sb.append("This is an official academic record.\n");
-            sb.append("Date of Issue: ").append(java.time.LocalDate.now()).append("\n\n");
-            sb.append(generateFullTranscript());
-            sb.append("\n*** END OF OFFICIAL TRANSCRIPT ***\n");
-            return sb.toString();
+        public void writeTranscript(Appendable out) throws IOException {
+            out.append("*** OFFICIAL TRANSCRIPT ***\n");
+            out.append("This is an official academic record.\n");
+            out.append("Date of Issue: ").append(LocalDate.now().toString()).append("\n\n");
+            writeFullTranscript(out);
+            out.append("\n*** END OF OFFICIAL TRANSCRIPT ***\n");
         }
     }
 
@@ -212,13 +278,11 @@ public class Transcript {
         }
 
         @Override
-        public String generateTranscript() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("*** UNOFFICIAL TRANSCRIPT ***\n");
-            sb.append("This is an unofficial academic record for student use only.\n\n");
-            sb.append(generateFullTranscript());
-            sb.append("\n*** UNOFFICIAL - NOT FOR OFFICIAL USE ***\n");
-            return sb.toString();
+        public void writeTranscript(Appendable out) throws IOException {
+            out.append("*** UNOFFICIAL TRANSCRIPT ***\n");
+            out.append("This is an unofficial academic record for student use only.\n\n");
+            writeFullTranscript(out);
+            out.append("\n*** UNOFFICIAL - NOT FOR OFFICIAL USE ***\n");
         }
     }
 
@@ -231,28 +295,24 @@ public class Transcript {
         }
 
         @Override
-        public String generateTranscript() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("=".repeat(50)).append("\n");
-            sb.append(String.format("   %s SEMESTER TRANSCRIPT\n", semester.name()));
-            sb.append("=".repeat(50)).append("\n");
-            sb.append(String.format("Student: %s (ID: %d)\n", student.getFullName(), student.getId()));
-            sb.append(String.format("Registration Number: %s\n", student.getRegNo()));
-            sb.append("=".repeat(50)).append("\n");
-
-            List<Enrollment> semesterEnrollments = student.getEnrollments().stream()
-                    .filter(e -> !e.isDropped())
-                    .filter(e -> e.getSemester() == semester)
-                    .collect(Collectors.toList());
-
-            if (semesterEnrollments.isEmpty()) {
-                sb.append("No enrollments found for this semester.\n");
+        public void writeTranscript(Appendable out) throws IOException {
+            out.append(RULE_50);
+            out.append("   ").append(semester.name()).append(" SEMESTER TRANSCRIPT\n");
+            out.append(RULE_50);
+            out.append("Student: ").append(student.getFullName()).append(" (ID: ");
+            appendDigits(out, student.getId());
+            out.append(")\n");
+            out.append("Registration Number: ").append(student.getRegNo()).append('\n');
+            out.append(RULE_50);
+
+            List<Enrollment> enrollments = student.getEnrollments();
+            if (!hasEnrollments(enrollments, semester)) {
+                out.append("No enrollments found for this semester.\n");
             } else {
-                sb.append(generateSemesterSection(semester, semesterEnrollments));
+                writeSemesterSection(out, semester, enrollments);
             }
 
-            sb.append("=".repeat(50)).append("\n");
-            return sb.toString();
+            out.append(RULE_50);
         }
     }
-}
\ No newline at end of file
+}
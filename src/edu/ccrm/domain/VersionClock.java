@@ -0,0 +1,71 @@
+package edu.ccrm.domain;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Global logical clock for change tracking.
+ * Every creation or mutation of a Student, Course or Enrollment stamps the object with the
+ * next value, so "changed since v" is simply getVersion() > v. The clock restarts with each
+ * run of the application; the epoch tells runs apart, since versions of different runs are
+ * not comparable.
+ * A change to a shared object is stamped through stamp(), which counts the version as in
+ * flight until it is stored; stable() gives a version below which nothing is in flight.
+ * Objects are stamped again when the DataStore adds them, so one built before it was
+ * stored still counts as changed from the moment it became visible.
+ */
+public final class VersionClock {
+    private static final AtomicLong CLOCK = new AtomicLong();
+    private static final String EPOCH = UUID.randomUUID().toString();
+    private static final StampedLock IN_FLIGHT = new StampedLock(); // Read-held while a new version is stored
+
+    private VersionClock() {
+    }
+
+    /**
+     * @return a new version, greater than every version handed out before; for objects no
+     *         other thread can reach yet (a change to a shared object uses stamp())
+     */
+    public static long next() {
+        return CLOCK.incrementAndGet();
+    }
+
+    /**
+     * Hands a new version to store, which records it on the changed object. stable() waits
+     * until store returns, so a scan never passes over a version that is not yet stored.
+     */
+    public static void stamp(LongConsumer store) {
+        long lock = IN_FLIGHT.readLock();
+        try {
+            store.accept(CLOCK.incrementAndGet());
+        } finally {
+            IN_FLIGHT.unlockRead(lock);
+        }
+    }
+
+    /**
+     * @return the latest version handed out; every change made so far has a version at most this
+     */
+    public static long current() {
+        return CLOCK.get();
+    }
+
+    /**
+     * @return the latest version such that every change stamped with a version at most this
+     *         is already stored and visible (waits for the stamps in flight)
+     */
+    public static long stable() {
+        long lock = IN_FLIGHT.writeLock();
+        try {
+            return CLOCK.get();
+        } finally {
+            IN_FLIGHT.unlockWrite(lock);
+        }
+    }
+
+    public static String epoch() {
+        return EPOCH;
+    }
+}
@@ -1,5 +1,6 @@
 package edu.ccrm.domain.course;
 
+import edu.ccrm.domain.VersionClock;
 import edu.ccrm.domain.enrollment.Semester;
 import edu.ccrm.domain.person.Instructor;
 
@@ -12,8 +13,10 @@ public class Course {
     private final int credits;
     private final String department;
     private final Semester semester;
-    private Instructor instructor; // Can be assigned later
-    private boolean active; // For course deactivation
+    // Volatile so changes made by one thread (e.g. a pipeline writer) are visible to readers
+    private volatile Instructor instructor; // Can be assigned later
+    private volatile boolean active; // For course deactivation
+    private volatile long version = VersionClock.next(); // Stamp of the last change (see VersionClock)
 
     private Course(Builder builder) {
         this.courseCode = new CourseCode(builder.code);
@@ -33,9 +36,15 @@ public class Course {
     public Semester getSemester() { return semester; }
     public Instructor getInstructor() { return instructor; }
     public boolean isActive() { return active; }
+    public long getVersion() { return version; }
     
-    public void setInstructor(Instructor instructor) { this.instructor = instructor; }
-    public void setActive(boolean active) { this.active = active; }
+    public void setInstructor(Instructor instructor) { this.instructor = instructor; touch(); }
+    public void setActive(boolean active) { this.active = active; touch(); }
+
+    /**
+     * Records a change; called by the setters, and by the DataStore when the course is added.
+     */
+    public void touch() { VersionClock.stamp(v -> version = v); }
 
     @Override
     public String toString() {
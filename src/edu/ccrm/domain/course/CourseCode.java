@@ -1,5 +1,7 @@
 package edu.ccrm.domain.course;
 
+import edu.ccrm.util.Validator;
+
 /**
  * An immutable value class for CourseCode.
  */
@@ -7,7 +9,7 @@ public final class CourseCode {
     private final String code;
 
     public CourseCode(String code) {
-        if (code == null || !code.matches("[A-Z]{2,4}\\d{3,4}")) {
+        if (!Validator.isValidCourseCode(code)) {
             throw new IllegalArgumentException("Invalid course code format.");
         }
         this.code = code;
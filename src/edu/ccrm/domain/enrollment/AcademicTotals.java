@@ -0,0 +1,139 @@
+package edu.ccrm.domain.enrollment;
+
+import edu.ccrm.domain.VersionClock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Running quality-point and credit totals for one student, overall, per semester and
+ * per department.
+ * Enrollments attached to these totals report every change of grade, marks or drop
+ * status, so GPA and credit reads are O(1) instead of a scan over all enrollments.
+ * Each change also stamps the totals with a new version, which is how a student learns
+ * that one of its enrollments changed.
+ */
+public class AcademicTotals {
+    private static final int SEMESTERS = Semester.values().length;
+
+    private final double[] qualityPoints = new double[SEMESTERS];
+    private final int[] gpaCredits = new int[SEMESTERS]; // Credits counting toward GPA (= credits attempted)
+    private final int[] earnedCredits = new int[SEMESTERS]; // Credits with a passing grade
+    private double totalQualityPoints;
+    private int totalGpaCredits;
+    private int totalEarnedCredits;
+    private final Map<String, double[]> departmentTotals = new HashMap<>(); // {quality points, GPA credits}
+    private volatile long version; // Stamp of the last change (see VersionClock)
+
+    public synchronized void add(Enrollment enrollment) {
+        apply(enrollment, 1);
+    }
+
+    public synchronized void remove(Enrollment enrollment) {
+        apply(enrollment, -1);
+    }
+
+    /**
+     * Swaps an attached enrollment's old contribution for its new one in one critical section:
+     * removes it, runs the change to the enrollment, then adds it back. Readers and concurrent
+     * changes never see the enrollment missing or counted twice.
+     */
+    public synchronized void update(Enrollment enrollment, Runnable change) {
+        apply(enrollment, -1);
+        try {
+            change.run();
+        } finally {
+            apply(enrollment, 1);
+        }
+    }
+
+    private void apply(Enrollment enrollment, int sign) {
+        int index = enrollment.getSemester().ordinal();
+        double qp = sign * enrollment.getQualityPoints();
+        int gpa = sign * enrollment.getGPACredits();
+        int earned = sign * enrollment.getEarnedCredits();
+        qualityPoints[index] += qp;
+        gpaCredits[index] += gpa;
+        earnedCredits[index] += earned;
+        totalQualityPoints += qp;
+        totalGpaCredits += gpa;
+        totalEarnedCredits += earned;
+        double[] department = departmentTotals.computeIfAbsent(
+                enrollment.getCourse().getDepartment(), d -> new double[2]);
+        department[0] += qp;
+        department[1] += gpa;
+        VersionClock.stamp(v -> version = v);
+    }
+
+    /**
+     * @return the version of the last enrollment change, or 0 if there was none
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public synchronized double getOverallGPA() {
+        return (totalGpaCredits > 0) ? totalQualityPoints / totalGpaCredits : 0.0;
+    }
+
+    public synchronized double getSemesterGPA(Semester semester) {
+        int index = semester.ordinal();
+        return (gpaCredits[index] > 0) ? qualityPoints[index] / gpaCredits[index] : 0.0;
+    }
+
+    public synchronized double getDepartmentGPA(String department) {
+        double[] totals = departmentTotals.get(department);
+        return (totals != null && totals[1] > 0) ? totals[0] / totals[1] : 0.0;
+    }
+
+    /**
+     * Departments in which the student has credits counting toward GPA
+     */
+    public synchronized Set<String> getGradedDepartments() {
+        return departmentTotals.entrySet().stream()
+                .filter(entry -> entry.getValue()[1] > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    public synchronized double getTotalQualityPoints() { return totalQualityPoints; }
+    public synchronized int getTotalCreditsAttempted() { return totalGpaCredits; }
+    public synchronized int getTotalCreditsEarned() { return totalEarnedCredits; }
+    public synchronized int getSemesterCreditsAttempted(Semester semester) { return gpaCredits[semester.ordinal()]; }
+    public synchronized int getSemesterCreditsEarned(Semester semester) { return earnedCredits[semester.ordinal()]; }
+
+    /**
+     * Consistency check: recomputes the totals from scratch and compares them with the running values.
+     * @return true if the running totals match a full recomputation over the given enrollments
+     */
+    public synchronized boolean matches(List<Enrollment> enrollments) {
+        AcademicTotals expected = new AcademicTotals();
+        for (Enrollment enrollment : enrollments) {
+            expected.apply(enrollment, 1);
+        }
+        for (int i = 0; i < SEMESTERS; i++) {
+            if (Math.abs(qualityPoints[i] - expected.qualityPoints[i]) > 1e-9
+                    || gpaCredits[i] != expected.gpaCredits[i]
+                    || earnedCredits[i] != expected.earnedCredits[i]) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, double[]> entry : expected.departmentTotals.entrySet()) {
+            double[] actual = departmentTotals.getOrDefault(entry.getKey(), new double[2]);
+            if (Math.abs(actual[0] - entry.getValue()[0]) > 1e-9 || actual[1] != entry.getValue()[1]) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, double[]> entry : departmentTotals.entrySet()) {
+            double[] values = entry.getValue();
+            if (!expected.departmentTotals.containsKey(entry.getKey()) && (values[0] != 0 || values[1] != 0)) {
+                return false;
+            }
+        }
+        return Math.abs(totalQualityPoints - expected.totalQualityPoints) <= 1e-9
+                && totalGpaCredits == expected.totalGpaCredits
+                && totalEarnedCredits == expected.totalEarnedCredits;
+    }
+}
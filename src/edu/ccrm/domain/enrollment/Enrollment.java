@@ -1,5 +1,6 @@
 package edu.ccrm.domain.enrollment;
 
+import edu.ccrm.domain.VersionClock;
 import edu.ccrm.domain.course.Course;
 import java.time.LocalDateTime;
 
@@ -8,11 +9,13 @@ import java.time.LocalDateTime;
  */
 public class Enrollment {
     private final Course course;
-    private Grade grade;
-    private double marks; // Numerical marks out of 100
+    private volatile Grade grade;
+    private volatile double marks; // Numerical marks out of 100
     private final LocalDateTime enrollmentDate;
     private final Semester semester;
-    private boolean dropped; // For unenrollment tracking
+    private volatile boolean dropped; // For unenrollment tracking
+    private AcademicTotals totals; // Owning student's running totals, kept in step with every change
+    private volatile long version = VersionClock.next(); // Stamp of the last change (see VersionClock)
 
     public Enrollment(Course course) {
         this.course = course;
@@ -32,6 +35,18 @@ public class Enrollment {
         this.dropped = false;
     }
 
+    /**
+     * Historical enrollment with its original date (e.g. from an enrollment import).
+     */
+    public Enrollment(Course course, Semester semester, LocalDateTime enrollmentDate) {
+        this.course = course;
+        this.enrollmentDate = enrollmentDate;
+        this.grade = Grade.NA;
+        this.marks = -1.0;
+        this.semester = semester;
+        this.dropped = false;
+    }
+
     // Getters
     public Course getCourse() { return course; }
     public Grade getGrade() { return grade; }
@@ -39,30 +54,57 @@ public class Enrollment {
     public LocalDateTime getEnrollmentDate() { return enrollmentDate; }
     public Semester getSemester() { return semester; }
     public boolean isDropped() { return dropped; }
+    public long getVersion() { return version; }
+
+    /**
+     * Attaches this enrollment to its student's running totals (null detaches).
+     * Called by Student when the enrollment is added or removed.
+     */
+    public void attachTotals(AcademicTotals totals) {
+        this.totals = totals;
+    }
 
     // Setters
     public void setGrade(Grade grade) { 
-        this.grade = grade; 
+        change(() -> this.grade = grade);
     }
 
     public void setMarks(double marks) {
         if (marks >= 0 && marks <= 100) {
-            this.marks = marks;
-            this.grade = Grade.fromMarks(marks);
+            change(() -> {
+                this.marks = marks;
+                this.grade = Grade.fromMarks(marks);
+            });
         } else if (marks == -1) {
-            this.marks = marks;
-            this.grade = Grade.NA;
+            change(() -> {
+                this.marks = marks;
+                this.grade = Grade.NA;
+            });
         } else {
             throw new IllegalArgumentException("Marks must be between 0 and 100, or -1 for not assigned");
         }
     }
 
     public void drop() {
-        this.dropped = true;
+        change(() -> this.dropped = true);
     }
 
     public void undrop() {
-        this.dropped = false;
+        change(() -> this.dropped = false);
+    }
+
+    // Applies a change and stamps it; attached totals swap the old contribution for the new one atomically
+    private void change(Runnable mutation) {
+        Runnable stamped = () -> {
+            mutation.run();
+            VersionClock.stamp(v -> this.version = v);
+        };
+        AcademicTotals attached = totals;
+        if (attached != null) {
+            attached.update(this, stamped);
+        } else {
+            stamped.run();
+        }
     }
 
     /**
@@ -85,6 +127,16 @@ public class Enrollment {
         return course.getCredits();
     }
 
+    /**
+     * Get credits earned with a passing grade
+     */
+    public int getEarnedCredits() {
+        if (dropped || !grade.isPassing()) {
+            return 0;
+        }
+        return course.getCredits();
+    }
+
     @Override
     public String toString() {
         String status = dropped ? " (DROPPED)" : "";
@@ -1,5 +1,7 @@
 package edu.ccrm.domain.person;
 
+import edu.ccrm.domain.VersionClock;
+
 /**
  * Abstract base class representing a person.
  * Demonstrates Abstraction and Inheritance.
@@ -8,6 +10,7 @@ public abstract class Person {
     protected int id; // 'protected' allows access by subclasses
     protected String fullName;
     protected String email;
+    private volatile long version = VersionClock.next(); // Stamp of the last change (see VersionClock)
 
     public Person(int id, String fullName, String email) {
         this.id = id;
@@ -21,7 +24,17 @@ public abstract class Person {
     // Getters and Setters (Encapsulation)
     public int getId() { return id; }
     public String getFullName() { return fullName; }
-    public void setFullName(String fullName) { this.fullName = fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; touch(); }
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) { this.email = email; touch(); }
+
+    /**
+     * @return the version of the last change to this person (see VersionClock)
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * Records a change; called by every mutator, and by the DataStore when the person is added.
+     */
+    public void touch() { VersionClock.stamp(v -> version = v); }
 }
\ No newline at end of file
@@ -9,12 +9,14 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.stream.Collectors;
+import edu.ccrm.domain.enrollment.AcademicTotals;
 import edu.ccrm.domain.enrollment.Enrollment;
 import edu.ccrm.domain.enrollment.Semester;
 import edu.ccrm.domain.enrollment.Grade;
 import edu.ccrm.domain.course.Course;
 import edu.ccrm.domain.Searchable;
 import edu.ccrm.domain.Filterable;
+import edu.ccrm.util.Validator;
 
 /**
  * Represents a Student, inheriting from Person.
@@ -25,11 +27,14 @@ import edu.ccrm.domain.Filterable;
  */
 public class Student extends Person implements Searchable<String>, Filterable<Student.Status> {
     private final String regNo;
-    private Status status;
+    private volatile Status status;
     private final LocalDate registrationDate;
     private final List<Enrollment> enrollments;
     private final Set<Course> enrolledCourses;
     private final Map<String, Grade> courseGrades; // Map of course code to grade
+    private final AcademicTotals academicTotals; // Running GPA and credit totals over enrollments
+    private double courseGradePointSum; // Running sums over courseGrades for calculateGPA()
+    private int courseGradeCount;
     private LocalDate birthDate;
     private LocalDateTime lastLoginDate;
     private LocalDate graduationDate;
@@ -44,7 +49,7 @@ public class Student extends Person implements Searchable<String>, Filterable<St
         // Assertions for invariants - enable with -ea JVM flag
         assert id > 0 : "Student ID must be positive, got: " + id;
         assert regNo != null && !regNo.trim().isEmpty() : "Registration number cannot be null or empty";
-        assert regNo.matches("^R\\d{7}$") : "Registration number must follow pattern R followed by 7 digits, got: " + regNo;
+        assert Validator.isValidRegNo(regNo) : "Registration number must follow pattern R followed by 7 digits, got: " + regNo;
         assert registrationDate != null : "Registration date cannot be null";
         assert !registrationDate.isAfter(LocalDate.now()) : "Registration date cannot be in the future, got: " + registrationDate;
         assert registrationDate.isAfter(LocalDate.of(2000, 1, 1)) : "Registration date seems too old, got: " + registrationDate;
@@ -55,6 +60,7 @@ public class Student extends Person implements Searchable<String>, Filterable<St
         this.enrollments = new ArrayList<>();
         this.enrolledCourses = new HashSet<>();
         this.courseGrades = new HashMap<>();
+        this.academicTotals = new AcademicTotals();
         this.statusChangeDate = LocalDateTime.now();
     }
 
@@ -84,11 +90,57 @@ public class Student extends Person implements Searchable<String>, Filterable<St
         
         this.enrollments.add(enrollment);
         this.enrolledCourses.add(enrollment.getCourse());
+        enrollment.attachTotals(academicTotals);
+        academicTotals.add(enrollment);
+        touch();
+    }
+
+    /**
+     * Bulk load of historical enrollments, e.g. from an enrollment import.
+     * No business rules are checked: an existing enrollment in the same course and
+     * semester is replaced, while a retake in another semester is kept alongside the
+     * earlier one, and the course limit does not apply. Graded enrollments also set the
+     * student's grade for that course (the one loaded last wins).
+     */
+    public void loadEnrollments(List<Enrollment> loaded) {
+        Map<CourseTerm, Enrollment> existing = new HashMap<>();
+        for (Enrollment enrollment : enrollments) {
+            existing.put(CourseTerm.of(enrollment), enrollment);
+        }
+        for (Enrollment enrollment : loaded) {
+            Enrollment replaced = existing.put(CourseTerm.of(enrollment), enrollment);
+            if (replaced != null) {
+                removeEnrollment(replaced);
+            }
+            this.enrollments.add(enrollment);
+            this.enrolledCourses.add(enrollment.getCourse());
+            enrollment.attachTotals(academicTotals);
+            academicTotals.add(enrollment);
+            if (enrollment.getGrade() != Grade.NA) {
+                addCourseGrade(enrollment.getCourse().getCourseCode().getCode(), enrollment.getGrade());
+            }
+        }
+        touch();
+    }
+
+    // Key of an enrollment in loadEnrollments: a course can be taken again in another semester
+    private record CourseTerm(Course course, Semester semester) {
+        static CourseTerm of(Enrollment enrollment) {
+            return new CourseTerm(enrollment.getCourse(), enrollment.getSemester());
+        }
     }
 
     public void removeEnrollment(Enrollment enrollment) {
-        this.enrollments.remove(enrollment);
-        this.enrolledCourses.remove(enrollment.getCourse());
+        if (this.enrollments.remove(enrollment)) {
+            academicTotals.remove(enrollment);
+            enrollment.attachTotals(null);
+        }
+        // Another semester's enrollment in the course keeps it enrolled
+        Course course = enrollment.getCourse();
+        if (enrollments.stream().noneMatch(e -> e.getCourse().equals(course))) {
+            this.enrolledCourses.remove(course);
+        }
+        touch();
     }
 
     /**
@@ -116,14 +168,31 @@ public class Student extends Person implements Searchable<String>, Filterable<St
         assert courseCode != null && !courseCode.trim().isEmpty() : "Course code cannot be null or empty";
         assert grade != null : "Grade cannot be null";
         
-        this.courseGrades.put(courseCode, grade);
+        untrackCourseGrade(this.courseGrades.put(courseCode, grade));
+        trackCourseGrade(grade);
+        touch();
     }
 
     /**
      * Remove a course grade
      */
     public void removeCourseGrade(String courseCode) {
-        this.courseGrades.remove(courseCode);
+        untrackCourseGrade(this.courseGrades.remove(courseCode));
+        touch();
+    }
+
+    private void trackCourseGrade(Grade grade) {
+        if (grade != null && grade.countsTowardGPA()) {
+            courseGradePointSum += grade.getGradePoint();
+            courseGradeCount++;
+        }
+    }
+
+    private void untrackCourseGrade(Grade grade) {
+        if (grade != null && grade.countsTowardGPA()) {
+            courseGradePointSum -= grade.getGradePoint();
+            courseGradeCount--;
+        }
     }
 
     /**
@@ -144,21 +213,32 @@ public class Student extends Person implements Searchable<String>, Filterable<St
      * Calculate and return the current GPA based on course grades
      */
     public double calculateGPA() {
-        if (courseGrades.isEmpty()) {
-            return 0.0;
-        }
+        // Running sums are maintained by addCourseGrade/removeCourseGrade, so this is O(1)
+        return courseGradeCount > 0 ? Math.round((courseGradePointSum / courseGradeCount) * 100.0) / 100.0 : 0.0;
+    }
 
-        double totalGradePoints = 0.0;
-        int totalCourses = 0;
+    /**
+     * Running GPA and credit totals over this student's enrollments
+     */
+    public AcademicTotals getAcademicTotals() {
+        return academicTotals;
+    }
 
+    /**
+     * Consistency check of the running aggregates against a full recomputation
+     */
+    public boolean verifyAcademicTotals() {
+        double gradePoints = 0.0;
+        int graded = 0;
         for (Grade grade : courseGrades.values()) {
             if (grade.countsTowardGPA()) {
-                totalGradePoints += grade.getGradePoint();
-                totalCourses++;
+                gradePoints += grade.getGradePoint();
+                graded++;
             }
         }
-
-        return totalCourses > 0 ? Math.round((totalGradePoints / totalCourses) * 100.0) / 100.0 : 0.0;
+        return academicTotals.matches(enrollments)
+                && graded == courseGradeCount
+                && Math.abs(gradePoints - courseGradePointSum) <= 1e-9;
     }
 
     /**
@@ -170,6 +250,8 @@ public class Student extends Person implements Searchable<String>, Filterable<St
         }
 
         courseGrades.clear();
+        courseGradePointSum = 0.0;
+        courseGradeCount = 0;
         String[] courseGradePairs = gradesString.split(";");
         
         for (String pair : courseGradePairs) {
@@ -180,12 +262,14 @@ public class Student extends Person implements Searchable<String>, Filterable<St
                 
                 try {
                     Grade grade = Grade.valueOf(gradeStr);
-                    courseGrades.put(courseCode, grade);
+                    untrackCourseGrade(courseGrades.put(courseCode, grade));
+                    trackCourseGrade(grade);
                 } catch (IllegalArgumentException e) {
-                    System.err.println("Invalid grade '" + gradeStr + "' for course " + courseCode);
+                    // Unknown grades are skipped (an import reports them as warnings)
                 }
             }
         }
+        touch();
     }
 
     /**
@@ -212,24 +296,35 @@ public class Student extends Person implements Searchable<String>, Filterable<St
     public LocalDate getGraduationDate() { return graduationDate; }
     public LocalDateTime getStatusChangeDate() { return statusChangeDate; }
     public double getGPA() { return calculateGPA(); }
+
+    /**
+     * Changes to enrollments reach the student through its running totals, so this is the
+     * latest change to the student or to any of its enrollments.
+     */
+    @Override
+    public long getVersion() { return Math.max(super.getVersion(), academicTotals.getVersion()); }
     
     // Setter for status
     public void setStatus(Status status) {
         this.status = status;
         this.statusChangeDate = LocalDateTime.now();
+        touch();
     }
 
     // Setters for mutable date fields
     public void setBirthDate(LocalDate birthDate) {
         this.birthDate = birthDate;
+        touch();
     }
 
     public void setLastLoginDate(LocalDateTime lastLoginDate) {
         this.lastLoginDate = lastLoginDate;
+        touch();
     }
 
     public void setGraduationDate(LocalDate graduationDate) {
         this.graduationDate = graduationDate;
+        touch();
         if (graduationDate != null) {
             this.setStatus(Status.GRADUATED);
         }
@@ -238,6 +333,7 @@ public class Student extends Person implements Searchable<String>, Filterable<St
     // Utility method to record login
     public void recordLogin() {
         this.lastLoginDate = LocalDateTime.now();
+        touch();
     }
     
     @Override
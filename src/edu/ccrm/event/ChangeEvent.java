@@ -0,0 +1,73 @@
+package edu.ccrm.event;
+
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.enrollment.Semester;
+
+/**
+ * An immutable change record published by the DataStore and the services.
+ * Fields that do not apply to an event type are 0 or null.
+ */
+public final class ChangeEvent {
+
+    public enum Type {
+        STUDENT_ADDED,
+        STUDENT_UPDATED,
+        STUDENT_STATUS_CHANGED,
+        COURSE_ADDED,
+        COURSE_UPDATED,
+        COURSE_DEACTIVATED,
+        COURSE_REACTIVATED,
+        INSTRUCTOR_ASSIGNED,
+        ENROLLMENT_CREATED,
+        ENROLLMENT_DROPPED,
+        GRADE_ASSIGNED,
+        DATA_IMPORTED // Bulk load finished; subscribers should resynchronize from the DataStore
+    }
+
+    private final long sequence;
+    private final long timestamp;
+    private final Type type;
+    private final int studentId;
+    private final String courseCode;
+    private final Semester semester;
+    private final Grade previousGrade;
+    private final Grade grade;
+
+    ChangeEvent(long sequence, long timestamp, Type type, int studentId, String courseCode,
+                Semester semester, Grade previousGrade, Grade grade) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.studentId = studentId;
+        this.courseCode = courseCode;
+        this.semester = semester;
+        this.previousGrade = previousGrade;
+        this.grade = grade;
+    }
+
+    // Getters
+    public long getSequence() { return sequence; }
+    public long getTimestamp() { return timestamp; }
+    public Type getType() { return type; }
+    public int getStudentId() { return studentId; }
+    public String getCourseCode() { return courseCode; }
+    public Semester getSemester() { return semester; }
+    public Grade getPreviousGrade() { return previousGrade; }
+    public Grade getGrade() { return grade; }
+
+    /**
+     * Formats the event as one pipe-separated line for the change log file.
+     */
+    public String toLogLine() {
+        return sequence + "|" + timestamp + "|" + type.name() + "|" + studentId + "|" +
+               (courseCode != null ? courseCode : "") + "|" +
+               (semester != null ? semester.name() : "") + "|" +
+               (previousGrade != null ? previousGrade.name() : "") + "|" +
+               (grade != null ? grade.name() : "");
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent[" + toLogLine() + "]";
+    }
+}
@@ -0,0 +1,194 @@
+package edu.ccrm.event;
+
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.enrollment.Semester;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process change event stream.
+ * Every subscriber has its own bounded queue and delivery thread, and receives events
+ * in batches. When a subscriber falls behind and its queue is full, publishers block
+ * (backpressure) instead of dropping events. Publishing with no subscribers is free.
+ * Every subscriber sees events in sequence order. A publisher first reserves a slot in each
+ * queue, waiting for room without holding any lock; only the sequence number and the
+ * (then non-blocking) handoff to the queues happen under the publish lock.
+ */
+public class ChangeEventBus {
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Object publishLock = new Object();
+    private long nextSequence = 1; // Guarded by publishLock
+
+    public void publish(ChangeEvent.Type type, int studentId) {
+        publish(type, studentId, null, null, null, null);
+    }
+
+    public void publish(ChangeEvent.Type type, String courseCode) {
+        publish(type, 0, courseCode, null, null, null);
+    }
+
+    public void publish(ChangeEvent.Type type, int studentId, String courseCode, Semester semester,
+                        Grade previousGrade, Grade grade) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        // Backpressure: wait for room in every queue before taking the lock
+        List<Subscription> targets = new ArrayList<>(subscriptions.size());
+        boolean interrupted = false;
+        for (Subscription subscription : subscriptions) {
+            interrupted |= subscription.reserve();
+            if (subscription.open) {
+                targets.add(subscription);
+            }
+        }
+        // Sequence assignment and handoff happen together so every subscriber sees sequence order
+        synchronized (publishLock) {
+            ChangeEvent event = new ChangeEvent(nextSequence++, System.currentTimeMillis(), type,
+                    studentId, courseCode, semester, previousGrade, grade);
+            for (Subscription subscription : targets) {
+                subscription.enqueue(event);
+            }
+        }
+        // An interrupt does not drop the event: it is still delivered and the interrupt restored afterwards
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sequence number of the most recently published event (0 if none).
+     */
+    public long getLastSequence() {
+        synchronized (publishLock) {
+            return nextSequence - 1;
+        }
+    }
+
+    /**
+     * Registers a listener with its own bounded queue and delivery thread.
+     * @param queueCapacity events buffered before publishers block
+     * @param batchSize maximum events handed to the listener per call
+     */
+    public Subscription subscribe(String name, ChangeListener listener, int queueCapacity, int batchSize) {
+        Subscription subscription = new Subscription(name, listener, queueCapacity, batchSize);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    /**
+     * Blocks until every subscriber has processed all events published before this call.
+     * Useful before reading state that subscribers maintain.
+     */
+    public void awaitDelivery() {
+        for (Subscription subscription : subscriptions) {
+            subscription.awaitProcessed(subscription.enqueued.get());
+        }
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return Collections.unmodifiableList(subscriptions);
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final String name;
+        private final ChangeListener listener;
+        private final BlockingQueue<ChangeEvent> queue;
+        private final Semaphore room; // Free queue slots not yet reserved by a publisher
+        private final int batchSize;
+        private final AtomicLong enqueued = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private final Thread thread;
+        private volatile boolean open = true;
+
+        private Subscription(String name, ChangeListener listener, int queueCapacity, int batchSize) {
+            this.name = name;
+            this.listener = listener;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.room = new Semaphore(queueCapacity);
+            this.batchSize = Math.max(1, batchSize);
+            this.thread = new Thread(this::deliver, "events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Waits for a free queue slot while the subscription is open, and reserves it.
+         * @return whether the thread was interrupted while waiting (the wait goes on regardless)
+         */
+        private boolean reserve() {
+            boolean interrupted = false;
+            while (open) {
+                try {
+                    if (room.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            return interrupted;
+        }
+
+        // Called under the publish lock with a reserved slot, so it never blocks
+        private void enqueue(ChangeEvent event) {
+            queue.add(event);
+            enqueued.incrementAndGet();
+        }
+
+        private void deliver() {
+            List<ChangeEvent> batch = new ArrayList<>(batchSize);
+            while (open || !queue.isEmpty()) {
+                try {
+                    ChangeEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    room.release(batch.size());
+                    try {
+                        listener.onEvents(Collections.unmodifiableList(batch));
+                    } catch (RuntimeException e) {
+                        System.err.println("Change listener '" + name + "' failed: " + e.getMessage());
+                    }
+                    processed.addAndGet(batch.size());
+                    batch.clear();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void awaitProcessed(long target) {
+            while (processed.get() < target && thread.isAlive()) {
+                LockSupport.parkNanos(100_000L);
+            }
+        }
+
+        public String getName() { return name; }
+        public long getProcessedCount() { return processed.get(); }
+        public int getBacklog() { return queue.size(); }
+
+        /**
+         * Unsubscribes, delivers anything still queued and stops the delivery thread.
+         */
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+            open = false;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package edu.ccrm.event;
+
+import java.util.List;
+
+/**
+ * Receives change events in publication order, a batch at a time.
+ * Called on the subscription's own thread; implementations must not publish events.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+    void onEvents(List<ChangeEvent> events);
+}
@@ -0,0 +1,46 @@
+package edu.ccrm.event;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Durable tail of the change stream: appends each event as one line to a log file.
+ * The file is flushed once per delivered batch, so batching amortizes the write cost.
+ */
+public class ChangeLogWriter implements ChangeListener, Closeable {
+    private final BufferedWriter writer;
+
+    public ChangeLogWriter(Path logFile) throws IOException {
+        Path parent = logFile.toAbsolutePath().getParent();
+        if (parent != null && Files.notExists(parent)) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void onEvents(List<ChangeEvent> events) {
+        try {
+            for (ChangeEvent event : events) {
+                writer.write(event.toLogLine());
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,13 @@
+package edu.ccrm.exception;
+
+import java.io.IOException;
+
+/**
+ * Checked exception for an import file whose header lacks a required column.
+ * The whole file is rejected, so it is reported like any other error reading the file.
+ */
+public class InvalidHeaderException extends IOException {
+    public InvalidHeaderException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,48 @@
+package edu.ccrm.exception;
+
+/**
+ * Unchecked exception for a malformed record in an import file.
+ * The message describes the problem; the reason code and column locate it for the
+ * import error report.
+ */
+public class InvalidRecordException extends RuntimeException {
+
+    /**
+     * Reason codes of rejected import records, and of warnings about records that were
+     * imported all the same (DEFAULT_USED, VALUE_SKIPPED).
+     */
+    public enum Reason {
+        MISSING_COLUMNS, MISSING_VALUE, INVALID_DATE, INVALID_NUMBER, INVALID_VALUE,
+        UNKNOWN_REFERENCE, MALFORMED_JSON, OTHER,
+        DEFAULT_USED, // An invalid value was replaced by its default
+        VALUE_SKIPPED; // An unknown part of a value was left out
+
+        public boolean isWarning() {
+            return this == DEFAULT_USED || this == VALUE_SKIPPED;
+        }
+    }
+
+    private final Reason reason;
+    private final int column;
+
+    public InvalidRecordException(String message) {
+        this(Reason.OTHER, 0, message);
+    }
+
+    /**
+     * @param column 1-based CSV field or JSON character position of the problem, 0 if unknown
+     */
+    public InvalidRecordException(Reason reason, int column, String message) {
+        super(message);
+        this.reason = reason;
+        this.column = column;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+}
@@ -2,24 +2,51 @@ package edu.ccrm.io;
 
 import edu.ccrm.config.AppConfig;
 import edu.ccrm.util.RecursiveFileUtils;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 /**
  * Service for handling data backups using NIO.2.
+ * Backups are incremental: every file is hashed (SHA-256) and one whose hash matches the
+ * previous backup is hard-linked to that backup's copy instead of copied again, so a backup
+ * costs in proportion to what changed. A file that has to be copied is hashed while it is
+ * copied, so it is read only once. Each backup is still a complete directory, so listing,
+ * restoring and deleting work on it alone. The hashes are kept next to the backup directory
+ * in backup_&lt;timestamp&gt;.sha256 (sha256sum format, paths relative to the backup).
+ * A linked file keeps the modification time of the copy it shares. Where the file system
+ * does not support hard links, unchanged files are copied.
  */
 public class BackupService {
+    private static final String MANIFEST_SUFFIX = ".sha256";
+
     private final Path dataDir;
     private final Path backupRootDir;
+    private final int hashBufferSize;
     private final DateTimeFormatter timestampFormatter = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
     public BackupService() {
-        AppConfig config = AppConfig.getInstance();
-        this.dataDir = Paths.get(config.getDataDirectory());
-        this.backupRootDir = Paths.get(config.getBackupDirectory());
+        this(Paths.get(AppConfig.getInstance().getDataDirectory()), Paths.get(AppConfig.getInstance().getBackupDirectory()));
+    }
+
+    public BackupService(Path dataDir, Path backupRootDir) {
+        this.dataDir = dataDir;
+        this.backupRootDir = backupRootDir;
+        this.hashBufferSize = AppConfig.getInstance().getIntProperty("backup.hash.buffer.size", 65536);
     }
 
     public String backupData() {
@@ -42,42 +69,69 @@ public class BackupService {
                 return null;
             }
 
-            // Copy all files using NIO.2 with proper error handling
+            // Hashes of the latest earlier backup; unchanged files are linked to its copies
+            Optional<Path> previous = findPreviousBackup(backupPath);
+            Map<String, String> previousHashes = previous.isPresent()
+                    ? readManifest(manifestOf(previous.get()))
+                    : Map.of();
+            Map<String, String> hashes = new HashMap<>();
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[hashBufferSize];
+            long copiedFiles = 0;
+            long linkedFiles = 0;
+            long copiedBytes = 0;
+
+            // Hash every file and copy only the changed ones, reading each file once where possible
+            List<Path> sources;
             try (Stream<Path> pathStream = Files.walk(dataDir)) {
-                long copiedFiles = pathStream
-                    .filter(Files::isRegularFile) // Only copy regular files
-                    .mapToLong(source -> {
-                        try {
-                            Path relativePath = dataDir.relativize(source);
-                            Path destination = backupPath.resolve(relativePath);
-                            
-                            // Create parent directories if they don't exist
-                            Path parent = destination.getParent();
-                            if (parent != null && Files.notExists(parent)) {
-                                Files.createDirectories(parent);
-                            }
-                            
-                            Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING, 
-                                     StandardCopyOption.COPY_ATTRIBUTES);
-                            return 1;
-                        } catch (IOException e) {
-                            System.err.println("Failed to copy file: " + source + " - " + e.getMessage());
-                            return 0;
-                        }
-                    })
-                    .sum();
-                    
-                // Calculate backup size
-                long backupSize = RecursiveFileUtils.calculateDirectorySize(backupPath.toString());
-                String sizeFormatted = RecursiveFileUtils.formatFileSize(backupSize);
-                
-                System.out.println("Backup created successfully:");
-                System.out.println("  Location: " + backupPath.toAbsolutePath());
-                System.out.println("  Files copied: " + copiedFiles);
-                System.out.println("  Total size: " + sizeFormatted);
-                
-                return backupPath.toString();
+                sources = pathStream.filter(Files::isRegularFile).toList(); // Only back up regular files
+            }
+            for (Path source : sources) {
+                try {
+                    Path relativePath = dataDir.relativize(source);
+                    Path destination = backupPath.resolve(relativePath);
+                    String key = manifestPath(relativePath);
+
+                    // Create parent directories if they don't exist
+                    Path parent = destination.getParent();
+                    if (parent != null && Files.notExists(parent)) {
+                        Files.createDirectories(parent);
+                    }
+
+                    // A file whose previous copy has the same size is probably unchanged: hash it, then link.
+                    // Any other file is copied and hashed in the same pass.
+                    String previousHash = previousHashes.get(key);
+                    Path previousCopy = (previousHash != null) ? previous.get().resolve(relativePath) : null;
+                    String hash = null;
+                    if (previousCopy != null && Files.isRegularFile(previousCopy) && Files.size(previousCopy) == Files.size(source)) {
+                        hash = hash(source, digest, buffer);
+                    }
+                    if (hash != null && hash.equals(previousHash) && link(destination, previousCopy)) {
+                        linkedFiles++;
+                    } else {
+                        hash = copy(source, destination, digest, buffer);
+                        copiedFiles++;
+                        copiedBytes += Files.size(destination);
+                    }
+                    hashes.put(key, hash);
+                } catch (IOException e) {
+                    System.err.println("Failed to copy file: " + source + " - " + e.getMessage());
+                }
             }
+            writeManifest(manifestOf(backupPath), hashes);
+
+            // Calculate backup size
+            long backupSize = RecursiveFileUtils.calculateDirectorySize(backupPath.toString());
+            String sizeFormatted = RecursiveFileUtils.formatFileSize(backupSize);
+
+            System.out.println("Backup created successfully:");
+            System.out.println("  Location: " + backupPath.toAbsolutePath());
+            System.out.println("  Files copied: " + copiedFiles + " (" + RecursiveFileUtils.formatFileSize(copiedBytes) + ")");
+            System.out.println("  Files unchanged (linked to " + previous.map(p -> p.getFileName().toString()).orElse("previous backup")
+                    + "): " + linkedFiles);
+            System.out.println("  Total size: " + sizeFormatted);
+
+            return backupPath.toString();
 
         } catch (IOException e) {
             System.err.println("Error creating backup: " + e.getMessage());
@@ -86,6 +140,7 @@ public class BackupService {
                 if (Files.exists(backupPath)) {
                     RecursiveFileUtils.deleteDirectoryRecursively(backupPath);
                 }
+                Files.deleteIfExists(manifestOf(backupPath));
             } catch (IOException cleanupError) {
                 System.err.println("Failed to clean up partial backup: " + cleanupError.getMessage());
             }
@@ -196,7 +251,9 @@ public class BackupService {
         }
         
         try {
+            // Files linked from later backups stay there; only this backup's links go
             RecursiveFileUtils.deleteDirectoryRecursively(backupPath);
+            Files.deleteIfExists(manifestOf(backupPath));
             System.out.println("Backup deleted: " + backupTimestamp);
             return true;
         } catch (IOException e) {
@@ -204,4 +261,97 @@ public class BackupService {
             return false;
         }
     }
+
+    // Newest other backup that has a manifest (backups made before manifests existed are skipped)
+    private Optional<Path> findPreviousBackup(Path current) throws IOException {
+        try (Stream<Path> backups = Files.list(backupRootDir)) {
+            return backups.filter(Files::isDirectory)
+                          .filter(path -> path.getFileName().toString().startsWith("backup_"))
+                          .filter(path -> !path.equals(current) && Files.exists(manifestOf(path)))
+                          .max((p1, p2) -> p1.getFileName().toString().compareTo(p2.getFileName().toString()));
+        }
+    }
+
+    private static Path manifestOf(Path backupPath) {
+        return backupPath.resolveSibling(backupPath.getFileName() + MANIFEST_SUFFIX);
+    }
+
+    // Manifest paths use '/' whatever the platform
+    private static String manifestPath(Path relativePath) {
+        return relativePath.toString().replace('\\', '/');
+    }
+
+    private static Map<String, String> readManifest(Path manifest) throws IOException {
+        Map<String, String> hashes = new HashMap<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            int separator = line.indexOf("  ");
+            if (separator > 0) {
+                hashes.put(line.substring(separator + 2), line.substring(0, separator));
+            }
+        }
+        return hashes;
+    }
+
+    // Written last and replaced atomically, so a manifest only exists for a complete backup
+    private static void writeManifest(Path manifest, Map<String, String> hashes) throws IOException {
+        Path temp = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> entry : hashes.entrySet()) {
+                out.write(entry.getValue() + "  " + entry.getKey());
+                out.newLine();
+            }
+        }
+        try {
+            Files.move(temp, manifest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Streams the file through the digest, reusing the buffer
+    private static String hash(Path file, MessageDigest digest, byte[] buffer) throws IOException {
+        digest.reset();
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Copies the file through the digest in one pass and keeps its modification time, as a copy with COPY_ATTRIBUTES would
+    private static String copy(Path source, Path destination, MessageDigest digest, byte[] buffer) throws IOException {
+        digest.reset();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest);
+             OutputStream out = Files.newOutputStream(destination)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        Files.setLastModifiedTime(destination, Files.getLastModifiedTime(source));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Required of every Java platform
+        }
+    }
+
+    /**
+     * Hard-links an unchanged file to its copy in the previous backup.
+     * @return false if links are not supported (the caller copies instead)
+     */
+    private static boolean link(Path destination, Path previousCopy) throws IOException {
+        try {
+            Files.createLink(destination, previousCopy);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            return false;
+        }
+    }
 }
\ No newline at end of file
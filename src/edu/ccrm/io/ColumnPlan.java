@@ -0,0 +1,160 @@
+package edu.ccrm.io;
+
+import edu.ccrm.exception.InvalidHeaderException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Binding of the columns a record type understands to their positions in one CSV file,
+ * compiled once from the file's header.
+ * Header names are matched ignoring case, spaces, underscores and hyphens ("Full Name",
+ * "full_name" and "FullName" are the same), with aliases per column; unknown columns are
+ * ignored. Decoding a row then runs only the decoders of the columns the file has, in
+ * header order, so columns may come in any order and optional ones may be left out.
+ * A header without a single known name gets the default column order, as before headers
+ * were read (the first line is still skipped).
+ * @param <B> the mutable holder the decoders fill in for one row
+ */
+final class ColumnPlan<B> {
+
+    /**
+     * Decodes a non-empty field into the holder.
+     */
+    @FunctionalInterface
+    interface Decoder<B> {
+        void decode(CsvTokenizer row, int index, B target);
+    }
+
+    /**
+     * A column a record type understands: its header names and how to decode it.
+     */
+    record Column<B>(String name, boolean required, Decoder<B> decoder, String... aliases) {
+    }
+
+    private final int[] indexes; // Position of each bound column, in header order
+    private final List<Decoder<B>> decoders;
+    private final List<String> names;
+    private final int width; // Fields a row needs to reach every required column
+
+    private ColumnPlan(int[] indexes, List<Decoder<B>> decoders, List<String> names, int width) {
+        this.indexes = indexes;
+        this.decoders = decoders;
+        this.names = names;
+        this.width = width;
+    }
+
+    /**
+     * @param header the header line (null for an empty file)
+     * @param defaultHeader the column order assumed when the header has no known names
+     * @param file file name for the error message
+     * @throws InvalidHeaderException if a required column is missing
+     */
+    static <B> ColumnPlan<B> compile(String header, String defaultHeader, List<Column<B>> columns, String file)
+            throws InvalidHeaderException {
+        List<String> found = headerNames(header != null ? header : defaultHeader);
+        List<String> names = columns.stream().anyMatch(column -> position(found, column) >= 0)
+                ? found
+                : headerNames(defaultHeader);
+        if (names != found) {
+            System.err.println("No known column names in the header of " + file + "; assuming " + defaultHeader);
+        }
+
+        int[] positions = new int[names.size()];
+        List<Column<B>> bound = new ArrayList<>();
+        StringJoiner missing = new StringJoiner(", ");
+        int width = 0;
+        for (Column<B> column : columns) {
+            int position = position(names, column);
+            if (position < 0) {
+                if (column.required()) {
+                    missing.add(column.name());
+                }
+                continue;
+            }
+            positions[bound.size()] = position;
+            bound.add(column);
+            if (column.required()) {
+                width = Math.max(width, position + 1);
+            }
+        }
+        if (missing.length() > 0) {
+            throw new InvalidHeaderException("Missing required column(s) " + missing + " in the header of " + file);
+        }
+
+        // Decode in header order, so errors point at the first bad field of a row
+        Integer[] order = new Integer[bound.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(positions[a], positions[b]));
+        int[] indexes = new int[order.length];
+        List<Decoder<B>> decoders = new ArrayList<>(order.length);
+        List<String> boundNames = new ArrayList<>(order.length);
+        for (int i = 0; i < order.length; i++) {
+            indexes[i] = positions[order[i]];
+            decoders.add(bound.get(order[i]).decoder());
+            boundNames.add(bound.get(order[i]).name());
+        }
+        return new ColumnPlan<>(indexes, decoders, boundNames, width);
+    }
+
+    /**
+     * Runs the decoder of every bound column whose field is present and not blank.
+     */
+    void decode(CsvTokenizer row, B target) {
+        for (int i = 0; i < indexes.length; i++) {
+            if (!row.isEmpty(indexes[i])) {
+                decoders.get(i).decode(row, indexes[i], target);
+            }
+        }
+    }
+
+    /**
+     * @return the number of fields a row needs to reach every required column
+     */
+    int requiredWidth() {
+        return width;
+    }
+
+    /**
+     * @return the 1-based field number of the column, for error reports; 0 if the file does not have it
+     */
+    int fieldOf(String column) {
+        int i = names.indexOf(column);
+        return (i >= 0) ? indexes[i] + 1 : 0;
+    }
+
+    private static int position(List<String> names, Column<?> column) {
+        int position = names.indexOf(normalize(column.name()));
+        for (int i = 0; position < 0 && i < column.aliases().length; i++) {
+            position = names.indexOf(normalize(column.aliases()[i]));
+        }
+        return position;
+    }
+
+    private static List<String> headerNames(String header) {
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1); // Byte order mark
+        }
+        CsvTokenizer tokens = new CsvTokenizer().reset(header);
+        List<String> names = new ArrayList<>(tokens.fieldCount());
+        for (int i = 0; i < tokens.fieldCount(); i++) {
+            names.add(normalize(tokens.getString(i)));
+        }
+        return names;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != ' ' && c != '_' && c != '-') {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,145 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Instructor;
+import edu.ccrm.exception.InvalidHeaderException;
+import edu.ccrm.exception.InvalidRecordException;
+import edu.ccrm.exception.InvalidRecordException.Reason;
+import edu.ccrm.util.Validator;
+import java.util.List;
+
+/**
+ * One parsed row of a courses CSV file, validated and built into a Course without
+ * touching shared state, so rows can be parsed on any thread.
+ * Columns are found by name through a ColumnPlan compiled from the file's header;
+ * Code and Title are required.
+ */
+final class CourseRecord {
+    /**
+     * Column order of exported files, also assumed for files whose header has no known names.
+     */
+    static final String HEADER = "Code,Title,Credits,Department,Semester,InstructorName,InstructorEmail,Active";
+
+    private static final Semester[] SEMESTERS = Semester.values();
+
+    private static final List<ColumnPlan.Column<Values>> COLUMNS = List.of(
+            new ColumnPlan.Column<Values>("Code", true, (row, i, v) -> v.code = row.getString(i), "CourseCode"),
+            new ColumnPlan.Column<Values>("Title", true, (row, i, v) -> v.title = row.getString(i), "CourseTitle", "Name"),
+            new ColumnPlan.Column<Values>("Credits", false, (row, i, v) -> v.credits = row.getInt(i)),
+            new ColumnPlan.Column<Values>("Department", false, (row, i, v) -> v.department = row.getString(i), "Dept"),
+            new ColumnPlan.Column<Values>("Semester", false, (row, i, v) -> {
+                v.semester = row.getEnum(i, SEMESTERS);
+                v.invalidSemester = (v.semester == null) ? row.getString(i) : null;
+            }),
+            new ColumnPlan.Column<Values>("InstructorName", false, (row, i, v) -> v.instructorName = row.getString(i), "Instructor"),
+            new ColumnPlan.Column<Values>("InstructorEmail", false, (row, i, v) -> v.instructorEmail = row.getString(i)),
+            new ColumnPlan.Column<Values>("Active", false, (row, i, v) -> v.active = row.getBoolean(i)));
+
+    private CourseRecord() {
+    }
+
+    /**
+     * Field values of one row, filled in by the plan's decoders.
+     */
+    static final class Values {
+        private String code = "";
+        private String title = "";
+        private int credits = 3;
+        private String department = "General";
+        private Semester semester;
+        private String invalidSemester;
+        private String instructorName;
+        private String instructorEmail;
+        private Boolean active;
+    }
+
+    /**
+     * Compiles the column plan for a file, once per import.
+     * @param header the file's first line (null if it is empty)
+     * @throws InvalidHeaderException if a required column is missing
+     */
+    static ColumnPlan<Values> plan(String header, String file) throws InvalidHeaderException {
+        return ColumnPlan.compile(header, HEADER, COLUMNS, file);
+    }
+
+    /**
+     * An unknown semester is replaced by FALL and reported as a warning.
+     * @param warnings report of the import, positioned at this row (see ImportErrorReport.startRecord)
+     * @throws InvalidRecordException if required columns are missing; other runtime exceptions for unparsable values
+     */
+    static Course parse(CsvTokenizer row, ColumnPlan<Values> plan, ImportErrorReport warnings) {
+        Values v = decode(row, plan);
+        if (v.invalidSemester != null) {
+            warnings.warn(Reason.DEFAULT_USED, plan.fieldOf("Semester"),
+                    "Invalid semester '" + v.invalidSemester + "' for course " + v.code + ". Using default FALL.");
+        }
+        return build(v);
+    }
+
+    /**
+     * Stricter parse for a dry run: also rejects an unknown semester (which an import
+     * replaces by FALL) and an invalid instructor email.
+     * @return the course, which is not added anywhere
+     * @throws InvalidRecordException for the first problem found; other runtime exceptions for unparsable values
+     */
+    static Course validate(CsvTokenizer row, ColumnPlan<Values> plan) {
+        Values v = decode(row, plan);
+        checkStrict(v.invalidSemester, plan.fieldOf("Semester"), v.instructorEmail, plan.fieldOf("InstructorEmail"));
+        return build(v);
+    }
+
+    /**
+     * Dry-run checks shared with JSON Lines records.
+     * @param invalidSemester the semester as given if it is not a known one, otherwise null
+     * @param instructorEmail may be null or blank (no instructor)
+     */
+    static void checkStrict(String invalidSemester, int semesterField, String instructorEmail, int emailField) {
+        if (invalidSemester != null) {
+            throw new InvalidRecordException(Reason.INVALID_VALUE, semesterField, "Invalid course record (unknown semester '" + invalidSemester + "')");
+        }
+        if (instructorEmail != null && !instructorEmail.isBlank() && !Validator.isValidEmail(instructorEmail.trim())) {
+            throw new InvalidRecordException(Reason.INVALID_VALUE, emailField, "Invalid course record (invalid instructor email '" + instructorEmail + "')");
+        }
+    }
+
+    // Decodes a row and checks the required values
+    private static Values decode(CsvTokenizer row, ColumnPlan<Values> plan) {
+        if (row.fieldCount() < plan.requiredWidth()) {
+            throw new InvalidRecordException(Reason.MISSING_COLUMNS, row.fieldCount() + 1, "Invalid course record (insufficient columns)");
+        }
+
+        // Basic course information with validation
+        Values v = new Values();
+        plan.decode(row, v);
+        if (v.code.isEmpty() || v.title.isEmpty()) {
+            throw new InvalidRecordException(Reason.MISSING_VALUE, plan.fieldOf(v.code.isEmpty() ? "Code" : "Title"),
+                    "Invalid course record (missing code or title)");
+        }
+        return v;
+    }
+
+    private static Course build(Values v) {
+        Course.Builder builder = new Course.Builder(v.code, v.title)
+                .credits(v.credits)
+                .department(v.department);
+
+        // Set semester if provided (an invalid one keeps the default)
+        if (v.semester != null) {
+            builder.semester(v.semester);
+        }
+
+        // Set instructor if both name and email are provided
+        if (v.instructorName != null && v.instructorEmail != null) {
+            Instructor instructor = new Instructor(0, v.instructorName, v.instructorEmail, v.department);
+            builder.instructor(instructor);
+        }
+
+        // Set active status if provided
+        if (v.active != null) {
+            builder.active(v.active);
+        }
+
+        return builder.build();
+    }
+}
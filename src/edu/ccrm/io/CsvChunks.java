@@ -0,0 +1,118 @@
+package edu.ccrm.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Splits a CSV file into byte ranges that each start at the beginning of a record.
+ * A newline only ends a record outside double quotes, so the splitter first counts the
+ * quote characters of every nominal segment in parallel; the prefix parity then tells
+ * whether a segment starts inside a quoted field, and each boundary is moved forward to
+ * the first newline that is outside quotes.
+ */
+public final class CsvChunks {
+    // Keeps every mapping well below the 2 GB limit of a MappedByteBuffer
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private CsvChunks() {
+    }
+
+    /**
+     * @param chunkCount desired number of chunks (raised so that no segment exceeds 1 GB)
+     * @return ascending offsets b[0]=0 ... b[n]=size; chunk i is [b[i], b[i+1]) and may be empty
+     */
+    public static long[] split(FileChannel channel, int chunkCount, ExecutorService executor)
+            throws IOException, InterruptedException {
+        return split(channel, 0, chunkCount, executor);
+    }
+
+    /**
+     * Splits the rest of the file from start, which must be the start of a record (e.g. a
+     * boundary of an earlier split).
+     * @return ascending offsets b[0]=start ... b[n]=size
+     */
+    public static long[] split(FileChannel channel, long start, int chunkCount, ExecutorService executor)
+            throws IOException, InterruptedException {
+        return split(channel, start, channel.size(), chunkCount, executor);
+    }
+
+    /**
+     * Splits the part of the file from start up to end, which must both be the start of a
+     * record (or end the file).
+     * @return ascending offsets b[0]=start ... b[n]=end
+     */
+    public static long[] split(FileChannel channel, long start, long end, int chunkCount, ExecutorService executor)
+            throws IOException, InterruptedException {
+        int count = (int) Math.max(Math.max(1, chunkCount), (end - start + MAX_SEGMENT_BYTES - 1) / MAX_SEGMENT_BYTES);
+        long[] nominal = new long[count + 1];
+        for (int i = 0; i <= count; i++) {
+            nominal[i] = start + (end - start) * i / count;
+        }
+
+        // Pass 1: quote count of each nominal segment, in parallel
+        List<Future<Long>> quoteCounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long from = nominal[i];
+            long to = nominal[i + 1];
+            Callable<Long> task = () -> countQuotes(channel.map(FileChannel.MapMode.READ_ONLY, from, to - from));
+            quoteCounts.add(executor.submit(task));
+        }
+
+        // Pass 2: move each boundary to the first newline outside quotes
+        long[] boundaries = new long[count + 1];
+        boundaries[0] = start;
+        boundaries[count] = end;
+        long quotesBefore = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                // A record that ran past this nominal start leaves the previous chunk empty
+                boundaries[i] = (boundaries[i - 1] >= nominal[i])
+                        ? boundaries[i - 1]
+                        : nextRecordStart(channel, nominal[i], (quotesBefore & 1) == 1, end);
+            }
+            try {
+                quotesBefore += quoteCounts.get(i).get();
+            } catch (ExecutionException e) {
+                throw (e.getCause() instanceof IOException io) ? io : new IOException(e.getCause());
+            }
+        }
+        return boundaries;
+    }
+
+    private static long countQuotes(MappedByteBuffer buffer) {
+        long quotes = 0;
+        for (int i = 0, n = buffer.limit(); i < n; i++) {
+            if (buffer.get(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    // Offset just past the first newline at or after position that lies outside quotes
+    private static long nextRecordStart(FileChannel channel, long position, boolean inQuotes, long size)
+            throws IOException {
+        long pos = position;
+        while (pos < size) {
+            int length = (int) Math.min(64 * 1024, size - pos);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, pos, length);
+            for (int i = 0; i < length; i++) {
+                byte b = window.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    return pos + i + 1;
+                }
+            }
+            pos += length;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,86 @@
+package edu.ccrm.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opens CSV files for streaming, transparently gzip-compressed when the name ends in .gz.
+ * Data flows through fixed-size buffers in both directions, so memory use does not depend
+ * on the size of the file.
+ */
+public final class CsvFiles {
+    public static final String GZIP_SUFFIX = ".gz";
+
+    private CsvFiles() {
+    }
+
+    public static boolean isGzip(Path file) {
+        return file.getFileName().toString().endsWith(GZIP_SUFFIX);
+    }
+
+    /**
+     * @param bufferSize size of the read buffer (and of the inflater's input buffer for .gz files)
+     */
+    public static BufferedReader newReader(Path file, int bufferSize) throws IOException {
+        if (!isGzip(file)) {
+            return new BufferedReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8.newDecoder()),
+                    bufferSize);
+        }
+        InputStream in = Files.newInputStream(file);
+        try {
+            return new BufferedReader(new InputStreamReader(new GZIPInputStream(in, bufferSize), StandardCharsets.UTF_8),
+                    bufferSize);
+        } catch (IOException e) {
+            in.close(); // Not a gzip file
+            throw e;
+        }
+    }
+
+    /**
+     * @return the first line of the file, or null if it is empty
+     */
+    public static String readHeader(Path file, int bufferSize) throws IOException {
+        try (BufferedReader reader = newReader(file, bufferSize)) {
+            return reader.readLine();
+        }
+    }
+
+    /**
+     * @param gzip whether to compress (decided by the caller, since the file may be a temp file)
+     * @param bufferSize size of the write buffer, or of the deflater's output buffer when compressing
+     * @param level Deflater level, 1 (fastest) to 9 (smallest), or -1 for the default
+     */
+    public static Writer newWriter(Path file, boolean gzip, int bufferSize, int level) throws IOException {
+        if (!gzip) {
+            return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8.newEncoder()),
+                    bufferSize);
+        }
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Compression level must be 1-9 or -1, got: " + level);
+        }
+        OutputStream out = Files.newOutputStream(file);
+        try {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, bufferSize) {
+                {
+                    def.setLevel(level);
+                }
+            };
+            return new OutputStreamWriter(gzipOut, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+}
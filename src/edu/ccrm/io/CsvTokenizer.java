@@ -0,0 +1,260 @@
+package edu.ccrm.io;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Reusable RFC 4180 tokenizer for one CSV record at a time.
+ * reset() records the bounds of every field over the given characters (a String, a
+ * CharBuffer...) without copying them. Quoted fields may contain commas, newlines and
+ * doubled quotes. Field values are trimmed, like the String.trim() calls they replace,
+ * and the decoders read ints, ISO dates, enums and booleans straight from the characters,
+ * so a String is only created when getString() is called or a value is rejected.
+ */
+public final class CsvTokenizer {
+    private CharSequence line = "";
+    private int count;
+    private int[] starts = new int[16]; // Trimmed content bounds, excluding quotes
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16]; // Content contains doubled quotes
+    private boolean openQuote; // The last field's quote was never closed
+    private int lastDecoded; // Field of the last getInt/getDate/getDateTime call
+
+    /**
+     * Tokenizes one record (without its line terminator).
+     * @return this tokenizer, for chaining
+     */
+    public CsvTokenizer reset(CharSequence record) {
+        this.line = record;
+        this.count = 0;
+        this.openQuote = false;
+        this.lastDecoded = -1;
+        int length = record.length();
+        int pos = 0;
+        while (true) {
+            int fieldStart = pos;
+            int start = skipWhitespace(record, pos, length);
+            int end;
+            boolean hasEscapes = false;
+            if (start < length && record.charAt(start) == '"') {
+                // Quoted field: runs to the closing quote; "" stands for one quote
+                int i = start + 1;
+                while (i < length) {
+                    if (record.charAt(i) == '"') {
+                        if (i + 1 < length && record.charAt(i + 1) == '"') {
+                            hasEscapes = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                openQuote = (i == length);
+                start++;
+                end = i;
+                pos = Math.min(i + 1, length);
+                while (pos < length && record.charAt(pos) != ',') {
+                    pos++; // Tolerate stray characters after the closing quote
+                }
+            } else {
+                pos = fieldStart;
+                while (pos < length && record.charAt(pos) != ',') {
+                    pos++;
+                }
+                end = pos;
+            }
+            addField(record, start, end, hasEscapes);
+            if (pos >= length) {
+                return this;
+            }
+            pos++; // Skip the comma
+        }
+    }
+
+    private void addField(CharSequence record, int start, int end, boolean hasEscapes) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            escaped = Arrays.copyOf(escaped, count * 2);
+        }
+        // Trim like String.trim()
+        while (start < end && record.charAt(start) <= ' ') start++;
+        while (end > start && record.charAt(end - 1) <= ' ') end--;
+        starts[count] = start;
+        ends[count] = end;
+        escaped[count] = hasEscapes;
+        count++;
+    }
+
+    private static int skipWhitespace(CharSequence record, int pos, int length) {
+        while (pos < length && record.charAt(pos) == ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * @return true if the record ends inside a quoted field, i.e. continues on the next line
+     */
+    public boolean hasOpenQuote() {
+        return openQuote;
+    }
+
+    /**
+     * @return true for a blank record (a single empty field)
+     */
+    public boolean isBlank() {
+        return count == 1 && starts[0] == ends[0] && !openQuote;
+    }
+
+    public int fieldCount() {
+        return count;
+    }
+
+    /**
+     * The raw record, for diagnostics.
+     */
+    public CharSequence line() {
+        return line;
+    }
+
+    /**
+     * Index of the field decoded last by getInt, getDate or getDateTime, to locate a value
+     * they rejected; -1 if none was decoded since reset().
+     */
+    public int lastDecodedField() {
+        return lastDecoded;
+    }
+
+    /**
+     * @return true if the field is missing or blank
+     */
+    public boolean isEmpty(int index) {
+        return index >= count || starts[index] == ends[index];
+    }
+
+    public int length(int index) {
+        return (index < count) ? ends[index] - starts[index] : 0;
+    }
+
+    /**
+     * Trimmed, unquoted field value ("" when the field is missing).
+     */
+    public String getString(int index) {
+        if (index >= count) {
+            return "";
+        }
+        if (!escaped[index]) {
+            return line.subSequence(starts[index], ends[index]).toString();
+        }
+        StringBuilder sb = new StringBuilder(ends[index] - starts[index]);
+        for (int i = starts[index]; i < ends[index]; i++) {
+            char c = line.charAt(i);
+            sb.append(c);
+            if (c == '"') {
+                i++; // Second quote of a doubled pair
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Trimmed value, or null when the field is missing or blank.
+     */
+    public String getStringOrNull(int index) {
+        return isEmpty(index) ? null : getString(index);
+    }
+
+    /**
+     * Decodes a decimal int with optional sign.
+     * @throws NumberFormatException with the same message as Integer.parseInt
+     */
+    public int getInt(int index) {
+        lastDecoded = index;
+        int start = (index < count) ? starts[index] : 0;
+        int end = (index < count) ? ends[index] : 0;
+        if (start == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        boolean negative = false;
+        int i = start;
+        char first = line.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = (first == '-');
+            i++;
+        }
+        if (i == end || end - i > 10) {
+            return Integer.parseInt(getString(index)); // Overflow or sign only: let parseInt report it
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return Integer.parseInt(getString(index));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Decodes an ISO date (yyyy-MM-dd); see IsoDates for other forms.
+     */
+    public LocalDate getDate(int index) {
+        lastDecoded = index;
+        return (index < count) ? IsoDates.parseDate(line, starts[index], ends[index]) : LocalDate.parse("");
+    }
+
+    /**
+     * Decodes an ISO local date-time (yyyy-MM-ddTHH:mm or yyyy-MM-ddTHH:mm:ss); see IsoDates for other forms.
+     */
+    public LocalDateTime getDateTime(int index) {
+        lastDecoded = index;
+        return (index < count) ? IsoDates.parseDateTime(line, starts[index], ends[index]) : LocalDateTime.parse("");
+    }
+
+    /**
+     * Matches the field against the constant names, ignoring case. Pass a shared array rather
+     * than values(), which copies the constants on every call.
+     * @return the matching constant, or null if there is none (or the field is blank)
+     */
+    public <E extends Enum<E>> E getEnum(int index, E[] values) {
+        if (isEmpty(index)) {
+            return null;
+        }
+        for (E value : values) {
+            if (matchesIgnoreCase(index, value.name())) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Same rule as Boolean.parseBoolean: true only for "true", ignoring case.
+     */
+    public boolean getBoolean(int index) {
+        return matchesIgnoreCase(index, "true");
+    }
+
+    public boolean matchesIgnoreCase(int index, String text) {
+        if (length(index) != text.length()) {
+            return false;
+        }
+        int s = starts[index];
+        for (int i = 0; i < text.length(); i++) {
+            char a = line.charAt(s + i);
+            char b = text.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+package edu.ccrm.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streams CSV rows to a writer, one field at a time, and counts the data rows.
+ * Fields containing a comma, quote or line break are quoted (RFC 4180) so that they
+ * read back through CsvTokenizer unchanged; all other fields are written as they are.
+ */
+public final class CsvWriter implements Closeable {
+    private final Writer out;
+    private boolean rowStarted;
+    private long rowCount;
+
+    /**
+     * @param bufferSize size of the buffer in chars; rows reach the underlying writer in blocks of this size
+     */
+    public CsvWriter(Writer out, int bufferSize) {
+        this.out = new BufferedWriter(out, bufferSize);
+    }
+
+    /**
+     * Writes a header line; it is not counted as a row.
+     */
+    public CsvWriter header(String header) throws IOException {
+        out.write(header);
+        out.write(System.lineSeparator());
+        return this;
+    }
+
+    public CsvWriter field(String value) throws IOException {
+        separator();
+        if (needsQuotes(value)) {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        } else {
+            out.write(value);
+        }
+        return this;
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separator();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Ends the current row (line separator as in Files.write) and counts it.
+     */
+    public void endRow() throws IOException {
+        out.write(System.lineSeparator());
+        rowStarted = false;
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            out.write(',');
+        }
+        rowStarted = true;
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
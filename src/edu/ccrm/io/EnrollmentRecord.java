@@ -0,0 +1,192 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.enrollment.Enrollment;
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.exception.InvalidHeaderException;
+import edu.ccrm.exception.InvalidRecordException;
+import edu.ccrm.exception.InvalidRecordException.Reason;
+import edu.ccrm.service.DataStore;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One parsed row of an enrollments CSV file (historical data).
+ * The course code is resolved through the course map while parsing, which only reads
+ * shared state, so rows can be parsed on any thread.
+ * Columns are found by name through a ColumnPlan compiled from the file's header, so both
+ * the import layout (StudentID,CourseCode,Semester,Grade,Credits,EnrollmentDate) and
+ * exported enrollments files are read; StudentID and CourseCode are required.
+ * Credits is informational; the course's own credits apply. A Status of DROPPED marks
+ * the enrollment dropped.
+ */
+final class EnrollmentRecord {
+    /**
+     * Column order assumed for files whose header has no known names.
+     */
+    static final String HEADER = "StudentID,CourseCode,Semester,Grade,Credits,EnrollmentDate";
+
+    /**
+     * Column order written by an enrollments export; read back by name like any other layout.
+     */
+    static final String EXPORT_HEADER = "StudentID,StudentRegNo,CourseCode,CourseTitle,Semester,EnrollmentDate,Marks,Grade,GradePoints,Status";
+
+    private static final Semester[] SEMESTERS = Semester.values();
+    private static final Grade[] GRADES = Grade.values();
+
+    private static final List<ColumnPlan.Column<Values>> COLUMNS = List.of(
+            new ColumnPlan.Column<Values>("StudentID", true, (row, i, v) -> v.studentId = row.getInt(i)),
+            new ColumnPlan.Column<Values>("CourseCode", true, (row, i, v) -> v.courseCode = row.getString(i), "Course", "Code"),
+            new ColumnPlan.Column<Values>("Semester", false, (row, i, v) -> {
+                v.semester = row.getEnum(i, SEMESTERS);
+                if (v.semester == null) {
+                    throw new InvalidRecordException(Reason.INVALID_VALUE, i + 1, "Invalid enrollment record (unknown semester '" + row.getString(i) + "')");
+                }
+            }),
+            new ColumnPlan.Column<Values>("Grade", false, (row, i, v) -> {
+                v.grade = row.getEnum(i, GRADES);
+                if (v.grade == null) {
+                    throw new InvalidRecordException(Reason.INVALID_VALUE, i + 1, "Invalid enrollment record (unknown grade '" + row.getString(i) + "')");
+                }
+            }),
+            // A date means the start of that day; a full date-time is kept as it is
+            new ColumnPlan.Column<Values>("EnrollmentDate", false, (row, i, v) -> v.enrollmentDate =
+                    (row.length(i) == 10) ? row.getDate(i).atStartOfDay() : row.getDateTime(i), "Date"),
+            new ColumnPlan.Column<Values>("Marks", false, (row, i, v) -> v.marks = Double.parseDouble(row.getString(i))),
+            new ColumnPlan.Column<Values>("Status", false, (row, i, v) -> v.dropped = row.matchesIgnoreCase(i, "DROPPED")));
+
+    final int studentId;
+    final Course course;
+    final Semester semester;
+    final Grade grade;
+    final LocalDateTime enrollmentDate; // May be null
+    final double marks; // -1 when not assigned
+    final boolean dropped;
+
+    EnrollmentRecord(int studentId, Course course, Semester semester, Grade grade, LocalDateTime enrollmentDate,
+                     double marks, boolean dropped) {
+        this.studentId = studentId;
+        this.course = course;
+        this.semester = semester;
+        this.grade = grade;
+        this.enrollmentDate = enrollmentDate;
+        this.marks = marks;
+        this.dropped = dropped;
+    }
+
+    /**
+     * Field values of one row, filled in by the plan's decoders.
+     */
+    static final class Values {
+        private int studentId;
+        private String courseCode;
+        private Semester semester; // Null means the course's semester
+        private Grade grade = Grade.NA;
+        private LocalDateTime enrollmentDate;
+        private double marks = -1.0;
+        private boolean dropped;
+    }
+
+    /**
+     * Compiles the column plan for a file, once per import.
+     * @param header the file's first line (null if it is empty)
+     * @throws InvalidHeaderException if a required column is missing
+     */
+    static ColumnPlan<Values> plan(String header, String file) throws InvalidHeaderException {
+        return ColumnPlan.compile(header, HEADER, COLUMNS, file);
+    }
+
+    /**
+     * Parses a row without checking that its student exists (a dry run, whose students have no IDs yet).
+     * @param courses courses by code
+     * @throws InvalidRecordException for missing columns, unknown courses, semesters or grades; other runtime exceptions for unparsable values
+     */
+    static EnrollmentRecord parse(CsvTokenizer row, ColumnPlan<Values> plan, Map<String, Course> courses) {
+        return parse(row, plan, courses, null);
+    }
+
+    /**
+     * @param courses courses by code
+     * @param students students by ID; a row of any other student is rejected (null to skip the check)
+     * @throws InvalidRecordException for missing columns, unknown students, courses, semesters or grades; other runtime exceptions for unparsable values
+     */
+    static EnrollmentRecord parse(CsvTokenizer row, ColumnPlan<Values> plan, Map<String, Course> courses,
+                                  Map<Integer, Student> students) {
+        int studentIdField = plan.fieldOf("StudentID");
+        int courseField = plan.fieldOf("CourseCode");
+        if (row.isEmpty(studentIdField - 1) || row.isEmpty(courseField - 1)) {
+            throw new InvalidRecordException(Reason.MISSING_VALUE, row.isEmpty(studentIdField - 1) ? studentIdField : courseField,
+                    "Invalid enrollment record (missing student ID or course code)");
+        }
+
+        Values v = new Values();
+        plan.decode(row, v);
+
+        Course course = courses.get(v.courseCode);
+        if (course == null) {
+            throw new InvalidRecordException(Reason.UNKNOWN_REFERENCE, courseField, "Invalid enrollment record (unknown course '" + v.courseCode + "')");
+        }
+        checkStudent(v.studentId, students, studentIdField);
+        Semester semester = (v.semester != null) ? v.semester : course.getSemester();
+        return new EnrollmentRecord(v.studentId, course, semester, v.grade, v.enrollmentDate, v.marks, v.dropped);
+    }
+
+    /**
+     * Rejects a record of a student not in the store (checked while parsing, so the error report has its line).
+     * @param students students by ID, or null to skip the check
+     */
+    static void checkStudent(int studentId, Map<Integer, Student> students, int studentIdField) {
+        if (students != null && !students.containsKey(studentId)) {
+            throw new InvalidRecordException(Reason.UNKNOWN_REFERENCE, studentIdField, "Invalid enrollment record (unknown student " + studentId + ")");
+        }
+    }
+
+    Enrollment toEnrollment() {
+        Enrollment enrollment = (enrollmentDate != null)
+                ? new Enrollment(course, semester, enrollmentDate)
+                : new Enrollment(course, semester);
+        if (marks >= 0) {
+            enrollment.setMarks(marks);
+        }
+        enrollment.setGrade(grade); // The recorded grade wins over the one derived from marks
+        if (dropped) {
+            enrollment.drop();
+        }
+        return enrollment;
+    }
+
+    /**
+     * Groups the records by student (one lookup per student) and bulk-loads each group,
+     * bypassing the enrollment business rules. Records of unknown students are rejected while
+     * parsing; the records of a student removed since are skipped and added to the error
+     * report here (without a line number).
+     * @return the number of enrollments loaded
+     */
+    static long loadAll(Iterable<EnrollmentRecord> records, DataStore dataStore, ImportErrorReport errors) {
+        Map<Integer, List<Enrollment>> byStudent = new LinkedHashMap<>();
+        for (EnrollmentRecord record : records) {
+            byStudent.computeIfAbsent(record.studentId, id -> new ArrayList<>()).add(record.toEnrollment());
+        }
+
+        long loaded = 0;
+        for (Map.Entry<Integer, List<Enrollment>> entry : byStudent.entrySet()) {
+            Student student = dataStore.getStudents().get(entry.getKey());
+            if (student == null) {
+                InvalidRecordException removed = new InvalidRecordException(Reason.UNKNOWN_REFERENCE, 0,
+                        "Invalid enrollment record (student " + entry.getKey() + " was removed during the import)");
+                for (Enrollment enrollment : entry.getValue()) {
+                    errors.add(0, 0, removed, entry.getKey() + "," + enrollment.getCourse().getCourseCode().getCode());
+                }
+                continue;
+            }
+            student.loadEnrollments(entry.getValue());
+            loaded += entry.getValue().size();
+        }
+        return loaded;
+    }
+}
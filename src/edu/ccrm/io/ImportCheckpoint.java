@@ -0,0 +1,224 @@
+package edu.ccrm.io;
+
+import edu.ccrm.service.DataStore;
+import edu.ccrm.util.IdGenerator;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Progress of a student import, kept next to the imported file as &lt;file&gt;.checkpoint
+ * while the import runs: the byte offset up to which every record is in the store, the
+ * rows committed so far, the lines before that offset, the IDs of the committed students
+ * and the student ID high-water mark. It is replaced atomically after each committed chunk
+ * and removed when the import completes, so an import that stops halfway leaves the
+ * position to resume from. A checkpoint only applies to the same file (size and
+ * modification time); otherwise the import starts over.
+ * If the store still holds the committed students (the import stopped within this
+ * process), the import continues after them. After a restart they are gone with the old
+ * in-memory store: they are then rebuilt from the file up to the checkpoint's offset, under
+ * the IDs they had, and the import continues from there. That is only possible while none
+ * of those IDs has been handed out in this process; otherwise the import starts over.
+ */
+final class ImportCheckpoint {
+    private static final String SUFFIX = ".checkpoint";
+
+    private final Path file;
+    private final long fileSize;
+    private final long fileModified;
+    private long offset;
+    private long rows;
+    private long lines;
+    private final List<int[]> ids = new ArrayList<>(); // IDs of the committed students, as ascending ranges {first, last}
+    private int highWaterId; // Highest student ID handed out by the import
+    private boolean rebuild; // The committed students are not in the store and must be rebuilt
+
+    private ImportCheckpoint(Path importFile) throws IOException {
+        this.file = fileFor(importFile);
+        this.fileSize = Files.size(importFile);
+        this.fileModified = Files.getLastModifiedTime(importFile).toMillis();
+    }
+
+    /**
+     * The saved checkpoint of the file if it still applies, otherwise a fresh one at the start
+     * of the file (a stale checkpoint file is removed, saying why the import cannot resume).
+     */
+    static ImportCheckpoint load(Path importFile, DataStore dataStore) throws IOException {
+        ImportCheckpoint checkpoint = new ImportCheckpoint(importFile);
+        if (Files.notExists(checkpoint.file)) {
+            return checkpoint;
+        }
+        Properties saved = new Properties();
+        try (Reader in = Files.newBufferedReader(checkpoint.file)) {
+            saved.load(in);
+        }
+        String reason;
+        try {
+            boolean sameFile = Long.parseLong(saved.getProperty("file.size")) == checkpoint.fileSize
+                    && Long.parseLong(saved.getProperty("file.modified")) == checkpoint.fileModified;
+            checkpoint.offset = Long.parseLong(saved.getProperty("offset"));
+            checkpoint.rows = Long.parseLong(saved.getProperty("rows"));
+            checkpoint.lines = Long.parseLong(saved.getProperty("lines"));
+            checkpoint.highWaterId = Integer.parseInt(saved.getProperty("high.water.id"));
+            checkpoint.ids.addAll(parseRanges(saved.getProperty("ids")));
+            int lastId = checkpoint.ids.isEmpty() ? 0 : checkpoint.ids.get(checkpoint.ids.size() - 1)[1];
+            if (!sameFile) {
+                reason = "the file has changed since";
+            } else if (lastId == 0 || dataStore.getStudents().containsKey(lastId)) {
+                return checkpoint;
+            } else if (IdGenerator.ensureStudentIdAtLeast(checkpoint.highWaterId) < checkpoint.ids.get(0)[0]) {
+                checkpoint.rebuild = true; // Their IDs are still free, and now reserved
+                return checkpoint;
+            } else {
+                reason = "its " + checkpoint.rows + " students are not in this store and their IDs are in use";
+            }
+        } catch (NumberFormatException e) {
+            reason = "its checkpoint is unreadable";
+        }
+        System.err.println("Cannot resume the import of " + importFile.getFileName() + ": " + reason
+                + "; importing it from the start.");
+        Files.deleteIfExists(checkpoint.file);
+        return new ImportCheckpoint(importFile);
+    }
+
+    static boolean exists(Path importFile) {
+        return Files.exists(fileFor(importFile));
+    }
+
+    /**
+     * Removes a checkpoint left by an earlier import of the file, saying that this import
+     * cannot resume from it; for imports that do not checkpoint.
+     */
+    static void discard(Path importFile, String reason) throws IOException {
+        Path file = fileFor(importFile);
+        if (Files.deleteIfExists(file)) {
+            System.err.println("Cannot resume the import of " + importFile.getFileName() + ": " + reason
+                    + "; importing it from the start.");
+        }
+    }
+
+    boolean isResumed() {
+        return offset > 0;
+    }
+
+    /**
+     * @return whether the committed students must first be rebuilt from the file (after a restart)
+     */
+    boolean needsRebuild() {
+        return rebuild;
+    }
+
+    /**
+     * @return the IDs of the committed students, in row order
+     */
+    PrimitiveIterator.OfInt committedIds() {
+        return ids.stream().flatMapToInt(range -> IntStream.rangeClosed(range[0], range[1])).iterator();
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    long getLines() {
+        return lines;
+    }
+
+    int getHighWaterId() {
+        return highWaterId;
+    }
+
+    /**
+     * Records a chunk whose students are now in the store and saves the checkpoint.
+     * @param end offset just past the chunk
+     * @param chunkRows students added from the chunk
+     * @param chunkLines lines in the chunk
+     * @param firstChunkId ID of the chunk's first student; the others follow it (ignored if it had none)
+     * @param highWater highest student ID handed out so far
+     */
+    void commit(long end, long chunkRows, long chunkLines, int firstChunkId, int highWater) throws IOException {
+        offset = end;
+        rows += chunkRows;
+        lines += chunkLines;
+        if (chunkRows > 0) {
+            int lastChunkId = (int) (firstChunkId + chunkRows - 1);
+            int[] previous = ids.isEmpty() ? null : ids.get(ids.size() - 1);
+            if (previous != null && previous[1] + 1 == firstChunkId) {
+                previous[1] = lastChunkId;
+            } else {
+                ids.add(new int[] {firstChunkId, lastChunkId});
+            }
+        }
+        highWaterId = Math.max(highWaterId, highWater);
+        save();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    // Replaces the checkpoint atomically, so a crash leaves either the old or the new one.
+    // Written through a FileOutputStream, which unlike a FileChannel is not closed by an
+    // interrupt, so an interrupted import never has rows in the store past its checkpoint.
+    private void save() throws IOException {
+        Properties saved = new Properties();
+        saved.setProperty("file.size", Long.toString(fileSize));
+        saved.setProperty("file.modified", Long.toString(fileModified));
+        saved.setProperty("offset", Long.toString(offset));
+        saved.setProperty("rows", Long.toString(rows));
+        saved.setProperty("lines", Long.toString(lines));
+        saved.setProperty("ids", ids.stream().map(range -> range[0] + "-" + range[1]).collect(Collectors.joining(",")));
+        saved.setProperty("high.water.id", Integer.toString(highWaterId));
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp.toFile());
+             Writer out = new OutputStreamWriter(stream, StandardCharsets.ISO_8859_1)) {
+            saved.store(out, "Student import checkpoint");
+            out.flush();
+            stream.getFD().sync();
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Path fileFor(Path importFile) {
+        return importFile.resolveSibling(importFile.getFileName() + SUFFIX);
+    }
+
+    // "first-last,first-last,..." as written by save(); empty when no student was committed
+    private static List<int[]> parseRanges(String value) {
+        if (value == null) {
+            throw new NumberFormatException("missing ids");
+        }
+        List<int[]> ranges = new ArrayList<>();
+        for (String range : value.split(",")) {
+            if (!range.isEmpty()) {
+                int dash = range.indexOf('-');
+                if (dash < 0) {
+                    throw new NumberFormatException("bad ID range: " + range);
+                }
+                ranges.add(new int[] {Integer.parseInt(range.substring(0, dash)), Integer.parseInt(range.substring(dash + 1))});
+            }
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,230 @@
+package edu.ccrm.io;
+
+import edu.ccrm.exception.InvalidRecordException;
+import edu.ccrm.exception.InvalidRecordException.Reason;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Rejected records of one import: line, column, reason code, message and a snippet of the
+ * raw record. Every rejection is counted by reason, but only the first maxEntries are kept
+ * in detail, so a very dirty file costs little more memory or time than a clean one.
+ * Warnings about records that were imported all the same (e.g. an unknown status replaced
+ * by the default) are counted and kept the same way, under their own reason codes.
+ * At the end of the import the report is written once, next to the imported file, and a
+ * one-line summary goes to System.err instead of a message per record.
+ * Parallel importers give each chunk or batch its own report and merge them in file order.
+ */
+public final class ImportErrorReport {
+    private static final int SNIPPET_LENGTH = 200;
+    private static final String SUFFIX = ".errors.csv";
+
+    /**
+     * @param line 1-based line of the file on which the record starts, 0 if unknown
+     * @param column 1-based CSV field or JSON character position, 0 if unknown
+     */
+    public record Entry(long line, int column, Reason reason, String message, String snippet) {
+    }
+
+    private final String kind;
+    private final int maxEntries;
+    private final List<Entry> entries = new ArrayList<>();
+    private final long[] counts = new long[Reason.values().length];
+    private long total;
+    private long warnings;
+    private long recordLine; // Record that warn() refers to, set by startRecord()
+    private CharSequence record;
+
+    /**
+     * @param kind record kind for the summary, e.g. "student"
+     * @param maxEntries number of rejections kept in detail; the rest are only counted
+     */
+    public ImportErrorReport(String kind, int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Maximum entries cannot be negative, got: " + maxEntries);
+        }
+        this.kind = kind;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * A report with the same kind and limit, e.g. for one chunk of a parallel import.
+     */
+    public ImportErrorReport newPart() {
+        return new ImportErrorReport(kind, maxEntries);
+    }
+
+    /**
+     * Records a rejected record. The reason and column come from an InvalidRecordException,
+     * otherwise from the type of the error and the given column.
+     */
+    public synchronized void add(long line, int column, Throwable error, CharSequence record) {
+        Reason reason = reasonOf(error);
+        if (error instanceof InvalidRecordException invalid && invalid.getColumn() > 0) {
+            column = invalid.getColumn();
+        }
+        counts[reason.ordinal()]++;
+        total++;
+        if (entries.size() < maxEntries) {
+            entries.add(new Entry(line, column, reason, String.valueOf(error.getMessage()), snippet(record)));
+        }
+    }
+
+    /**
+     * Sets the record that later warn() calls refer to. Importers call it before parsing
+     * each record, on the thread that owns this report (or part).
+     * @param record the raw record, only read until the next record starts
+     */
+    synchronized void startRecord(long line, CharSequence record) {
+        this.recordLine = line;
+        this.record = record;
+    }
+
+    /**
+     * Records a warning about the current record (see startRecord), which is imported all the same.
+     * @param reason a warning code (see Reason.isWarning())
+     * @param column 1-based CSV field or JSON character position, 0 if unknown
+     */
+    synchronized void warn(Reason reason, int column, String message) {
+        counts[reason.ordinal()]++;
+        warnings++;
+        if (entries.size() < maxEntries) {
+            entries.add(new Entry(recordLine, column, reason, message, snippet(record)));
+        }
+    }
+
+    /**
+     * Adds the rejections and warnings of a part, shifting its line numbers by lineOffset.
+     */
+    public synchronized void addAll(ImportErrorReport part, long lineOffset) {
+        for (Entry entry : part.getEntries()) {
+            if (entries.size() >= maxEntries) {
+                break;
+            }
+            entries.add(new Entry(entry.line() + lineOffset, entry.column(), entry.reason(), entry.message(), entry.snippet()));
+        }
+        synchronized (part) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += part.counts[i];
+            }
+            total += part.total;
+            warnings += part.warnings;
+        }
+    }
+
+    /**
+     * @return the number of rejected records (warnings not included)
+     */
+    public synchronized long getErrorCount() {
+        return total;
+    }
+
+    public synchronized long getWarningCount() {
+        return warnings;
+    }
+
+    public synchronized Map<Reason, Long> getCounts() {
+        Map<Reason, Long> byReason = new EnumMap<>(Reason.class);
+        for (Reason reason : Reason.values()) {
+            if (counts[reason.ordinal()] > 0) {
+                byReason.put(reason, counts[reason.ordinal()]);
+            }
+        }
+        return byReason;
+    }
+
+    public synchronized List<Entry> getEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    /**
+     * Writes the report to &lt;importFile&gt;.errors.csv and prints the summary line, or, if
+     * nothing was rejected or warned about, removes an errors file left by an earlier import
+     * of the same file.
+     */
+    public void writeNextTo(Path importFile) {
+        Path errorFile = importFile.resolveSibling(importFile.getFileName() + SUFFIX);
+        try {
+            if (getErrorCount() == 0 && getWarningCount() == 0) {
+                Files.deleteIfExists(errorFile);
+                return;
+            }
+            write(errorFile);
+            System.err.println(summary() + "; details in " + errorFile.getFileName());
+        } catch (IOException e) {
+            System.err.println(summary() + "; could not write " + errorFile.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Per-reason counts as comment lines, then one CSV row per kept entry:
+     * Line,Column,Reason,Message,Snippet
+     */
+    public synchronized void write(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file);
+             CsvWriter csv = new CsvWriter(out, 8192)) {
+            out.write("# " + summary() + (total + warnings > entries.size() ? " (first " + entries.size() + " listed)" : "")
+                    + System.lineSeparator());
+            for (Map.Entry<Reason, Long> count : getCounts().entrySet()) {
+                out.write("# " + count.getKey() + ": " + count.getValue() + System.lineSeparator());
+            }
+            csv.header("Line,Column,Reason,Message,Snippet");
+            for (Entry entry : entries) {
+                csv.field(entry.line())
+                   .field(entry.column())
+                   .field(entry.reason().name())
+                   .field(entry.message())
+                   .field(entry.snippet())
+                   .endRow();
+            }
+        }
+    }
+
+    /**
+     * e.g. "3 student records rejected (MISSING_COLUMNS: 1, INVALID_DATE: 2); 1 warning (DEFAULT_USED: 1)"
+     */
+    public synchronized String summary() {
+        StringJoiner rejected = new StringJoiner(", ", " (", ")").setEmptyValue("");
+        StringJoiner warned = new StringJoiner(", ", " (", ")").setEmptyValue("");
+        getCounts().forEach((reason, count) -> (reason.isWarning() ? warned : rejected).add(reason + ": " + count));
+        String summary = total + " " + kind + " record" + (total == 1 ? "" : "s") + " rejected" + rejected;
+        return (warnings == 0) ? summary : summary + "; " + warnings + " warning" + (warnings == 1 ? "" : "s") + warned;
+    }
+
+    static Reason reasonOf(Throwable error) {
+        if (error instanceof InvalidRecordException invalid) {
+            return invalid.getReason();
+        }
+        if (error instanceof DateTimeParseException) {
+            return Reason.INVALID_DATE;
+        }
+        if (error instanceof NumberFormatException) {
+            return Reason.INVALID_NUMBER;
+        }
+        if (error instanceof IllegalArgumentException && String.valueOf(error.getMessage()).startsWith("Malformed JSON")) {
+            return Reason.MALFORMED_JSON;
+        }
+        if (error instanceof IllegalArgumentException) {
+            return Reason.INVALID_VALUE;
+        }
+        return Reason.OTHER;
+    }
+
+    private static String snippet(CharSequence record) {
+        if (record == null) {
+            return "";
+        }
+        return (record.length() <= SNIPPET_LENGTH)
+                ? record.toString()
+                : record.subSequence(0, SNIPPET_LENGTH) + "...";
+    }
+}
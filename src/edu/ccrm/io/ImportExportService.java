@@ -1,35 +1,89 @@
 package edu.ccrm.io;
 
 import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.VersionClock;
 import edu.ccrm.domain.course.Course;
 import edu.ccrm.domain.enrollment.Enrollment;
-import edu.ccrm.domain.enrollment.Semester;
-import edu.ccrm.domain.enrollment.Grade;
 import edu.ccrm.domain.person.Student;
-import edu.ccrm.domain.person.Instructor;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.exception.InvalidRecordException.Reason;
 import edu.ccrm.service.DataStore;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service for importing and exporting data using NIO.2 and Streams.
  */
 public class ImportExportService {
+    private static final String STUDENT_DELTA = "students" + JsonLinesCodec.SUFFIX;
+    private static final String COURSE_DELTA = "courses" + JsonLinesCodec.SUFFIX;
+    private static final String WATERMARK = "watermark.properties";
+
     private final DataStore dataStore;
     private final Path dataDir;
+    private final MappedCsvImporter mappedImporter;
+    private final PipelinedImporter pipelinedImporter;
+    private final long parallelImportMinBytes; // Files at least this large use the mapped parallel import
+    private final int exportBufferSize;
+    private final int compressionBufferSize;
+    private final int compressionLevel;
+    private final boolean compressExports; // exportAllData writes .gz files
+    private final String exportFormat; // File format of exportAllData: csv or jsonl
+    private final Path deltaDir; // Append-only delta exports and their watermark
+    private final int maxImportErrors; // Rejected records listed in detail per import
 
     public ImportExportService(DataStore dataStore) {
+        this(dataStore, Paths.get(AppConfig.getInstance().getDataDirectory()));
+    }
+
+    /**
+     * @param dataDir directory that import and export file names are resolved against
+     */
+    public ImportExportService(DataStore dataStore, Path dataDir) {
+        AppConfig config = AppConfig.getInstance();
         this.dataStore = dataStore;
-        this.dataDir = Paths.get(AppConfig.getInstance().getDataDirectory());
+        this.dataDir = dataDir;
+        this.mappedImporter = new MappedCsvImporter(dataStore);
+        this.pipelinedImporter = new PipelinedImporter(dataStore);
+        this.parallelImportMinBytes = config.getLongProperty("import.parallel.min.bytes", 8L * 1024 * 1024);
+        this.exportBufferSize = config.getIntProperty("export.buffer.size", 65536);
+        this.compressionBufferSize = config.getIntProperty("compression.buffer.size", 65536);
+        this.compressionLevel = config.getIntProperty("compression.level", 6);
+        this.compressExports = Boolean.parseBoolean(config.getProperty("export.compress", "false"));
+        this.exportFormat = config.getProperty("export.format", "csv").trim().toLowerCase();
+        this.deltaDir = dataDir.resolve(config.getProperty("export.delta.directory", "deltas"));
+        this.maxImportErrors = config.getIntProperty("import.errors.max", 1000);
     }
 
+    /**
+     * Large plain CSV files go through the mapped parallel import, everything else
+     * (smaller CSV, .gz and JSON Lines files) through the staged pipeline. Only the mapped
+     * import is checkpointed; if an import fails, says whether running it again resumes it.
+     */
     public void importStudents(String filename) {
         Path path = dataDir.resolve(filename);
         
@@ -45,74 +99,18 @@ public class ImportExportService {
                 Files.createDirectories(dataDir);
             }
             
-            try (Stream<String> lines = Files.lines(path)) {
-                long count = lines.skip(1) // Skip header row
-                    .filter(line -> !line.trim().isEmpty()) // Filter empty lines
-                    .map(line -> parseCsvLine(line)) // Use proper CSV parsing
-                    .mapToLong(parts -> {
-                        try {
-                            if (parts.length < 4) {
-                                System.err.println("Invalid student record (insufficient columns): " + String.join(",", parts));
-                                return 0;
-                            }
-                            
-                            // Basic fields with validation
-                            String fullName = parts[1].trim();
-                            String email = parts[2].trim();
-                            LocalDate registrationDate = LocalDate.parse(parts[3].trim());
-                            
-                            if (fullName.isEmpty() || email.isEmpty()) {
-                                System.err.println("Invalid student record (missing name or email): " + String.join(",", parts));
-                                return 0;
-                            }
-                            
-                            // Create student with birth date if available (6th column)
-                            Student student;
-                            if (parts.length > 6 && !parts[6].trim().isEmpty()) {
-                                LocalDate birthDate = LocalDate.parse(parts[6].trim());
-                                student = dataStore.addStudent(fullName, email, registrationDate, birthDate);
-                            } else {
-                                student = dataStore.addStudent(fullName, email, registrationDate);
-                            }
-                            
-                            // Set status if provided (5th column)
-                            if (parts.length > 4 && !parts[4].trim().isEmpty()) {
-                                try {
-                                    Student.Status status = Student.Status.valueOf(parts[4].trim().toUpperCase());
-                                    student.setStatus(status);
-                                } catch (IllegalArgumentException e) {
-                                    System.err.println("Invalid status '" + parts[4].trim() + "' for student " + parts[1].trim() + ". Using default ACTIVE status.");
-                                }
-                            }
-                            
-                            // Set graduation date if provided (7th column)
-                            if (parts.length > 7 && !parts[7].trim().isEmpty()) {
-                                LocalDate graduationDate = LocalDate.parse(parts[7].trim());
-                                student.setGraduationDate(graduationDate);
-                            }
-                            
-                            // Set last login date if provided (8th column)
-                            if (parts.length > 8 && !parts[8].trim().isEmpty()) {
-                                LocalDateTime lastLoginDate = LocalDateTime.parse(parts[8].trim());
-                                student.setLastLoginDate(lastLoginDate);
-                            }
-                            
-                            // Set enrolled courses with grades if provided (9th column)
-                            if (parts.length > 9 && !parts[9].trim().isEmpty()) {
-                                student.setCourseGradesFromString(parts[9].trim());
-                                // Create enrollment objects for courses with grades
-                                createEnrollmentsFromGrades(student);
-                            }
-                            
-                            return 1; // Successfully processed
-                        } catch (Exception e) {
-                            System.err.println("Error processing student record: " + String.join(",", parts) + " - " + e.getMessage());
-                            return 0;
-                        }
-                    })
-                    .sum();
-                    
-                System.out.println("Students imported successfully from " + filename + " (" + count + " records processed)");
+            if (useMappedImport(path)) {
+                if (mappedImporter.importStudents(path) < 0) {
+                    System.err.println(ImportCheckpoint.exists(path)
+                            ? "Run the import of " + filename + " again to resume it from its checkpoint (also after a restart)."
+                            : "No checkpoint was saved for " + filename + " yet; running the import again starts it over.");
+                }
+            } else {
+                ImportCheckpoint.discard(path, "only plain CSV files of at least " + parallelImportMinBytes + " bytes are checkpointed");
+                if (pipelinedImporter.importStudents(path, compressionBufferSize) < 0) {
+                    System.err.println(filename + " is imported without checkpoints (only plain CSV files of at least "
+                            + parallelImportMinBytes + " bytes are), so running the import again starts it over.");
+                }
             }
         } catch (IOException e) {
             System.err.println("Error importing students from " + filename + ": " + e.getMessage());
@@ -134,72 +132,196 @@ public class ImportExportService {
                 Files.createDirectories(dataDir);
             }
             
-            try (Stream<String> lines = Files.lines(path)) {
-                long count = lines.skip(1)
-                    .filter(line -> !line.trim().isEmpty()) // Filter empty lines
-                    .map(line -> line.split(","))
-                    .mapToLong(parts -> {
-                        try {
-                            if (parts.length < 2) {
-                                System.err.println("Invalid course record (insufficient columns): " + String.join(",", parts));
-                                return 0;
-                            }
-                            
-                            // Basic course information with validation
-                            String code = parts[0].trim();
-                            String title = parts[1].trim();
-                            
-                            if (code.isEmpty() || title.isEmpty()) {
-                                System.err.println("Invalid course record (missing code or title): " + String.join(",", parts));
-                                return 0;
-                            }
-                            
-                            int credits = parts.length > 2 ? Integer.parseInt(parts[2].trim()) : 3;
-                            String department = parts.length > 3 ? parts[3].trim() : "General";
-                            
-                            Course.Builder builder = new Course.Builder(code, title)
-                                    .credits(credits)
-                                    .department(department);
-                            
-                            // Set semester if provided (5th column)
-                            if (parts.length > 4 && !parts[4].trim().isEmpty()) {
-                                try {
-                                    Semester semester = Semester.valueOf(parts[4].trim().toUpperCase());
-                                    builder.semester(semester);
-                                } catch (IllegalArgumentException e) {
-                                    System.err.println("Invalid semester '" + parts[4].trim() + "' for course " + code + ". Using default FALL.");
-                                }
-                            }
-                            
-                            // Set instructor if provided (6th and 7th columns)
-                            if (parts.length > 6 && !parts[5].trim().isEmpty() && !parts[6].trim().isEmpty()) {
-                                Instructor instructor = new Instructor(0, parts[5].trim(), parts[6].trim(), department);
-                                builder.instructor(instructor);
-                            }
-                            
-                            // Set active status if provided (8th column)
-                            if (parts.length > 7 && !parts[7].trim().isEmpty()) {
-                                boolean active = Boolean.parseBoolean(parts[7].trim());
-                                builder.active(active);
-                            }
-                            
-                            Course course = builder.build();
-                            dataStore.addCourse(course);
-                            return 1; // Successfully processed
-                        } catch (Exception e) {
-                            System.err.println("Error processing course record: " + String.join(",", parts) + " - " + e.getMessage());
-                            return 0;
-                        }
-                    })
-                    .sum();
-                    
-                System.out.println("Courses imported successfully from " + filename + " (" + count + " records processed)");
+            if (useMappedImport(path)) {
+                mappedImporter.importCourses(path);
+                return;
             }
+
+            ImportErrorReport errors = new ImportErrorReport("course", maxImportErrors);
+            long count = JsonLinesCodec.isJsonLines(path)
+                ? forEachJsonRecord(path, errors, json -> dataStore.addCourse(JsonLinesCodec.readCourse(json, errors)))
+                : forEachRecord(path, errors, CourseRecord.plan(CsvFiles.readHeader(path, compressionBufferSize), filename),
+                        (row, plan) -> dataStore.addCourse(CourseRecord.parse(row, plan, errors)));
+
+            System.out.println("Courses imported successfully from " + filename + " (" + count + " records processed)");
+            errors.writeNextTo(path);
+            dataStore.getChangeEvents().publish(ChangeEvent.Type.DATA_IMPORTED, 0);
         } catch (IOException e) {
             System.err.println("Error importing courses from " + filename + ": " + e.getMessage());
         }
     }
 
+    /**
+     * Imports historical enrollments (StudentID,CourseCode,Semester,Grade,Credits,EnrollmentDate).
+     * Students and courses must already be loaded; StudentID is the student's ID in this store.
+     * *.jsonl files hold one enrollment object per line instead (see JsonLinesCodec).
+     */
+    public void importEnrollments(String filename) {
+        Path path = dataDir.resolve(filename);
+
+        // Check if file exists before attempting to read
+        if (Files.notExists(path)) {
+            System.err.println("File not found: " + path);
+            return;
+        }
+
+        try {
+            if (useMappedImport(path)) {
+                mappedImporter.importEnrollments(path);
+                return;
+            }
+
+            ImportErrorReport errors = new ImportErrorReport("enrollment", maxImportErrors);
+            List<EnrollmentRecord> records = new ArrayList<>();
+            if (JsonLinesCodec.isJsonLines(path)) {
+                forEachJsonRecord(path, errors, json -> records.add(JsonLinesCodec.readEnrollment(json, dataStore.getCourses(), dataStore.getStudents())));
+            } else {
+                forEachRecord(path, errors, EnrollmentRecord.plan(CsvFiles.readHeader(path, compressionBufferSize), filename),
+                        (row, plan) -> records.add(EnrollmentRecord.parse(row, plan, dataStore.getCourses(), dataStore.getStudents())));
+            }
+            long count = EnrollmentRecord.loadAll(records, dataStore, errors);
+
+            System.out.println("Enrollments imported successfully from " + filename + " (" + count + " records processed)");
+            errors.writeNextTo(path);
+            dataStore.getChangeEvents().publish(ChangeEvent.Type.DATA_IMPORTED, 0);
+        } catch (IOException e) {
+            System.err.println("Error importing enrollments from " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Outcome of validating one file in a dry run.
+     * @param records records read (accepted + rejected)
+     */
+    public record ValidationResult(String file, long records, long rejected, Map<Reason, Long> reasons, long nanos) {
+    }
+
+    /**
+     * Dry run of importCourses, importStudents and importEnrollments: parses and validates the
+     * files without changing the store or using student IDs, and prints a summary.
+     * Validation is stricter than an import: invalid emails, unknown statuses and semesters,
+     * and unknown courses or grades in a student's EnrolledCourses are rejected rather than
+     * warned about or skipped. Course references are checked against the store's courses and
+     * the valid courses of the courses file. Plain CSV files of any size are parsed in parallel
+     * (see MappedCsvImporter), .gz and JSON Lines files as a stream. Rejected records go to
+     * &lt;file&gt;.errors.csv, as in an import.
+     * @param coursesFile courses file to validate, or null to skip (likewise for the other two)
+     * @return the result of each file validated
+     */
+    public List<ValidationResult> validateImport(String coursesFile, String studentsFile, String enrollmentsFile) {
+        Map<String, Course> known = new HashMap<>(dataStore.getCourses());
+        List<ValidationResult> results = new ArrayList<>();
+        try {
+            if (coursesFile != null) {
+                List<Course> courses = new ArrayList<>();
+                addIfValidated(results, validateFile("course", coursesFile,
+                        json -> courses.add(JsonLinesCodec.readCourse(json, true)),
+                        (path, errors, header) -> validateCsv(path, errors, CourseRecord.plan(header, coursesFile),
+                                CourseRecord::validate, courses)));
+                for (Course course : courses) {
+                    known.put(course.getCourseCode().getCode(), course);
+                }
+            }
+            if (studentsFile != null) {
+                addIfValidated(results, validateFile("student", studentsFile,
+                        json -> JsonLinesCodec.readStudent(json, known, true),
+                        (path, errors, header) -> validateCsv(path, errors, StudentRecord.plan(header, studentsFile),
+                                (row, plan) -> {
+                                    StudentRecord.validate(row, plan, known);
+                                    return null;
+                                }, new ArrayList<>())));
+            }
+            if (enrollmentsFile != null) {
+                addIfValidated(results, validateFile("enrollment", enrollmentsFile,
+                        json -> JsonLinesCodec.readEnrollment(json, known),
+                        (path, errors, header) -> validateCsv(path, errors, EnrollmentRecord.plan(header, enrollmentsFile),
+                                (row, plan) -> {
+                                    EnrollmentRecord.parse(row, plan, known);
+                                    return null;
+                                }, new ArrayList<>())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Dry run interrupted");
+        }
+
+        System.out.println("Dry run (nothing imported):");
+        System.out.println("File                      | Records    | Valid      | Rejected | Records/s  | Reasons");
+        System.out.println("--------------------------|------------|------------|----------|------------|--------");
+        for (ValidationResult result : results) {
+            StringJoiner reasons = new StringJoiner(", ");
+            result.reasons().forEach((reason, count) -> reasons.add(reason + ": " + count));
+            System.out.printf("%-25s | %10d | %10d | %8d | %10.0f | %s%n", result.file(), result.records(),
+                    result.records() - result.rejected(), result.rejected(),
+                    result.records() / Math.max(result.nanos() / 1e9, 1e-9), reasons);
+        }
+        return results;
+    }
+
+    /**
+     * Validates a CSV file (given its path, error report and header line) and returns the number of valid records.
+     */
+    @FunctionalInterface
+    private interface CsvValidation {
+        long validate(Path path, ImportErrorReport errors, String header)
+                throws IOException, InterruptedException, ExecutionException;
+    }
+
+    /**
+     * @return the result, or null if the file is missing or could not be read (reported)
+     */
+    private ValidationResult validateFile(String kind, String filename, Consumer<JsonReader> jsonValidation,
+                                          CsvValidation csvValidation) throws InterruptedException {
+        Path path = dataDir.resolve(filename);
+        if (Files.notExists(path)) {
+            System.err.println("File not found: " + path);
+            return null;
+        }
+        ImportErrorReport errors = new ImportErrorReport(kind, maxImportErrors);
+        long start = System.nanoTime();
+        try {
+            long valid = JsonLinesCodec.isJsonLines(path)
+                    ? forEachJsonRecord(path, errors, jsonValidation)
+                    : csvValidation.validate(path, errors, CsvFiles.readHeader(path, compressionBufferSize));
+            long nanos = System.nanoTime() - start;
+            errors.writeNextTo(path);
+            return new ValidationResult(filename, valid + errors.getErrorCount(), errors.getErrorCount(),
+                    errors.getCounts(), nanos);
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Error validating " + filename + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Plain files are parsed in parallel; .gz files can only be read as a stream
+    private <B, T> long validateCsv(Path path, ImportErrorReport errors, ColumnPlan<B> plan,
+                                    BiFunction<CsvTokenizer, ColumnPlan<B>, T> rowValidation, List<T> valid)
+            throws IOException, InterruptedException, ExecutionException {
+        if (CsvFiles.isGzip(path)) {
+            return forEachRecord(path, errors, plan, (row, p) -> {
+                T result = rowValidation.apply(row, p);
+                if (result != null) {
+                    valid.add(result);
+                }
+            });
+        }
+        return mappedImporter.parseOnly(path, errors, row -> rowValidation.apply(row, plan), valid);
+    }
+
+    private static void addIfValidated(List<ValidationResult> results, ValidationResult result) {
+        if (result != null) {
+            results.add(result);
+        }
+    }
+
+    /**
+     * Exports students, courses and enrollments concurrently.
+     * Each file becomes visible only once all three are complete and synced (see exportAtomically).
+     * The exports share one list of students and one of courses, but each row is read from the
+     * live objects as it is written. The store has no store-wide lock, so a change made during
+     * the export may show in one file and not yet in another (e.g. a grade in the enrollments
+     * file but not in the student's GPA).
+     */
     public void exportAllData() {
         try {
             // Create data directory if it doesn't exist
@@ -207,21 +329,23 @@ public class ImportExportService {
                 Files.createDirectories(dataDir);
             }
             
-            // Export all data types
-            exportStudents("exported_students.csv");
-            exportCourses("exported_courses.csv");
-            exportEnrollments("exported_enrollments.csv");
-            
-            // Verify exports
-            long studentCount = Files.lines(dataDir.resolve("exported_students.csv")).count() - 1; // minus header
-            long courseCount = Files.lines(dataDir.resolve("exported_courses.csv")).count() - 1;
-            long enrollmentCount = Files.lines(dataDir.resolve("exported_enrollments.csv")).count() - 1;
+            // All three files cover the same students and courses, even if some are added meanwhile
+            List<Student> students = new ArrayList<>(dataStore.getStudents().values());
+            List<Course> courses = new ArrayList<>(dataStore.getCourses().values());
+
+            boolean json = exportFormat.equals("jsonl");
+            String extension = (json ? JsonLinesCodec.SUFFIX : ".csv") + (compressExports ? CsvFiles.GZIP_SUFFIX : "");
+            long start = System.nanoTime();
+            long[] counts = exportAtomically(
+                    List.of("exported_students" + extension, "exported_courses" + extension, "exported_enrollments" + extension),
+                    List.of(studentExport(students, json), courseExport(courses, json), enrollmentExport(students, json)));
             
             System.out.println("All data exported successfully:");
-            System.out.println("  - Students: " + studentCount + " records");
-            System.out.println("  - Courses: " + courseCount + " records");
-            System.out.println("  - Enrollments: " + enrollmentCount + " records");
+            System.out.println("  - Students: " + counts[0] + " records");
+            System.out.println("  - Courses: " + counts[1] + " records");
+            System.out.println("  - Enrollments: " + counts[2] + " records");
             System.out.println("  - Location: " + dataDir.toAbsolutePath());
+            System.out.printf("  - Time: %.0f ms (3 files in parallel)%n", (System.nanoTime() - start) / 1_000_000.0);
             
         } catch (IOException e) {
             System.err.println("Error during data export: " + e.getMessage());
@@ -234,22 +358,24 @@ public class ImportExportService {
                 Files.createDirectories(dataDir);
             }
             
+            boolean json = JsonLinesCodec.isJsonLines(dataDir.resolve(filename));
+            RecordExport export;
             switch (dataType.toLowerCase()) {
                 case "students":
-                    exportStudents(filename);
+                    export = studentExport(dataStore.getStudents().values(), json);
                     break;
                 case "courses":
-                    exportCourses(filename);
+                    export = courseExport(dataStore.getCourses().values(), json);
                     break;
                 case "enrollments":
-                    exportEnrollments(filename);
+                    export = enrollmentExport(dataStore.getStudents().values(), json);
                     break;
                 default:
                     System.err.println("Unknown data type: " + dataType + ". Valid types: students, courses, enrollments");
                     return;
             }
             
-            long recordCount = Files.lines(dataDir.resolve(filename)).count() - 1; // minus header
+            long recordCount = exportAtomically(List.of(filename), List.of(export))[0];
             System.out.println("Exported " + recordCount + " " + dataType + " records to " + filename);
             
         } catch (IOException e) {
@@ -257,132 +383,477 @@ public class ImportExportService {
         }
     }
 
-    private void exportStudents(String filename) throws IOException {
-        List<String> lines = dataStore.getStudents().values().stream()
-                .map(s -> String.join(",",
-                        String.valueOf(s.getId()),
-                        s.getFullName(),
-                        s.getEmail(),
-                        s.getRegistrationDate().toString(),
-                        s.getStatus().name(),
-                        s.getRegNo(),
-                        s.getBirthDate() != null ? s.getBirthDate().toString() : "",
-                        s.getGraduationDate() != null ? s.getGraduationDate().toString() : "",
-                        s.getLastLoginDate() != null ? s.getLastLoginDate().toString() : "",
-                        s.getCourseGradesAsString(),
-                        String.format("%.2f", s.getGPA())))
-                .collect(Collectors.toList());
-        lines.add(0, "ID,FullName,Email,RegistrationDate,Status,RegNo,BirthDate,GraduationDate,LastLoginDate,EnrolledCourses,GPA");
-        Files.write(dataDir.resolve(filename), lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    /**
+     * Appends the students (with their enrollments) and courses changed since the last delta
+     * export to the append-only JSON Lines files of the delta directory, then moves the
+     * watermark up to the version that was stable when the scan started (see
+     * VersionClock.stable()), so a change still in flight then is picked up by the next delta.
+     * Finding the changes costs one version comparison per record; only the changed records
+     * are formatted and written.
+     * If the watermark is missing or comes from an earlier run of the application (its
+     * versions are not comparable), every record is written.
+     */
+    public void exportDelta() {
+        try {
+            Files.createDirectories(deltaDir);
+            Path watermarkFile = deltaDir.resolve(WATERMARK);
+            Properties watermark = loadWatermark(watermarkFile);
+            boolean sameRun = VersionClock.epoch().equals(watermark.getProperty("epoch"));
+            if (!sameRun && watermark.getProperty("epoch") != null) {
+                System.out.println("Watermark is from an earlier run; exporting all records.");
+            }
+            long since = sameRun ? Long.parseLong(watermark.getProperty("version", "0")) : 0;
+            long upTo = VersionClock.stable(); // Changes stored later get later versions and are left for the next delta
+
+            long start = System.nanoTime();
+            List<Student> students = dataStore.getStudents().values().stream()
+                    .filter(student -> student.getVersion() > since)
+                    .toList();
+            List<Course> courses = dataStore.getCourses().values().stream()
+                    .filter(course -> course.getVersion() > since)
+                    .toList();
+            long studentCount = appendDelta(deltaDir.resolve(STUDENT_DELTA), studentExport(students, true), students.isEmpty());
+            long courseCount = appendDelta(deltaDir.resolve(COURSE_DELTA), courseExport(courses, true), courses.isEmpty());
+
+            watermark.setProperty("epoch", VersionClock.epoch());
+            watermark.setProperty("version", Long.toString(upTo));
+            saveWatermark(watermarkFile, watermark);
+
+            System.out.println("Delta exported successfully:");
+            System.out.println("  - Changed students: " + studentCount + " records");
+            System.out.println("  - Changed courses: " + courseCount + " records");
+            System.out.println("  - Location: " + deltaDir.toAbsolutePath());
+            System.out.printf("  - Time: %.0f ms%n", (System.nanoTime() - start) / 1_000_000.0);
+        } catch (IOException e) {
+            System.err.println("Error during delta export: " + e.getMessage());
+        }
     }
-    
-    private void exportCourses(String filename) throws IOException {
-        List<String> lines = dataStore.getCourses().values().stream()
-                .map(c -> String.join(",",
-                        c.getCourseCode().getCode(),
-                        c.getTitle(),
-                        String.valueOf(c.getCredits()),
-                        c.getDepartment(),
-                        c.getSemester().name(),
-                        c.getInstructor() != null ? c.getInstructor().getFullName() : "",
-                        c.getInstructor() != null ? c.getInstructor().getEmail() : "",
-                        String.valueOf(c.isActive())))
-                .collect(Collectors.toList());
-        lines.add(0, "Code,Title,Credits,Department,Semester,InstructorName,InstructorEmail,Active");
-        Files.write(dataDir.resolve(filename), lines);
-    }
-
-    private void exportEnrollments(String filename) throws IOException {
-        List<String> lines = dataStore.getStudents().values().stream()
-                .flatMap(student -> student.getEnrollments().stream()
-                        .map(enrollment -> String.join(",",
-                                String.valueOf(student.getId()),
-                                student.getRegNo(),
-                                enrollment.getCourse().getCourseCode().getCode(),
-                                enrollment.getCourse().getTitle(),
-                                enrollment.getSemester().name(),
-                                enrollment.getEnrollmentDate().toString(),
-                                enrollment.getMarks() >= 0 ? String.valueOf(enrollment.getMarks()) : "",
-                                enrollment.getGrade().name(),
-                                String.valueOf(enrollment.getGrade().getGradePoint()),
-                                enrollment.isDropped() ? "DROPPED" : "ENROLLED")))
-                .collect(Collectors.toList());
-        lines.add(0, "StudentID,StudentRegNo,CourseCode,CourseTitle,Semester,EnrollmentDate,Marks,Grade,GradePoints,Status");
-        Files.write(dataDir.resolve(filename), lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+
+    /**
+     * Merges the delta files into the full JSON Lines export (exported_students.jsonl and
+     * exported_courses.jsonl, .gz if export.compress is set) and removes them. A record in a
+     * delta replaces the record with the same key (student ID, course code) in the full export,
+     * the latest delta winning; new records are appended. Memory use depends on the size of
+     * the deltas only, as the full export is streamed. Enrollments travel inside their
+     * student records, so exported_enrollments is not part of the compaction.
+     */
+    public void compactDeltas() {
+        Path studentDelta = deltaDir.resolve(STUDENT_DELTA);
+        Path courseDelta = deltaDir.resolve(COURSE_DELTA);
+        if (Files.notExists(studentDelta) && Files.notExists(courseDelta)) {
+            System.out.println("No delta exports to compact in " + deltaDir.toAbsolutePath());
+            return;
+        }
+        try {
+            String extension = JsonLinesCodec.SUFFIX + (compressExports ? CsvFiles.GZIP_SUFFIX : "");
+            String studentsFile = "exported_students" + extension;
+            String coursesFile = "exported_courses" + extension;
+            long start = System.nanoTime();
+            long[] counts = exportAtomically(List.of(studentsFile, coursesFile), List.of(
+                    mergedExport(dataDir.resolve(studentsFile), studentDelta, json -> Long.toString(json.nextLong()), "id"),
+                    mergedExport(dataDir.resolve(coursesFile), courseDelta, JsonReader::nextString, "code")));
+            Files.deleteIfExists(studentDelta);
+            Files.deleteIfExists(courseDelta);
+
+            System.out.println("Deltas compacted successfully:");
+            System.out.println("  - Students: " + counts[0] + " records in " + studentsFile);
+            System.out.println("  - Courses: " + counts[1] + " records in " + coursesFile);
+            System.out.printf("  - Time: %.0f ms%n", (System.nanoTime() - start) / 1_000_000.0);
+        } catch (IOException e) {
+            System.err.println("Error compacting deltas: " + e.getMessage());
+        }
     }
 
     /**
-     * Parse a CSV line handling quoted fields properly
+     * Appends the export to the file and syncs it; nothing is written for an empty export.
+     * @return the number of records appended
      */
-    private String[] parseCsvLine(String line) {
-        List<String> fields = new ArrayList<>();
-        StringBuilder currentField = new StringBuilder();
-        boolean inQuotes = false;
-        
-        for (int i = 0; i < line.length(); i++) {
-            char ch = line.charAt(i);
-            
-            if (ch == '"') {
-                inQuotes = !inQuotes;
-            } else if (ch == ',' && !inQuotes) {
-                fields.add(currentField.toString());
-                currentField = new StringBuilder();
-            } else {
-                currentField.append(ch);
+    private long appendDelta(Path file, RecordExport export, boolean empty) throws IOException {
+        if (empty) {
+            return 0;
+        }
+        long count;
+        try (Writer out = new OutputStreamWriter(Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND), StandardCharsets.UTF_8)) {
+            count = export.writeTo(out);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        return count;
+    }
+
+    /**
+     * Streams the full export with each record replaced by its latest version from the delta
+     * file, followed by the delta records that are new. A torn last line of a delta (an
+     * interrupted append) is reported and skipped.
+     * @param key reads the key value of a record, positioned at the value of keyName
+     */
+    private RecordExport mergedExport(Path full, Path delta, Function<JsonReader, String> key, String keyName) {
+        return out -> {
+            JsonReader json = new JsonReader();
+            Map<String, String> changes = new LinkedHashMap<>();
+            if (Files.exists(delta)) {
+                try (BufferedReader reader = CsvFiles.newReader(delta, compressionBufferSize)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String value = keyOf(json.reset(line), key, keyName);
+                        if (value != null) {
+                            changes.put(value, line);
+                        } else if (!json.reset(line).isBlank()) {
+                            System.err.println("Skipping unreadable delta record in " + delta.getFileName() + ": " + line);
+                        }
+                    }
+                }
+            }
+            long count = 0;
+            try (BufferedWriter writer = new BufferedWriter(out, exportBufferSize)) {
+                if (Files.exists(full)) {
+                    try (BufferedReader reader = CsvFiles.newReader(full, compressionBufferSize)) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (json.reset(line).isBlank()) {
+                                continue;
+                            }
+                            String value = keyOf(json.reset(line), key, keyName);
+                            String changed = (value != null) ? changes.remove(value) : null;
+                            writer.write(changed != null ? changed : line);
+                            writer.write('\n');
+                            count++;
+                        }
+                    }
+                }
+                for (String line : changes.values()) {
+                    writer.write(line);
+                    writer.write('\n');
+                    count++;
+                }
             }
+            return count;
+        };
+    }
+
+    // Key value of a JSON Lines record, or null if the record has none or is malformed
+    private static String keyOf(JsonReader json, Function<JsonReader, String> key, String keyName) {
+        try {
+            json.beginObject();
+            while (json.hasNext()) {
+                json.nextName();
+                if (json.nameIs(keyName)) {
+                    return key.apply(json);
+                }
+                json.skipValue();
+            }
+        } catch (IllegalArgumentException e) {
+            // Malformed record
+        }
+        return null;
+    }
+
+    private static Properties loadWatermark(Path file) throws IOException {
+        Properties watermark = new Properties();
+        if (Files.exists(file)) {
+            try (Reader in = Files.newBufferedReader(file)) {
+                watermark.load(in);
+            }
+        }
+        return watermark;
+    }
+
+    // Replaces the watermark atomically, so a crash leaves either the old or the new one
+    private static void saveWatermark(Path file, Properties watermark) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp)) {
+            watermark.store(out, "Last delta export");
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
         }
-        
-        // Add the last field
-        fields.add(currentField.toString());
-        
-        return fields.toArray(new String[0]);
     }
 
     /**
-     * Create enrollment objects for a student based on their course grades
+     * Writes the records of one export file and returns their number.
      */
-    private void createEnrollmentsFromGrades(Student student) {
-        Map<String, Grade> courseGrades = student.getCourseGrades();
-        
-        for (Map.Entry<String, Grade> entry : courseGrades.entrySet()) {
-            String courseCode = entry.getKey();
-            Grade grade = entry.getValue();
-            
-            // Find the course in the data store
-            Course course = dataStore.getCourses().values().stream()
-                .filter(c -> c.getCourseCode().getCode().equals(courseCode))
-                .findFirst()
-                .orElse(null);
-                
-            if (course != null) {
-                // Create an enrollment for this course
-                Enrollment enrollment = new Enrollment(course, course.getSemester());
-                enrollment.setGrade(grade);
-                
-                // Calculate marks from grade (approximate)
-                double marks = calculateMarksFromGrade(grade);
-                enrollment.setMarks(marks);
-                
-                // Add enrollment to student
-                student.addEnrollment(enrollment);
-            } else {
-                System.err.println("Course not found: " + courseCode + " for student " + student.getFullName());
+    @FunctionalInterface
+    private interface RecordExport {
+        long writeTo(Writer out) throws IOException;
+    }
+
+    private RecordExport studentExport(Collection<Student> students, boolean json) {
+        if (json) {
+            return out -> {
+                try (JsonWriter writer = new JsonWriter(out, exportBufferSize)) {
+                    for (Student student : students) {
+                        JsonLinesCodec.writeStudent(writer, student);
+                    }
+                    return writer.getRecordCount();
+                }
+            };
+        }
+        return out -> {
+            try (CsvWriter csv = new CsvWriter(out, exportBufferSize)) {
+                return writeStudents(csv, students);
+            }
+        };
+    }
+
+    private RecordExport courseExport(Collection<Course> courses, boolean json) {
+        if (json) {
+            return out -> {
+                try (JsonWriter writer = new JsonWriter(out, exportBufferSize)) {
+                    for (Course course : courses) {
+                        JsonLinesCodec.writeCourse(writer, course);
+                    }
+                    return writer.getRecordCount();
+                }
+            };
+        }
+        return out -> {
+            try (CsvWriter csv = new CsvWriter(out, exportBufferSize)) {
+                return writeCourses(csv, courses);
+            }
+        };
+    }
+
+    private RecordExport enrollmentExport(Collection<Student> students, boolean json) {
+        if (json) {
+            return out -> {
+                try (JsonWriter writer = new JsonWriter(out, exportBufferSize)) {
+                    for (Student student : students) {
+                        for (Enrollment enrollment : student.getEnrollments()) {
+                            JsonLinesCodec.writeEnrollment(writer, student, enrollment);
+                        }
+                    }
+                    return writer.getRecordCount();
+                }
+            };
+        }
+        return out -> {
+            try (CsvWriter csv = new CsvWriter(out, exportBufferSize)) {
+                return writeEnrollments(csv, students);
+            }
+        };
+    }
+
+    /**
+     * Runs the exports concurrently, each into a temp file next to its target. When all of
+     * them have finished, the temp files are synced to disk in one barrier and only then
+     * renamed over their targets, atomically where the file system allows it, and the renames
+     * are synced with the directory. Readers see either the previous files or the complete new
+     * ones; if any export fails, no target changes.
+     * @return the row count of each export
+     */
+    private long[] exportAtomically(List<String> filenames, List<RecordExport> exports) throws IOException {
+        List<Path> temps = new ArrayList<>();
+        try {
+            long[] counts = new long[exports.size()];
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Long>> futures = new ArrayList<>();
+                for (int i = 0; i < exports.size(); i++) {
+                    Path temp = dataDir.resolve(filenames.get(i) + ".tmp");
+                    boolean gzip = CsvFiles.isGzip(dataDir.resolve(filenames.get(i)));
+                    RecordExport export = exports.get(i);
+                    temps.add(temp);
+                    futures.add(executor.submit(() -> {
+                        try (Writer out = CsvFiles.newWriter(temp, gzip, compressionBufferSize, compressionLevel)) {
+                            return export.writeTo(out);
+                        }
+                    }));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    counts[i] = futures.get(i).get();
+                }
+            } catch (ExecutionException e) {
+                throw (e.getCause() instanceof IOException io) ? io : new IOException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            }
+
+            // Barrier: every file is complete; make them durable before any becomes visible
+            for (Path temp : temps) {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            }
+            for (int i = 0; i < temps.size(); i++) {
+                Path target = dataDir.resolve(filenames.get(i));
+                try {
+                    Files.move(temps.get(i), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temps.get(i), target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            syncDirectory(dataDir);
+            return counts;
+        } finally {
+            for (Path temp : temps) {
+                Files.deleteIfExists(temp); // Only left over if the export failed
             }
         }
     }
+
+    // Makes renames in the directory durable; skipped where directories cannot be opened (e.g. Windows)
+    private static void syncDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * @return the number of rows written
+     */
+    private static long writeStudents(CsvWriter csv, Collection<Student> students) throws IOException {
+        csv.header(StudentRecord.HEADER);
+        for (Student s : students) {
+            csv.field(s.getId())
+               .field(s.getFullName())
+               .field(s.getEmail())
+               .field(s.getRegistrationDate().toString())
+               .field(s.getStatus().name())
+               .field(s.getRegNo())
+               .field(s.getBirthDate() != null ? s.getBirthDate().toString() : "")
+               .field(s.getGraduationDate() != null ? s.getGraduationDate().toString() : "")
+               .field(s.getLastLoginDate() != null ? s.getLastLoginDate().toString() : "")
+               .field(s.getCourseGradesAsString())
+               .field(String.format("%.2f", s.getGPA()))
+               .endRow();
+        }
+        return csv.getRowCount();
+    }
     
+    private static long writeCourses(CsvWriter csv, Collection<Course> courses) throws IOException {
+        csv.header(CourseRecord.HEADER);
+        for (Course c : courses) {
+            csv.field(c.getCourseCode().getCode())
+               .field(c.getTitle())
+               .field(c.getCredits())
+               .field(c.getDepartment())
+               .field(c.getSemester().name())
+               .field(c.getInstructor() != null ? c.getInstructor().getFullName() : "")
+               .field(c.getInstructor() != null ? c.getInstructor().getEmail() : "")
+               .field(String.valueOf(c.isActive()))
+               .endRow();
+        }
+        return csv.getRowCount();
+    }
+
+    private static long writeEnrollments(CsvWriter csv, Collection<Student> students) throws IOException {
+        csv.header(EnrollmentRecord.EXPORT_HEADER);
+        for (Student student : students) {
+            for (Enrollment enrollment : student.getEnrollments()) {
+                csv.field(student.getId())
+                   .field(student.getRegNo())
+                   .field(enrollment.getCourse().getCourseCode().getCode())
+                   .field(enrollment.getCourse().getTitle())
+                   .field(enrollment.getSemester().name())
+                   .field(enrollment.getEnrollmentDate().toString())
+                   .field(enrollment.getMarks() >= 0 ? String.valueOf(enrollment.getMarks()) : "")
+                   .field(enrollment.getGrade().name())
+                   .field(String.valueOf(enrollment.getGrade().getGradePoint()))
+                   .field(enrollment.isDropped() ? "DROPPED" : "ENROLLED")
+                   .endRow();
+            }
+        }
+        return csv.getRowCount();
+    }
+
+    /**
+     * Feeds every record after the header to the importer through one reusable tokenizer,
+     * along with the column plan compiled from the header. Blank lines are skipped, and a quoted field may continue over several lines.
+     * .gz files are decompressed on the fly. Records the importer rejects (by throwing)
+     * go to the error report with the line they start on.
+     * @return the number of records imported
+     */
+    private <B> long forEachRecord(Path path, ImportErrorReport errors, ColumnPlan<B> plan,
+                                   BiConsumer<CsvTokenizer, ColumnPlan<B>> importer) throws IOException {
+        Consumer<CsvTokenizer> planned = row -> importer.accept(row, plan);
+        CsvTokenizer row = new CsvTokenizer();
+        StringBuilder pending = new StringBuilder(); // Lines of a record with an open quote
+        long lineNumber = 1;
+        long recordLine = 0; // First line of the pending record
+        long count = 0;
+        try (BufferedReader reader = CsvFiles.newReader(path, compressionBufferSize)) {
+            String line = reader.readLine(); // Skip header row
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                CharSequence record = (pending.length() > 0) ? pending.append('\n').append(line) : line;
+                if (row.reset(record).hasOpenQuote()) {
+                    if (pending.length() == 0) {
+                        pending.append(line);
+                        recordLine = lineNumber;
+                    }
+                    continue;
+                }
+                if (!row.isBlank()) {
+                    count += importRecord(row, (pending.length() > 0) ? recordLine : lineNumber, errors, planned);
+                }
+                pending.setLength(0);
+            }
+            if (pending.length() > 0) {
+                count += importRecord(row.reset(pending), recordLine, errors, planned); // Unterminated quote at end of file
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Feeds every line of a JSON Lines file to the importer through one reusable reader.
+     * Blank lines are skipped; .gz files are decompressed on the fly. Records the importer
+     * rejects (by throwing) go to the error report.
+     * @return the number of records imported
+     */
+    private long forEachJsonRecord(Path path, ImportErrorReport errors, Consumer<JsonReader> importer) throws IOException {
+        JsonReader json = new JsonReader();
+        long lineNumber = 0;
+        long count = 0;
+        try (BufferedReader reader = CsvFiles.newReader(path, compressionBufferSize)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (json.reset(line).isBlank()) {
+                    continue;
+                }
+                try {
+                    errors.startRecord(lineNumber, line);
+                    importer.accept(json.reset(line));
+                    count++;
+                } catch (Exception e) {
+                    errors.add(lineNumber, json.column(), e, line);
+                }
+            }
+        }
+        return count;
+    }
+
     /**
-     * Calculate approximate marks from grade
+     * Runs one record through the importer.
+     * @return 1 if it was imported, 0 if it was rejected (and added to the report)
      */
-    private double calculateMarksFromGrade(Grade grade) {
-        switch (grade) {
-            case S: return 95.0;
-            case A: return 85.0;
-            case B: return 75.0;
-            case C: return 65.0;
-            case D: return 55.0;
-            case F: return 35.0;
-            default: return -1.0;
-        }
-    }
-}
\ No newline at end of file
+    private static long importRecord(CsvTokenizer row, long lineNumber, ImportErrorReport errors, Consumer<CsvTokenizer> importer) {
+        try {
+            errors.startRecord(lineNumber, row.line());
+            importer.accept(row);
+            return 1;
+        } catch (Exception e) {
+            errors.add(lineNumber, row.lastDecodedField() + 1, e, row.line());
+            return 0;
+        }
+    }
+
+    // Large plain CSV files are memory-mapped and parsed in parallel
+    private boolean useMappedImport(Path path) throws IOException {
+        return !CsvFiles.isGzip(path) && !JsonLinesCodec.isJsonLines(path) && Files.size(path) >= parallelImportMinBytes;
+    }
+}
@@ -0,0 +1,57 @@
+package edu.ccrm.io;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Decodes ISO dates (yyyy-MM-dd) and local date-times (yyyy-MM-ddTHH:mm[:ss]) straight
+ * from a range of characters. Any other form, such as fractional seconds, goes through
+ * LocalDate.parse / LocalDateTime.parse, which also produce the error messages.
+ */
+final class IsoDates {
+    private IsoDates() {
+    }
+
+    static LocalDate parseDate(CharSequence text, int start, int end) {
+        if (end - start == 10) {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0 && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-') {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(text.subSequence(start, end));
+    }
+
+    static LocalDateTime parseDateTime(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length == 16 || length == 19) {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            int hour = digits(text, start + 11, 2);
+            int minute = digits(text, start + 14, 2);
+            int second = (length == 19) ? digits(text, start + 17, 2) : 0;
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0
+                    && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-' && text.charAt(start + 10) == 'T'
+                    && text.charAt(start + 13) == ':' && (length == 16 || text.charAt(start + 16) == ':')) {
+                return LocalDateTime.of(year, month, day, hour, minute, second);
+            }
+        }
+        return LocalDateTime.parse(text.subSequence(start, end));
+    }
+
+    // Value of `width` decimal digits at pos, or -1 if any of them is not a digit
+    private static int digits(CharSequence text, int pos, int width) {
+        int value = 0;
+        for (int i = pos; i < pos + width; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
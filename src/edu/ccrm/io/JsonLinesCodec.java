@@ -0,0 +1,366 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.enrollment.Enrollment;
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Instructor;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.exception.InvalidRecordException;
+import edu.ccrm.exception.InvalidRecordException.Reason;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON Lines form of students (with nested enrollments), courses and enrollments, one
+ * record per line. Readers accept the fields in any order and skip unknown ones; a
+ * missing optional field means the same as null.
+ * <pre>
+ * {"id":1,"regNo":"R2025001","fullName":"...","email":"...","registrationDate":"2024-01-15","status":"ACTIVE",
+ *  "birthDate":null,"graduationDate":null,"lastLoginDate":null,"gpa":8.5,
+ *  "enrollments":[{"course":"CS101","semester":"FALL","enrollmentDate":"...","marks":85.0,"grade":"A","dropped":false}]}
+ * {"code":"CS101","title":"...","credits":3,"department":"CS","semester":"FALL","instructorName":null,"instructorEmail":null,"active":true}
+ * {"studentId":1,"regNo":"R2025001","course":"CS101","courseTitle":"...","semester":"FALL","enrollmentDate":"...",
+ *  "marks":85.0,"grade":"A","gradePoints":9.0,"dropped":false}
+ * </pre>
+ * On import, id, regNo, gpa, courseTitle and gradePoints are informational: students get
+ * new IDs as in a CSV import, and course grades are rebuilt from graded enrollments.
+ */
+final class JsonLinesCodec {
+    static final String SUFFIX = ".jsonl";
+
+    private static final Student.Status[] STATUSES = Student.Status.values();
+    private static final Semester[] SEMESTERS = Semester.values();
+    private static final Grade[] GRADES = Grade.values();
+
+    private JsonLinesCodec() {
+    }
+
+    /**
+     * @return true for *.jsonl and *.jsonl.gz files
+     */
+    static boolean isJsonLines(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(CsvFiles.GZIP_SUFFIX)) {
+            name = name.substring(0, name.length() - CsvFiles.GZIP_SUFFIX.length());
+        }
+        return name.endsWith(SUFFIX);
+    }
+
+    static void writeStudent(JsonWriter json, Student s) throws IOException {
+        json.beginObject()
+            .field("id", s.getId())
+            .field("regNo", s.getRegNo())
+            .field("fullName", s.getFullName())
+            .field("email", s.getEmail())
+            .field("registrationDate", s.getRegistrationDate().toString())
+            .field("status", s.getStatus().name())
+            .field("birthDate", s.getBirthDate() != null ? s.getBirthDate().toString() : null)
+            .field("graduationDate", s.getGraduationDate() != null ? s.getGraduationDate().toString() : null)
+            .field("lastLoginDate", s.getLastLoginDate() != null ? s.getLastLoginDate().toString() : null)
+            .field("gpa", s.getGPA())
+            .name("enrollments").beginArray();
+        for (Enrollment e : s.getEnrollments()) {
+            json.beginObject()
+                .field("course", e.getCourse().getCourseCode().getCode())
+                .field("semester", e.getSemester().name())
+                .field("enrollmentDate", e.getEnrollmentDate().toString());
+            writeMarks(json, e);
+            json.field("grade", e.getGrade().name())
+                .field("dropped", e.isDropped())
+                .endObject();
+        }
+        json.endArray().endObject().endRecord();
+    }
+
+    static void writeCourse(JsonWriter json, Course c) throws IOException {
+        json.beginObject()
+            .field("code", c.getCourseCode().getCode())
+            .field("title", c.getTitle())
+            .field("credits", c.getCredits())
+            .field("department", c.getDepartment())
+            .field("semester", c.getSemester().name())
+            .field("instructorName", c.getInstructor() != null ? c.getInstructor().getFullName() : null)
+            .field("instructorEmail", c.getInstructor() != null ? c.getInstructor().getEmail() : null)
+            .field("active", c.isActive())
+            .endObject().endRecord();
+    }
+
+    static void writeEnrollment(JsonWriter json, Student student, Enrollment e) throws IOException {
+        json.beginObject()
+            .field("studentId", student.getId())
+            .field("regNo", student.getRegNo())
+            .field("course", e.getCourse().getCourseCode().getCode())
+            .field("courseTitle", e.getCourse().getTitle())
+            .field("semester", e.getSemester().name())
+            .field("enrollmentDate", e.getEnrollmentDate().toString());
+        writeMarks(json, e);
+        json.field("grade", e.getGrade().name())
+            .field("gradePoints", e.getGrade().getGradePoint())
+            .field("dropped", e.isDropped())
+            .endObject().endRecord();
+    }
+
+    // Unassigned marks (-1) are written as null
+    private static void writeMarks(JsonWriter json, Enrollment e) throws IOException {
+        json.name("marks");
+        if (e.getMarks() >= 0) {
+            json.value(e.getMarks());
+        } else {
+            json.value((String) null);
+        }
+    }
+
+    /**
+     * Nested enrollments of unknown courses are skipped, as for the CSV grades column; they and
+     * an unknown status (replaced by ACTIVE) are reported as warnings.
+     * @param warnings report of the import, positioned at this record (see ImportErrorReport.startRecord)
+     * @throws InvalidRecordException if required fields are missing; other runtime exceptions for malformed values
+     */
+    static StudentRecord readStudent(JsonReader json, Map<String, Course> courses, ImportErrorReport warnings) {
+        return readStudent(json, courses, false, warnings);
+    }
+
+    /**
+     * @param strict also reject what an import only warns about (an unknown status or nested
+     *               course) and an invalid email, as in a dry run
+     */
+    static StudentRecord readStudent(JsonReader json, Map<String, Course> courses, boolean strict) {
+        return readStudent(json, courses, strict, null);
+    }
+
+    // warnings is only used when not strict
+    private static StudentRecord readStudent(JsonReader json, Map<String, Course> courses, boolean strict,
+                                             ImportErrorReport warnings) {
+        String fullName = null;
+        String email = null;
+        LocalDate registrationDate = null;
+        LocalDate birthDate = null;
+        Student.Status status = null;
+        String invalidStatus = null;
+        LocalDate graduationDate = null;
+        LocalDateTime lastLoginDate = null;
+        List<EnrollmentRecord> enrollments = null;
+        List<String> unknownCourses = new ArrayList<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            json.nextName();
+            if (json.nameIs("fullName")) {
+                fullName = json.nextString();
+            } else if (json.nameIs("email")) {
+                email = json.nextString();
+            } else if (json.nameIs("registrationDate")) {
+                registrationDate = json.nextDate();
+            } else if (json.nameIs("status")) {
+                status = json.nextEnum(STATUSES);
+                invalidStatus = (status == null && !json.lastValue().isEmpty()) ? json.lastValue() : null;
+            } else if (json.nameIs("birthDate")) {
+                birthDate = json.nextDate();
+            } else if (json.nameIs("graduationDate")) {
+                graduationDate = json.nextDate();
+            } else if (json.nameIs("lastLoginDate")) {
+                lastLoginDate = json.nextDateTime();
+            } else if (json.nameIs("enrollments")) {
+                if (!json.nextNull()) {
+                    enrollments = new ArrayList<>();
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        EnrollmentRecord record = readEnrollmentFields(json, courses, null, unknownCourses);
+                        if (record != null) {
+                            enrollments.add(record);
+                        }
+                    }
+                    json.endArray();
+                }
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (fullName == null || fullName.isBlank() || email == null || email.isBlank() || registrationDate == null) {
+            throw new InvalidRecordException(Reason.MISSING_VALUE, 0, "Invalid student record (missing name, email or registration date)");
+        }
+        if (strict) {
+            StudentRecord.checkStrict(email.trim(), 0, invalidStatus, 0);
+            if (!unknownCourses.isEmpty()) {
+                throw new InvalidRecordException(Reason.UNKNOWN_REFERENCE, 0, "Invalid student record (unknown course '" + unknownCourses.get(0) + "')");
+            }
+        }
+        if (invalidStatus != null) {
+            warnings.warn(Reason.DEFAULT_USED, 0, "Invalid status '" + invalidStatus + "' for student " + fullName + ". Using default ACTIVE status.");
+        }
+        for (String code : unknownCourses) {
+            warnings.warn(Reason.VALUE_SKIPPED, 0, "Course not found: " + code);
+        }
+        return new StudentRecord(fullName.trim(), email.trim(), registrationDate, birthDate, status,
+                graduationDate, lastLoginDate, null, enrollments);
+    }
+
+    /**
+     * An unknown semester is replaced by FALL and reported as a warning.
+     * @param warnings report of the import, positioned at this record (see ImportErrorReport.startRecord)
+     * @throws InvalidRecordException if required fields are missing; other runtime exceptions for malformed values
+     */
+    static Course readCourse(JsonReader json, ImportErrorReport warnings) {
+        return readCourse(json, false, warnings);
+    }
+
+    /**
+     * @param strict also reject an unknown semester (which an import replaces by FALL) and an
+     *               invalid instructor email, as in a dry run
+     */
+    static Course readCourse(JsonReader json, boolean strict) {
+        return readCourse(json, strict, null);
+    }
+
+    // warnings is only used when not strict
+    private static Course readCourse(JsonReader json, boolean strict, ImportErrorReport warnings) {
+        String code = null;
+        String title = null;
+        int credits = 3;
+        String department = "General";
+        Semester semester = null;
+        String invalidSemester = null;
+        String instructorName = null;
+        String instructorEmail = null;
+        Boolean active = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            json.nextName();
+            if (json.nameIs("code")) {
+                code = json.nextString();
+            } else if (json.nameIs("title")) {
+                title = json.nextString();
+            } else if (json.nameIs("credits")) {
+                credits = json.nextInt();
+            } else if (json.nameIs("department")) {
+                String value = json.nextString();
+                department = (value != null && !value.isBlank()) ? value.trim() : department;
+            } else if (json.nameIs("semester")) {
+                semester = json.nextEnum(SEMESTERS);
+                invalidSemester = (semester == null && !json.lastValue().isEmpty()) ? json.lastValue() : null;
+            } else if (json.nameIs("instructorName")) {
+                instructorName = json.nextString();
+            } else if (json.nameIs("instructorEmail")) {
+                instructorEmail = json.nextString();
+            } else if (json.nameIs("active")) {
+                active = json.nextNull() ? null : json.nextBoolean();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (code == null || code.isBlank() || title == null || title.isBlank()) {
+            throw new InvalidRecordException(Reason.MISSING_VALUE, 0, "Invalid course record (missing code or title)");
+        }
+        if (strict) {
+            CourseRecord.checkStrict(invalidSemester, 0, instructorEmail, 0);
+        }
+        Course.Builder builder = new Course.Builder(code.trim(), title.trim())
+                .credits(credits)
+                .department(department);
+        if (semester != null) {
+            builder.semester(semester);
+        } else if (invalidSemester != null) {
+            warnings.warn(Reason.DEFAULT_USED, 0, "Invalid semester '" + invalidSemester + "' for course " + code + ". Using default FALL.");
+        }
+        if (instructorName != null && !instructorName.isBlank() && instructorEmail != null && !instructorEmail.isBlank()) {
+            builder.instructor(new Instructor(0, instructorName.trim(), instructorEmail.trim(), department));
+        }
+        if (active != null) {
+            builder.active(active);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads an enrollment without checking that its student exists (a dry run).
+     * @throws InvalidRecordException for a missing student ID or an unknown course, semester or grade
+     */
+    static EnrollmentRecord readEnrollment(JsonReader json, Map<String, Course> courses) {
+        return readEnrollmentFields(json, courses, null, null);
+    }
+
+    /**
+     * @param students students by ID; an enrollment of any other student is rejected
+     * @throws InvalidRecordException for a missing student ID or an unknown student, course, semester or grade
+     */
+    static EnrollmentRecord readEnrollment(JsonReader json, Map<String, Course> courses, Map<Integer, Student> students) {
+        return readEnrollmentFields(json, courses, students, null);
+    }
+
+    /**
+     * Reads one enrollment object. Nested enrollments (unknownCourses != null) carry no
+     * student ID; their unknown course codes are collected and null is returned.
+     */
+    private static EnrollmentRecord readEnrollmentFields(JsonReader json, Map<String, Course> courses,
+                                                         Map<Integer, Student> students, List<String> unknownCourses) {
+        boolean nested = (unknownCourses != null);
+        int studentId = 0;
+        int studentIdColumn = 0;
+        boolean hasStudentId = nested;
+        String courseCode = null;
+        Semester semester = null;
+        Grade grade = Grade.NA;
+        LocalDateTime enrollmentDate = null;
+        double marks = -1.0;
+        boolean dropped = false;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            json.nextName();
+            if (json.nameIs("studentId")) {
+                studentId = json.nextInt();
+                studentIdColumn = json.column();
+                hasStudentId = true;
+            } else if (json.nameIs("course")) {
+                courseCode = json.nextString();
+            } else if (json.nameIs("semester")) {
+                semester = json.nextEnum(SEMESTERS);
+                if (semester == null && !json.lastValue().isEmpty()) {
+                    throw new InvalidRecordException(Reason.INVALID_VALUE, json.column(), "Invalid enrollment record (unknown semester '" + json.lastValue() + "')");
+                }
+            } else if (json.nameIs("grade")) {
+                Grade value = json.nextEnum(GRADES);
+                if (value == null && !json.lastValue().isEmpty()) {
+                    throw new InvalidRecordException(Reason.INVALID_VALUE, json.column(), "Invalid enrollment record (unknown grade '" + json.lastValue() + "')");
+                }
+                grade = (value != null) ? value : Grade.NA;
+            } else if (json.nameIs("enrollmentDate")) {
+                enrollmentDate = json.nextDateTime();
+            } else if (json.nameIs("marks")) {
+                double value = json.nextDouble();
+                marks = Double.isNaN(value) ? -1.0 : value;
+            } else if (json.nameIs("dropped")) {
+                dropped = !json.nextNull() && json.nextBoolean();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (!hasStudentId || courseCode == null) {
+            throw new InvalidRecordException(Reason.MISSING_VALUE, 0, "Invalid enrollment record (missing student ID or course code)");
+        }
+        Course course = courses.get(courseCode);
+        if (course == null) {
+            if (nested) {
+                unknownCourses.add(courseCode);
+                return null;
+            }
+            throw new InvalidRecordException(Reason.UNKNOWN_REFERENCE, 0, "Invalid enrollment record (unknown course '" + courseCode + "')");
+        }
+        EnrollmentRecord.checkStudent(studentId, students, studentIdColumn);
+        return new EnrollmentRecord(studentId, course, (semester != null) ? semester : course.getSemester(),
+                grade, enrollmentDate, marks, dropped);
+    }
+}
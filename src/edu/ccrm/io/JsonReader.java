@@ -0,0 +1,473 @@
+package edu.ccrm.io;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reusable pull parser for one JSON Lines record at a time.
+ * It walks the characters of the record in place: names are compared without creating
+ * Strings, numbers, dates and enums are decoded directly, and a String is only created
+ * for string values the caller asks for. Unknown fields can be skipped with skipValue().
+ * Malformed input throws IllegalArgumentException with the column of the problem.
+ */
+public final class JsonReader {
+    // Powers of ten that are exact doubles, for the fast path of nextDouble()
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private CharSequence in = "";
+    private int pos;
+    private int nameStart; // Raw bounds of the last name read, inside its quotes
+    private int nameEnd;
+    private boolean nameEscaped;
+    private int valueStart; // Bounds of the last plain string value
+    private int valueEnd;
+
+    /**
+     * @return this reader, positioned at the start of the record
+     */
+    public JsonReader reset(CharSequence record) {
+        this.in = record;
+        this.pos = 0;
+        return this;
+    }
+
+    /**
+     * The raw record, for diagnostics.
+     */
+    public CharSequence line() {
+        return in;
+    }
+
+    /**
+     * 1-based character position of the reader in the record, e.g. to locate an invalid value.
+     */
+    public int column() {
+        return Math.min(pos, in.length()) + 1;
+    }
+
+    /**
+     * @return true for a record with nothing but whitespace
+     */
+    public boolean isBlank() {
+        skipWhitespace();
+        return pos >= in.length();
+    }
+
+    public void beginObject() {
+        expect('{');
+    }
+
+    public void endObject() {
+        expect('}');
+    }
+
+    public void beginArray() {
+        expect('[');
+    }
+
+    public void endArray() {
+        expect(']');
+    }
+
+    /**
+     * @return true if the current object or array has another member; consumes the comma before it
+     */
+    public boolean hasNext() {
+        skipWhitespace();
+        if (pos >= in.length()) {
+            throw error("unexpected end of record");
+        }
+        char c = in.charAt(pos);
+        if (c == '}' || c == ']') {
+            return false;
+        }
+        if (c == ',') {
+            pos++;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next member name and its colon; compare it with nameIs().
+     */
+    public void nextName() {
+        nameStart = stringStart();
+        nameEscaped = false;
+        while (true) {
+            char c = charAt(pos);
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                nameEscaped = true;
+                pos++;
+            }
+            pos++;
+        }
+        nameEnd = pos++;
+        expect(':');
+    }
+
+    public boolean nameIs(String name) {
+        if (nameEscaped) {
+            int saved = pos;
+            pos = nameStart;
+            String decoded = decodeString();
+            pos = saved;
+            return decoded.equals(name);
+        }
+        if (nameEnd - nameStart != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (in.charAt(nameStart + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Consumes a null literal if one is next.
+     * @return true if the value was null
+     */
+    public boolean nextNull() {
+        skipWhitespace();
+        if (matches("null")) {
+            pos += 4;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the string value, or null for a JSON null
+     */
+    public String nextString() {
+        if (nextNull()) {
+            return null;
+        }
+        pos = stringStart();
+        return decodeString();
+    }
+
+    public long nextLong() {
+        skipWhitespace();
+        int start = pos;
+        boolean negative = (pos < in.length() && in.charAt(pos) == '-');
+        if (negative) {
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (pos < in.length() && in.charAt(pos) >= '0' && in.charAt(pos) <= '9') {
+            value = value * 10 + (in.charAt(pos++) - '0');
+            digits++;
+        }
+        if (digits == 0 || digits > 18) {
+            pos = start;
+            throw error("expected an integer");
+        }
+        return negative ? -value : value;
+    }
+
+    public int nextInt() {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error("integer out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Plain decimals with up to 15 significant digits are decoded exactly from the characters
+     * (an exact mantissa divided by an exact power of ten); anything else goes through Double.parseDouble.
+     * @return the number, or NaN for a JSON null
+     */
+    public double nextDouble() {
+        if (nextNull()) {
+            return Double.NaN;
+        }
+        int start = pos;
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean negative = (pos < in.length() && in.charAt(pos) == '-');
+        if (negative) {
+            pos++;
+        }
+        boolean simple = true;
+        for (; pos < in.length(); pos++) {
+            char c = in.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c == 'e' || c == 'E' || c == '+' || c == '-') {
+                simple = false;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            pos = start;
+            throw error("expected a number");
+        }
+        if (simple && digits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = (fractionDigits > 0) ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(in.subSequence(start, pos).toString());
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw error("malformed number");
+        }
+    }
+
+    public boolean nextBoolean() {
+        skipWhitespace();
+        if (matches("true")) {
+            pos += 4;
+            return true;
+        }
+        if (matches("false")) {
+            pos += 5;
+            return false;
+        }
+        throw error("expected true or false");
+    }
+
+    /**
+     * @return the ISO date in the string value, or null for a JSON null
+     */
+    public LocalDate nextDate() {
+        if (nextNull()) {
+            return null;
+        }
+        int start = plainStringValue();
+        return IsoDates.parseDate(in, start, pos - 1);
+    }
+
+    /**
+     * @return the ISO local date-time in the string value, or null for a JSON null
+     */
+    public LocalDateTime nextDateTime() {
+        if (nextNull()) {
+            return null;
+        }
+        int start = plainStringValue();
+        return IsoDates.parseDateTime(in, start, pos - 1);
+    }
+
+    /**
+     * Matches the string value against the constant names, ignoring case. Pass a shared array
+     * rather than values(), which copies the constants on every call.
+     * @return the matching constant, or null for a JSON null or an unknown name
+     */
+    public <E extends Enum<E>> E nextEnum(E[] values) {
+        if (nextNull()) {
+            valueStart = valueEnd = pos; // lastValue() is empty
+            return null;
+        }
+        int start = plainStringValue();
+        int length = pos - 1 - start;
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == length && regionMatchesIgnoreCase(start, name)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The last string value read by nextDate(), nextDateTime() or nextEnum(), e.g. for an error
+     * message after nextEnum() returned null.
+     */
+    public String lastValue() {
+        return in.subSequence(valueStart, valueEnd).toString();
+    }
+
+    /**
+     * Skips the next value of any type, including nested objects and arrays.
+     */
+    public void skipValue() {
+        skipWhitespace();
+        char c = charAt(pos);
+        if (c == '"') {
+            pos = stringStart();
+            skipStringRest();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = charAt(pos);
+                if (c == '"') {
+                    pos++;
+                    skipStringRest();
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+                pos++;
+            } while (depth > 0);
+        } else {
+            while (pos < in.length() && ",}] \t".indexOf(in.charAt(pos)) < 0) {
+                pos++; // Number or literal
+            }
+        }
+    }
+
+    // Consumes a string value that has no escapes; returns the index after its opening quote
+    private int plainStringValue() {
+        int start = stringStart();
+        pos = start;
+        while (true) {
+            char c = charAt(pos);
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                throw error("unexpected escape");
+            }
+            pos++;
+        }
+        valueStart = start;
+        valueEnd = pos++;
+        return start;
+    }
+
+    private boolean regionMatchesIgnoreCase(int start, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char a = in.charAt(start + i);
+            char b = name.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Skips whitespace and the opening quote; returns the index of the first character inside
+    private int stringStart() {
+        skipWhitespace();
+        if (charAt(pos) != '"') {
+            throw error("expected a string");
+        }
+        return ++pos;
+    }
+
+    private void skipStringRest() {
+        while (true) {
+            char c = charAt(pos++);
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                pos++;
+            }
+        }
+    }
+
+    // Decodes the string starting at pos (just inside the quote) and moves past its closing quote
+    private String decodeString() {
+        int start = pos;
+        while (true) {
+            char c = charAt(pos);
+            if (c == '"') {
+                return in.subSequence(start, pos++).toString();
+            }
+            if (c == '\\') {
+                break;
+            }
+            pos++;
+        }
+        StringBuilder sb = new StringBuilder(pos - start + 16).append(in, start, pos);
+        while (true) {
+            char c = charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char escaped = charAt(pos++);
+            switch (escaped) {
+                case '"', '\\', '/' -> sb.append(escaped);
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(charAt(pos++), 16);
+                        if (digit < 0) {
+                            throw error("malformed unicode escape");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    sb.append((char) code);
+                }
+                default -> throw error("unknown escape '\\" + escaped + "'");
+            }
+        }
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if (charAt(pos) != c) {
+            throw error("expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private boolean matches(String literal) {
+        if (pos + literal.length() > in.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (in.charAt(pos + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private char charAt(int index) {
+        if (index >= in.length()) {
+            throw error("unexpected end of record");
+        }
+        return in.charAt(index);
+    }
+
+    private void skipWhitespace() {
+        while (pos < in.length()) {
+            char c = in.charAt(pos);
+            if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String problem) {
+        return new IllegalArgumentException("Malformed JSON at column " + (Math.min(pos, in.length()) + 1) + ": " + problem);
+    }
+}
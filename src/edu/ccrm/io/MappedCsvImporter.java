@@ -0,0 +1,437 @@
+package edu.ccrm.io;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.service.DataStore;
+import edu.ccrm.util.IdGenerator;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Parallel CSV import for large files.
+ * The file is memory-mapped and split into record-aligned chunks (see CsvChunks), the
+ * chunks are parsed in parallel into validated records, and the results are inserted
+ * in bulk. Student IDs are reserved per chunk, in chunk order, and assigned in row order,
+ * so accepted students get consecutive IDs in file order; rejected rows use none. Courses
+ * are added in row order as well. Student imports are checkpointed per chunk and can resume,
+ * also after a restart (see ImportCheckpoint). Rejected rows and warnings are collected
+ * per chunk and merged into the import's error report with their line numbers in the file.
+ * Columns are bound by name from the header once, before the chunks are parsed (see ColumnPlan).
+ */
+public class MappedCsvImporter {
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int HEADER_BUFFER = 8192;
+
+    private final DataStore dataStore;
+    private final int parallelism;
+    private final int maxErrors;
+    private final long checkpointBytes;
+
+    public MappedCsvImporter(DataStore dataStore) {
+        this(dataStore, AppConfig.getInstance().getIntProperty("import.parallelism", 0));
+    }
+
+    /**
+     * @param parallelism number of parser threads; 0 uses all available processors
+     */
+    public MappedCsvImporter(DataStore dataStore, int parallelism) {
+        this(dataStore, parallelism, AppConfig.getInstance().getLongProperty("import.checkpoint.bytes", 64L * 1024 * 1024));
+    }
+
+    /**
+     * @param parallelism number of parser threads; 0 uses all available processors
+     * @param checkpointBytes largest chunk of a student import, i.e. the most input a resumed import reads again
+     */
+    public MappedCsvImporter(DataStore dataStore, int parallelism, long checkpointBytes) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Parallelism cannot be negative, got: " + parallelism);
+        }
+        if (checkpointBytes <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive, got: " + checkpointBytes);
+        }
+        this.dataStore = dataStore;
+        this.parallelism = (parallelism == 0) ? Runtime.getRuntime().availableProcessors() : parallelism;
+        this.maxErrors = AppConfig.getInstance().getIntProperty("import.errors.max", 1000);
+        this.checkpointBytes = checkpointBytes;
+    }
+
+    /**
+     * Chunks are committed to the store in file order, each with its own block of IDs, and a
+     * checkpoint is saved after each one (see ImportCheckpoint). If an earlier import of the
+     * same file stopped halfway, the import resumes after its last committed chunk; the error
+     * report then covers the rows read by this run. After a restart, the committed students
+     * are first rebuilt from the file under their old IDs (and their rows are reported again).
+     * @return the number of students imported (in all runs), or -1 if the file could not be read
+     */
+    public long importStudents(Path path) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ImportErrorReport errors = new ImportErrorReport("student", maxErrors);
+            ColumnPlan<StudentRecord.Values> plan = StudentRecord.plan(CsvFiles.readHeader(path, HEADER_BUFFER), path.getFileName().toString());
+            ImportCheckpoint checkpoint = ImportCheckpoint.load(path, dataStore);
+            BiFunction<CsvTokenizer, ImportErrorReport, StudentRecord> rowParser =
+                    (row, warnings) -> StudentRecord.parse(row, plan, dataStore.getCourses(), warnings);
+            if (checkpoint.isResumed()) {
+                IdGenerator.ensureStudentIdAtLeast(checkpoint.getHighWaterId());
+                System.out.println("Resuming import of " + path.getFileName() + " after " + checkpoint.getRows()
+                        + " students (line " + (checkpoint.getLines() + 1) + ")");
+                if (checkpoint.needsRebuild()) {
+                    System.out.println("  Rebuilding those students from the file (they were imported before a restart)");
+                    rebuildCommitted(channel, checkpoint, pool, errors, rowParser);
+                }
+            }
+            long remaining = channel.size() - checkpoint.getOffset();
+            int chunkCount = (int) Math.max(parallelism * CHUNKS_PER_THREAD, (remaining + checkpointBytes - 1) / checkpointBytes);
+            ParsedChunks<StudentRecord> parsed = submitChunks(channel, checkpoint.getOffset(), channel.size(), chunkCount,
+                    pool, errors, rowParser);
+
+            // Each chunk reserves its IDs once parsed, in row order, and is built while the one before is committed
+            Future<List<Student>> building = null;
+            int firstId = 0;
+            long lines = 0;
+            int chunks = parsed.futures().size();
+            for (int i = 0; i <= chunks; i++) {
+                Future<List<Student>> next = null;
+                int nextFirstId = 0;
+                long nextLines = 0;
+                if (i < chunks) {
+                    Chunk<StudentRecord> chunk = parsed.futures().get(i).get();
+                    errors.addAll(chunk.errors(), checkpoint.getLines() + lines);
+                    List<StudentRecord> records = chunk.rows();
+                    nextFirstId = IdGenerator.reserveStudentIds(records.size());
+                    nextLines = chunk.lines();
+                    int ids = nextFirstId;
+                    next = pool.submit(() -> {
+                        List<Student> students = new ArrayList<>(records.size());
+                        for (int r = 0; r < records.size(); r++) {
+                            students.add(records.get(r).toStudent(ids + r, dataStore));
+                        }
+                        return students;
+                    });
+                }
+                if (building != null) {
+                    List<Student> students = building.get();
+                    dataStore.addStudents(students);
+                    checkpoint.commit(parsed.boundaries()[i], students.size(), lines,
+                            firstId, firstId + students.size() - 1);
+                }
+                building = next;
+                firstId = nextFirstId;
+                lines = nextLines;
+            }
+            checkpoint.delete();
+
+            report("Students", path, checkpoint.getRows(), chunks, System.nanoTime() - start);
+            errors.writeNextTo(path);
+            dataStore.getChangeEvents().publish(ChangeEvent.Type.DATA_IMPORTED, 0);
+            return checkpoint.getRows();
+        } catch (ClosedByInterruptException e) {
+            System.err.println("Student import interrupted: " + path.getFileName()); // Interrupted during I/O
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Error importing students from " + path.getFileName() + ": " + rootMessage(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Student import interrupted: " + path.getFileName());
+        } finally {
+            pool.shutdown();
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the students committed before a restart back to the store: parses the file up to
+     * the checkpoint's offset and gives the accepted rows the IDs they had, in row order.
+     * Nothing is added unless the rows still match the checkpoint.
+     */
+    private void rebuildCommitted(FileChannel channel, ImportCheckpoint checkpoint, ForkJoinPool pool,
+                                  ImportErrorReport errors, BiFunction<CsvTokenizer, ImportErrorReport, StudentRecord> rowParser)
+            throws IOException, InterruptedException, ExecutionException {
+        int chunkCount = (int) Math.max(parallelism * CHUNKS_PER_THREAD, (checkpoint.getOffset() + checkpointBytes - 1) / checkpointBytes);
+        ParsedChunks<StudentRecord> parsed = submitChunks(channel, 0, checkpoint.getOffset(), chunkCount, pool, errors, rowParser);
+        List<Chunk<StudentRecord>> chunks = new ArrayList<>(parsed.futures().size());
+        long accepted = 0;
+        for (Future<Chunk<StudentRecord>> future : parsed.futures()) {
+            Chunk<StudentRecord> chunk = future.get();
+            chunks.add(chunk);
+            accepted += chunk.rows().size();
+        }
+        if (accepted != checkpoint.getRows()) {
+            throw new IOException("the file holds " + accepted + " students before the checkpoint, not "
+                    + checkpoint.getRows() + "; delete its checkpoint to import it from the start");
+        }
+
+        PrimitiveIterator.OfInt ids = checkpoint.committedIds();
+        long lines = 0;
+        for (Chunk<StudentRecord> chunk : chunks) {
+            errors.addAll(chunk.errors(), lines);
+            lines += chunk.lines();
+            List<Student> students = new ArrayList<>(chunk.rows().size());
+            for (StudentRecord record : chunk.rows()) {
+                students.add(record.toStudent(ids.nextInt(), dataStore));
+            }
+            dataStore.addStudents(students);
+        }
+    }
+
+    /**
+     * @return the number of courses imported, or -1 if the file could not be read
+     */
+    public long importCourses(Path path) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ImportErrorReport errors = new ImportErrorReport("course", maxErrors);
+            ColumnPlan<CourseRecord.Values> plan = CourseRecord.plan(CsvFiles.readHeader(path, HEADER_BUFFER), path.getFileName().toString());
+            List<List<Course>> chunks = parseChunks(channel, pool, errors, (row, warnings) -> CourseRecord.parse(row, plan, warnings));
+
+            // Later rows win for duplicate codes, exactly as in a sequential import
+            long total = 0;
+            for (List<Course> courses : chunks) {
+                for (Course course : courses) {
+                    dataStore.addCourse(course);
+                }
+                total += courses.size();
+            }
+
+            report("Courses", path, total, chunks.size(), System.nanoTime() - start);
+            errors.writeNextTo(path);
+            dataStore.getChangeEvents().publish(ChangeEvent.Type.DATA_IMPORTED, 0);
+            return total;
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Error importing courses from " + path.getFileName() + ": " + rootMessage(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Course import interrupted: " + path.getFileName());
+        } finally {
+            pool.shutdown();
+        }
+        return -1;
+    }
+
+    /**
+     * Enrollment rows are parsed (and their courses resolved) in parallel, then loaded per student.
+     * @return the number of enrollments loaded, or -1 if the file could not be read
+     */
+    public long importEnrollments(Path path) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ImportErrorReport errors = new ImportErrorReport("enrollment", maxErrors);
+            ColumnPlan<EnrollmentRecord.Values> plan = EnrollmentRecord.plan(CsvFiles.readHeader(path, HEADER_BUFFER), path.getFileName().toString());
+            List<List<EnrollmentRecord>> chunks = parseChunks(channel, pool, errors,
+                    (row, warnings) -> EnrollmentRecord.parse(row, plan, dataStore.getCourses(), dataStore.getStudents()));
+
+            long total = EnrollmentRecord.loadAll(() -> chunks.stream().flatMap(List::stream).iterator(), dataStore, errors);
+
+            report("Enrollments", path, total, chunks.size(), System.nanoTime() - start);
+            errors.writeNextTo(path);
+            dataStore.getChangeEvents().publish(ChangeEvent.Type.DATA_IMPORTED, 0);
+            return total;
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Error importing enrollments from " + path.getFileName() + ": " + rootMessage(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Enrollment import interrupted: " + path.getFileName());
+        } finally {
+            pool.shutdown();
+        }
+        return -1;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Parses the whole file in parallel without importing anything, for a dry run. Rows the
+     * row parser rejects (by throwing) go to the error report; rows it returns null for are
+     * counted but not kept.
+     * @param accepted receives the kept rows, in file order
+     * @return the number of rows accepted
+     */
+    <T> long parseOnly(Path path, ImportErrorReport errors, Function<CsvTokenizer, T> rowParser, List<T> accepted)
+            throws IOException, InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ParsedChunks<T> parsed = submitChunks(channel, 0, channel.size(), parallelism * CHUNKS_PER_THREAD, pool, errors,
+                    (row, warnings) -> rowParser.apply(row));
+            long count = 0;
+            long lineOffset = 0;
+            for (Future<Chunk<T>> future : parsed.futures()) {
+                Chunk<T> chunk = future.get();
+                errors.addAll(chunk.errors(), lineOffset);
+                lineOffset += chunk.lines();
+                accepted.addAll(chunk.rows());
+                count += chunk.accepted();
+            }
+            return count;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parses every chunk on the pool. Rows the row parser rejects (by throwing) are left out
+     * and added to the error report, as are the warnings it reports.
+     * @param rowParser parses a row, reporting warnings to the chunk's part of the error report
+     * @return the parsed rows per chunk, in file order (the header row is skipped)
+     */
+    private <T> List<List<T>> parseChunks(FileChannel channel, ForkJoinPool pool, ImportErrorReport errors,
+                                          BiFunction<CsvTokenizer, ImportErrorReport, T> rowParser)
+            throws IOException, InterruptedException, ExecutionException {
+        ParsedChunks<T> parsed = submitChunks(channel, 0, channel.size(), parallelism * CHUNKS_PER_THREAD, pool, errors, rowParser);
+        List<List<T>> chunks = new ArrayList<>(parsed.futures().size());
+        long lineOffset = 0; // Lines in the chunks before this one
+        for (Future<Chunk<T>> future : parsed.futures()) {
+            Chunk<T> chunk = future.get();
+            errors.addAll(chunk.errors(), lineOffset);
+            lineOffset += chunk.lines();
+            chunks.add(chunk.rows());
+        }
+        return chunks;
+    }
+
+    /**
+     * Splits the file from start (0, or the start of a record) up to end (the end of the
+     * file, or the start of a record) and submits every chunk to the pool; each chunk gets
+     * its own part of the error report.
+     */
+    private <T> ParsedChunks<T> submitChunks(FileChannel channel, long start, long end, int chunkCount, ForkJoinPool pool,
+                                             ImportErrorReport errors, BiFunction<CsvTokenizer, ImportErrorReport, T> rowParser)
+            throws IOException, InterruptedException {
+        long[] boundaries = CsvChunks.split(channel, start, end, chunkCount, pool);
+        List<Future<Chunk<T>>> futures = new ArrayList<>();
+        for (int i = 0; i + 1 < boundaries.length; i++) {
+            long from = boundaries[i];
+            long to = boundaries[i + 1];
+            boolean skipHeader = (from == 0);
+            Callable<Chunk<T>> task = () -> parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, from, to - from),
+                    skipHeader, errors.newPart(), rowParser);
+            futures.add(pool.submit(task));
+        }
+        return new ParsedChunks<>(boundaries, futures);
+    }
+
+    /**
+     * Chunk boundaries (chunk i is [b[i], b[i+1])) and the pending parse of each chunk.
+     */
+    private record ParsedChunks<T>(long[] boundaries, List<Future<Chunk<T>>> futures) {
+    }
+
+    /**
+     * Parsed rows of one chunk (null results left out), the number of rows accepted, its
+     * rejected rows and warnings (lines counted from the chunk start) and its number of lines.
+     */
+    private record Chunk<T>(List<T> rows, long accepted, ImportErrorReport errors, long lines) {
+    }
+
+    /**
+     * Each record is decoded into one reused CharBuffer and tokenized in place, so the
+     * only objects created per row are the values the row parser keeps.
+     */
+    private static <T> Chunk<T> parseChunk(MappedByteBuffer buffer, boolean skipHeader, ImportErrorReport errors,
+                                           BiFunction<CsvTokenizer, ImportErrorReport, T> rowParser) {
+        List<T> rows = new ArrayList<>();
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(256);
+        ByteBuffer record = buffer.duplicate(); // Windowed onto each record; buffer keeps its limit
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        boolean inQuotes = false;
+        boolean header = skipHeader;
+        int lineStart = 0;
+        long lines = 0; // Newlines so far
+        long accepted = 0;
+        long recordLine = 1; // Line on which the current record starts
+        int limit = buffer.limit();
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                }
+                if (b == '\n') {
+                    lines++;
+                }
+                if (b != '\n' || inQuotes) {
+                    continue;
+                }
+            } else if (lineStart == limit) {
+                break; // Chunk ended with a newline
+            }
+
+            // Record [lineStart, i); the last record of the file may lack a newline
+            int length = i - lineStart;
+            if (length > 0 && buffer.get(i - 1) == '\r') {
+                length--;
+            }
+            record.limit(lineStart + length).position(lineStart);
+            lineStart = i + 1;
+            long line = recordLine;
+            recordLine = lines + 1;
+            if (header) {
+                header = false;
+                continue;
+            }
+            if (length > chars.capacity()) {
+                chars = CharBuffer.allocate(Math.max(length, chars.capacity() * 2)); // UTF-8 never yields more chars than bytes
+            }
+            chars.clear();
+            decoder.reset();
+            decoder.decode(record, chars, true);
+            decoder.flush(chars);
+            chars.flip();
+            if (tokenizer.reset(chars).isBlank()) {
+                continue;
+            }
+            try {
+                errors.startRecord(line, tokenizer.line());
+                T parsed = rowParser.apply(tokenizer, errors);
+                if (parsed != null) {
+                    rows.add(parsed);
+                }
+                accepted++;
+            } catch (Exception e) {
+                errors.add(line, tokenizer.lastDecodedField() + 1, e, tokenizer.line());
+            }
+        }
+        return new Chunk<>(rows, accepted, errors, lines);
+    }
+
+    private void report(String kind, Path path, long count, int chunks, long elapsedNanos) {
+        double millis = elapsedNanos / 1_000_000.0;
+        System.out.println(kind + " imported successfully from " + path.getFileName() + " (" + count + " records processed)");
+        System.out.printf("  Parallel import: %d chunks on %d threads in %.0f ms (%.0f records/s)%n",
+                chunks, parallelism, millis, count / Math.max(millis / 1000, 1e-9));
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+}
@@ -0,0 +1,374 @@
+package edu.ccrm.io;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.service.DataStore;
+import edu.ccrm.util.IdGenerator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Staged student import for files that are read as a stream (CSV below the mapped-import
+ * threshold, .gz files and JSON Lines).
+ * <ol>
+ * <li>A reader thread cuts the file into batches of records.</li>
+ * <li>A pool of parser threads parses and validates the batches, each with its own tokenizer.</li>
+ * <li>The calling thread puts the batches back into file order, reserves a block of IDs per
+ * batch and inserts the students in bulk. Accepted students get consecutive IDs in file
+ * order; a row that fails while its student is built passes its ID on to the next row, and
+ * the IDs left over at the end of the batch are given back.</li>
+ * </ol>
+ * The stages are connected by bounded queues, and at most `window` batches are in flight
+ * between reading and inserting: a slow stage holds back the reader instead of letting
+ * batches pile up. Each stage reports its records, busy time and waiting time, which shows
+ * where an import stalls. Rejected records are collected per batch and merged into the
+ * import's error report in file order.
+ */
+public class PipelinedImporter {
+    private static final Batch END = new Batch(-1, 0); // Marks the end of a stage's output
+
+    private final DataStore dataStore;
+    private final int parsers;
+    private final int batchSize;
+    private final int window;
+    private final int maxErrors;
+
+    public PipelinedImporter(DataStore dataStore) {
+        this(dataStore,
+             AppConfig.getInstance().getIntProperty("import.parallelism", 0),
+             AppConfig.getInstance().getIntProperty("import.pipeline.batch.size", 1024),
+             AppConfig.getInstance().getIntProperty("import.pipeline.window", 16));
+    }
+
+    /**
+     * @param parsers number of parser threads; 0 uses all available processors
+     * @param batchSize records per batch
+     * @param window maximum number of batches between the reader and the inserter
+     */
+    public PipelinedImporter(DataStore dataStore, int parsers, int batchSize, int window) {
+        if (parsers < 0) {
+            throw new IllegalArgumentException("Parser count cannot be negative, got: " + parsers);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be positive, got: " + window);
+        }
+        this.dataStore = dataStore;
+        this.parsers = (parsers == 0) ? Runtime.getRuntime().availableProcessors() : parsers;
+        this.batchSize = batchSize;
+        this.window = window;
+        this.maxErrors = AppConfig.getInstance().getIntProperty("import.errors.max", 1000);
+    }
+
+    /**
+     * @param bufferSize read buffer size, also used for gzip decompression
+     * @return the number of students imported, or -1 if the file could not be read
+     */
+    public long importStudents(Path path, int bufferSize) {
+        long start = System.nanoTime();
+        boolean json = JsonLinesCodec.isJsonLines(path);
+        Stage reader = new Stage("Read");
+        Stage parser = new Stage("Parse");
+        Stage inserter = new Stage("Insert");
+        // Room for the whole window plus one end marker per parser, so markers never block
+        BlockingQueue<Batch> lines = new ArrayBlockingQueue<>(window + parsers);
+        BlockingQueue<Batch> parsed = new ArrayBlockingQueue<>(window + parsers);
+        Semaphore inFlight = new Semaphore(window);
+
+        // Columns are bound by name from the header once, before any batch is parsed
+        ColumnPlan<StudentRecord.Values> plan = null;
+        if (!json) {
+            try {
+                plan = StudentRecord.plan(CsvFiles.readHeader(path, bufferSize), path.getFileName().toString());
+            } catch (IOException e) {
+                System.err.println("Error importing students from " + path.getFileName() + ": " + e.getMessage());
+                return -1;
+            }
+        }
+        ColumnPlan<StudentRecord.Values> columns = plan;
+
+        ExecutorService executor = Executors.newFixedThreadPool(parsers + 1);
+        try {
+            Future<?> reading = executor.submit(() -> {
+                read(path, bufferSize, !json, lines, inFlight, reader);
+                return null;
+            });
+            for (int i = 0; i < parsers; i++) {
+                executor.submit(() -> parse(json, columns, lines, parsed, parser));
+            }
+            ImportErrorReport errors = new ImportErrorReport("student", maxErrors);
+            long count = insert(parsed, inFlight, inserter, errors);
+            reading.get(); // Surfaces a read error
+
+            report(path, count, System.nanoTime() - start, reader, parser, inserter);
+            errors.writeNextTo(path);
+            dataStore.getChangeEvents().publish(ChangeEvent.Type.DATA_IMPORTED, 0);
+            return count;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            System.err.println("Error importing students from " + path.getFileName() + ": " + cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Student import interrupted: " + path.getFileName());
+        } finally {
+            executor.shutdownNow();
+        }
+        return -1;
+    }
+
+    /**
+     * Reader stage. CSV records that continue over several lines (an odd number of quotes
+     * so far) are joined, as in the mapped import; the header row and blank lines are skipped.
+     */
+    private void read(Path path, int bufferSize, boolean csv, BlockingQueue<Batch> lines, Semaphore inFlight,
+                      Stage stage) throws IOException, InterruptedException {
+        long sequence = 0;
+        long lineNumber = 0;
+        try (BufferedReader reader = CsvFiles.newReader(path, bufferSize)) {
+            if (csv && reader.readLine() != null) {
+                lineNumber++;
+            }
+            StringBuilder pending = new StringBuilder(); // Lines of a record with an open quote
+            long pendingLine = 0;
+            boolean openQuote = false;
+            boolean done = false;
+            while (!done) {
+                stage.waitFor(inFlight);
+                long busyStart = System.nanoTime();
+                Batch batch = new Batch(sequence, batchSize);
+                String line;
+                while (batch.size < batchSize) {
+                    if ((line = reader.readLine()) == null) {
+                        if (pending.length() > 0) {
+                            batch.add(pending.toString(), pendingLine); // Unterminated quote at end of file
+                        }
+                        done = true;
+                        break;
+                    }
+                    lineNumber++;
+                    if (csv && (openQuote || hasOddQuotes(line))) {
+                        if (!openQuote) {
+                            pendingLine = lineNumber;
+                        } else {
+                            pending.append('\n');
+                        }
+                        pending.append(line);
+                        openQuote = hasOddQuotes(pending);
+                        if (!openQuote) {
+                            batch.add(pending.toString(), pendingLine);
+                            pending.setLength(0);
+                        }
+                        continue;
+                    }
+                    if (!line.isBlank()) {
+                        batch.add(line, lineNumber);
+                    }
+                }
+                stage.busy(busyStart, batch.size);
+                if (batch.size > 0) {
+                    lines.put(batch);
+                    sequence++;
+                } else {
+                    inFlight.release();
+                }
+            }
+        } finally {
+            for (int i = 0; i < parsers; i++) {
+                lines.offer(END);
+            }
+        }
+    }
+
+    private static boolean hasOddQuotes(CharSequence text) {
+        boolean odd = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                odd = !odd;
+            }
+        }
+        return odd;
+    }
+
+    /**
+     * Parser stage: parses whole batches until the reader's end marker. Rejected records are
+     * left out of the batch and added to the batch's own error report, as are warnings.
+     * @param plan column plan of a CSV file, null for JSON Lines
+     */
+    private void parse(boolean json, ColumnPlan<StudentRecord.Values> plan, BlockingQueue<Batch> lines, BlockingQueue<Batch> parsed, Stage stage) {
+        CsvTokenizer row = new CsvTokenizer();
+        JsonReader reader = new JsonReader();
+        Map<String, Course> courses = dataStore.getCourses();
+        try {
+            while (true) {
+                Batch batch = stage.take(lines);
+                if (batch == END) {
+                    return;
+                }
+                long busyStart = System.nanoTime();
+                batch.parsed = new ArrayList<>(batch.size);
+                ImportErrorReport errors = batch.errors();
+                for (int i = 0; i < batch.size; i++) {
+                    String record = batch.lines[i];
+                    try {
+                        errors.startRecord(batch.lineNumbers[i], record);
+                        batch.parsed.add(json
+                                ? JsonLinesCodec.readStudent(reader.reset(record), courses, errors)
+                                : StudentRecord.parse(row.reset(record), plan, courses, errors));
+                        batch.parsedLines[batch.parsed.size() - 1] = batch.lineNumbers[i];
+                    } catch (Exception e) {
+                        int column = json ? reader.column() : row.lastDecodedField() + 1;
+                        errors.add(batch.lineNumbers[i], column, e, record);
+                    }
+                }
+                stage.busy(busyStart, batch.size);
+                parsed.put(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            parsed.offer(END);
+        }
+    }
+
+    /**
+     * Insert stage: restores file order through a reorder buffer and inserts each batch in bulk.
+     * @return the number of students inserted
+     */
+    private long insert(BlockingQueue<Batch> parsed, Semaphore inFlight, Stage stage, ImportErrorReport errors)
+            throws InterruptedException {
+        Map<Long, Batch> reorder = new HashMap<>(); // Batches that arrived ahead of their turn
+        long next = 0;
+        long count = 0;
+        int ended = 0;
+        while (ended < parsers) {
+            Batch batch = stage.take(parsed);
+            if (batch == END) {
+                ended++;
+                continue;
+            }
+            reorder.put(batch.sequence, batch);
+            for (Batch ready = reorder.remove(next); ready != null; ready = reorder.remove(++next)) {
+                long busyStart = System.nanoTime();
+                List<StudentRecord> records = ready.parsed;
+                int firstId = IdGenerator.reserveStudentIds(records.size());
+                List<Student> students = new ArrayList<>(records.size());
+                for (int i = 0; i < records.size(); i++) {
+                    try {
+                        students.add(records.get(i).toStudent(firstId + students.size(), dataStore));
+                    } catch (Exception e) {
+                        ready.errors().add(ready.parsedLines[i], 0, e, records.get(i).fullName);
+                    }
+                }
+                IdGenerator.releaseStudentIds(firstId + students.size(), records.size() - students.size());
+                dataStore.addStudents(students);
+                if (ready.errors != null) {
+                    errors.addAll(ready.errors, 0);
+                }
+                count += students.size();
+                stage.busy(busyStart, ready.size);
+                inFlight.release();
+            }
+        }
+        return count;
+    }
+
+    private void report(Path path, long count, long elapsedNanos, Stage... stages) {
+        double millis = elapsedNanos / 1_000_000.0;
+        System.out.println("Students imported successfully from " + path.getFileName() + " (" + count + " records processed)");
+        System.out.printf("  Pipelined import: %d parser threads, batches of %d, in %.0f ms (%.0f records/s)%n",
+                parsers, batchSize, millis, count / Math.max(millis / 1000, 1e-9));
+        for (Stage stage : stages) {
+            System.out.println("  - " + stage);
+        }
+    }
+
+    /**
+     * A batch of consecutive records, numbered in file order.
+     */
+    private static final class Batch {
+        final long sequence;
+        final String[] lines;
+        final long[] lineNumbers; // Line of the file on which each record starts
+        final long[] parsedLines; // Line of each parsed record
+        int size;
+        List<StudentRecord> parsed; // Set by the parser stage
+        ImportErrorReport errors; // Rejected records and warnings, created on first use
+
+        Batch(long sequence, int capacity) {
+            this.sequence = sequence;
+            this.lines = new String[capacity];
+            this.lineNumbers = new long[capacity];
+            this.parsedLines = new long[capacity];
+        }
+
+        ImportErrorReport errors() {
+            if (errors == null) {
+                errors = new ImportErrorReport("student", Integer.MAX_VALUE);
+            }
+            return errors;
+        }
+
+        void add(String line, long lineNumber) {
+            lines[size] = line;
+            lineNumbers[size++] = lineNumber;
+        }
+    }
+
+    /**
+     * Throughput of one stage: busy time is spent on records, waiting time on an empty
+     * input queue (starved) or on a full window (held back). Summed over a stage's threads.
+     */
+    private static final class Stage {
+        private final String name;
+        private final AtomicLong records = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicLong waitNanos = new AtomicLong();
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        Batch take(BlockingQueue<Batch> queue) throws InterruptedException {
+            long waitStart = System.nanoTime();
+            Batch batch = queue.take();
+            waitNanos.addAndGet(System.nanoTime() - waitStart);
+            return batch;
+        }
+
+        void waitFor(Semaphore permits) throws InterruptedException {
+            long waitStart = System.nanoTime();
+            permits.acquire();
+            waitNanos.addAndGet(System.nanoTime() - waitStart);
+        }
+
+        void busy(long busyStart, int batchRecords) {
+            busyNanos.addAndGet(System.nanoTime() - busyStart);
+            records.addAndGet(batchRecords);
+        }
+
+        @Override
+        public String toString() {
+            double busyMillis = busyNanos.get() / 1_000_000.0;
+            return String.format("%-6s %d records, busy %.0f ms (%.0f records/s), waiting %.0f ms",
+                    name + ":", records.get(), busyMillis, records.get() / Math.max(busyMillis / 1000, 1e-9),
+                    waitNanos.get() / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.enrollment.Enrollment;
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.exception.InvalidHeaderException;
+import edu.ccrm.exception.InvalidRecordException;
+import edu.ccrm.exception.InvalidRecordException.Reason;
+import edu.ccrm.service.DataStore;
+import edu.ccrm.util.Validator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One parsed row of a students CSV file.
+ * Parsing validates every column up front and touches no shared state, so rows can be
+ * parsed on any thread; the student itself is created afterwards, once its ID is known.
+ * Columns are found by name through a ColumnPlan compiled from the file's header, so
+ * they may come in any order; FullName, Email and RegistrationDate are required, and
+ * ID, RegNo and GPA are ignored (they are derived on import).
+ */
+final class StudentRecord {
+    /**
+     * Column order of exported files, also assumed for files whose header has no known names.
+     */
+    static final String HEADER = "ID,FullName,Email,RegistrationDate,Status,RegNo,BirthDate,GraduationDate,LastLoginDate,EnrolledCourses,GPA";
+
+    private static final Student.Status[] STATUSES = Student.Status.values();
+
+    private static final List<ColumnPlan.Column<Values>> COLUMNS = List.of(
+            new ColumnPlan.Column<Values>("FullName", true, (row, i, v) -> v.fullName = row.getString(i), "Name"),
+            new ColumnPlan.Column<Values>("Email", true, (row, i, v) -> v.email = row.getString(i)),
+            new ColumnPlan.Column<Values>("RegistrationDate", true, (row, i, v) -> v.registrationDate = row.getDate(i)),
+            new ColumnPlan.Column<Values>("Status", false, (row, i, v) -> {
+                v.status = row.getEnum(i, STATUSES);
+                v.invalidStatus = (v.status == null) ? row.getString(i) : null;
+            }),
+            new ColumnPlan.Column<Values>("BirthDate", false, (row, i, v) -> v.birthDate = row.getDate(i), "DOB", "DateOfBirth"),
+            new ColumnPlan.Column<Values>("GraduationDate", false, (row, i, v) -> v.graduationDate = row.getDate(i)),
+            new ColumnPlan.Column<Values>("LastLoginDate", false, (row, i, v) -> v.lastLoginDate = row.getDateTime(i), "LastLogin"),
+            new ColumnPlan.Column<Values>("EnrolledCourses", false, (row, i, v) -> v.courseGrades = row.getString(i),
+                    "CourseGrades", "Grades"));
+
+    final String fullName;
+    final String email;
+    final LocalDate registrationDate;
+    final LocalDate birthDate; // May be null
+    final Student.Status status; // Null keeps the default (ACTIVE)
+    final LocalDate graduationDate; // May be null
+    final LocalDateTime lastLoginDate; // May be null
+    final String courseGrades; // May be null
+    final List<EnrollmentRecord> enrollments; // Nested enrollments of a JSON Lines record; may be null
+
+    StudentRecord(String fullName, String email, LocalDate registrationDate, LocalDate birthDate,
+                  Student.Status status, LocalDate graduationDate, LocalDateTime lastLoginDate,
+                  String courseGrades, List<EnrollmentRecord> enrollments) {
+        this.fullName = fullName;
+        this.email = email;
+        this.registrationDate = registrationDate;
+        this.birthDate = birthDate;
+        this.status = status;
+        this.graduationDate = graduationDate;
+        this.lastLoginDate = lastLoginDate;
+        this.courseGrades = courseGrades;
+        this.enrollments = enrollments;
+    }
+
+    /**
+     * Field values of one row, filled in by the plan's decoders.
+     */
+    static final class Values {
+        private String fullName = "";
+        private String email = "";
+        private LocalDate registrationDate;
+        private LocalDate birthDate;
+        private Student.Status status;
+        private String invalidStatus;
+        private LocalDate graduationDate;
+        private LocalDateTime lastLoginDate;
+        private String courseGrades;
+    }
+
+    /**
+     * Compiles the column plan for a file, once per import.
+     * @param header the file's first line (null if it is empty)
+     * @throws InvalidHeaderException if a required column is missing
+     */
+    static ColumnPlan<Values> plan(String header, String file) throws InvalidHeaderException {
+        return ColumnPlan.compile(header, HEADER, COLUMNS, file);
+    }
+
+    /**
+     * An unknown status (replaced by ACTIVE) and the EnrolledCourses pairs the import leaves
+     * out (an unknown course or grade) are reported as warnings.
+     * @param courses known courses by code
+     * @param warnings report of the import, positioned at this row (see ImportErrorReport.startRecord)
+     * @throws InvalidRecordException if required columns are missing; other runtime exceptions for unparsable values
+     */
+    static StudentRecord parse(CsvTokenizer row, ColumnPlan<Values> plan, Map<String, Course> courses,
+                               ImportErrorReport warnings) {
+        Values v = decode(row, plan);
+        if (v.invalidStatus != null) {
+            warnings.warn(Reason.DEFAULT_USED, plan.fieldOf("Status"),
+                    "Invalid status '" + v.invalidStatus + "' for student " + v.fullName + ". Using default ACTIVE status.");
+        }
+        checkCourseGrades(v.courseGrades, courses, plan.fieldOf("EnrolledCourses"), warnings);
+        return new StudentRecord(v.fullName, v.email, v.registrationDate, v.birthDate, v.status,
+                v.graduationDate, v.lastLoginDate, v.courseGrades, null);
+    }
+
+    /**
+     * Stricter parse for a dry run: also rejects what an import only warns about or skips
+     * (an unknown status, an unknown course or grade in EnrolledCourses) and an invalid email.
+     * Creates nothing.
+     * @param courses known courses by code
+     * @throws InvalidRecordException for the first problem found; other runtime exceptions for unparsable values
+     */
+    static void validate(CsvTokenizer row, ColumnPlan<Values> plan, Map<String, Course> courses) {
+        Values v = decode(row, plan);
+        checkStrict(v.email, plan.fieldOf("Email"), v.invalidStatus, plan.fieldOf("Status"));
+        checkCourseGrades(v.courseGrades, courses, plan.fieldOf("EnrolledCourses"), null);
+    }
+
+    /**
+     * Checks the course:grade pairs of EnrolledCourses; malformed pairs are ignored, as by the import.
+     * @param warnings where a pair with an unknown course or grade is reported, or null to reject the record instead
+     */
+    private static void checkCourseGrades(String courseGrades, Map<String, Course> courses, int field, ImportErrorReport warnings) {
+        if (courseGrades == null) {
+            return;
+        }
+        for (String pair : courseGrades.split(";")) {
+            String[] parts = pair.split(":");
+            if (parts.length != 2) {
+                continue;
+            }
+            String code = parts[0].trim();
+            if (!courses.containsKey(code)) {
+                if (warnings == null) {
+                    throw new InvalidRecordException(Reason.UNKNOWN_REFERENCE, field, "Invalid student record (unknown course '" + code + "')");
+                }
+                warnings.warn(Reason.VALUE_SKIPPED, field, "Course not found: " + code);
+                continue;
+            }
+            try {
+                Grade.valueOf(parts[1].trim());
+            } catch (IllegalArgumentException e) {
+                if (warnings == null) {
+                    throw new InvalidRecordException(Reason.INVALID_VALUE, field,
+                            "Invalid student record (unknown grade '" + parts[1].trim() + "' for course " + code + ")");
+                }
+                warnings.warn(Reason.VALUE_SKIPPED, field, "Invalid grade '" + parts[1].trim() + "' for course " + code);
+            }
+        }
+    }
+
+    /**
+     * Dry-run checks shared with JSON Lines records.
+     * @param invalidStatus the status as given if it is not a known one, otherwise null
+     * @param emailField field number of the email for the error report, 0 if unknown
+     */
+    static void checkStrict(String email, int emailField, String invalidStatus, int statusField) {
+        if (!Validator.isValidEmail(email)) {
+            throw new InvalidRecordException(Reason.INVALID_VALUE, emailField, "Invalid student record (invalid email '" + email + "')");
+        }
+        if (invalidStatus != null) {
+            throw new InvalidRecordException(Reason.INVALID_VALUE, statusField, "Invalid student record (unknown status '" + invalidStatus + "')");
+        }
+    }
+
+    // Decodes a row and checks the required values
+    private static Values decode(CsvTokenizer row, ColumnPlan<Values> plan) {
+        if (row.fieldCount() < plan.requiredWidth()) {
+            throw new InvalidRecordException(Reason.MISSING_COLUMNS, row.fieldCount() + 1, "Invalid student record (insufficient columns)");
+        }
+
+        Values v = new Values();
+        plan.decode(row, v);
+        if (v.fullName.isEmpty() || v.email.isEmpty()) {
+            throw new InvalidRecordException(Reason.MISSING_VALUE, plan.fieldOf(v.fullName.isEmpty() ? "FullName" : "Email"),
+                    "Invalid student record (missing name or email)");
+        }
+        if (v.registrationDate == null) {
+            throw new InvalidRecordException(Reason.MISSING_VALUE, plan.fieldOf("RegistrationDate"),
+                    "Invalid student record (missing registration date)");
+        }
+        return v;
+    }
+
+    /**
+     * Creates the student with a pre-assigned ID (bulk import) and applies the remaining columns.
+     */
+    Student toStudent(int id, DataStore dataStore) {
+        Student student = (birthDate != null)
+                ? new Student(id, DataStore.registrationNumberFor(id), fullName, email, registrationDate, birthDate)
+                : new Student(id, DataStore.registrationNumberFor(id), fullName, email, registrationDate);
+        applyTo(student, dataStore);
+        return student;
+    }
+
+    /**
+     * Applies status, dates, course grades (with their enrollments) and nested enrollments to a newly created student.
+     */
+    void applyTo(Student student, DataStore dataStore) {
+        if (status != null) {
+            student.setStatus(status);
+        }
+        if (graduationDate != null) {
+            student.setGraduationDate(graduationDate);
+        }
+        if (lastLoginDate != null) {
+            student.setLastLoginDate(lastLoginDate);
+        }
+        if (courseGrades != null) {
+            student.setCourseGradesFromString(courseGrades);
+            createEnrollmentsFromGrades(student, dataStore);
+        }
+        if (enrollments != null) {
+            List<Enrollment> loaded = new ArrayList<>(enrollments.size());
+            for (EnrollmentRecord record : enrollments) {
+                loaded.add(record.toEnrollment());
+            }
+            student.loadEnrollments(loaded);
+        }
+    }
+
+    /**
+     * Create enrollment objects for a student based on their course grades.
+     * Grades of unknown courses were reported when the row was parsed and are skipped here.
+     */
+    private static void createEnrollmentsFromGrades(Student student, DataStore dataStore) {
+        for (Map.Entry<String, Grade> entry : student.getCourseGrades().entrySet()) {
+            String courseCode = entry.getKey();
+            Grade grade = entry.getValue();
+
+            Course course = dataStore.findCourseByCode(courseCode).orElse(null);
+            if (course != null) {
+                // Create an enrollment for this course
+                Enrollment enrollment = new Enrollment(course, course.getSemester());
+                enrollment.setGrade(grade);
+
+                // Calculate marks from grade (approximate)
+                enrollment.setMarks(calculateMarksFromGrade(grade));
+
+                // Add enrollment to student
+                student.addEnrollment(enrollment);
+            }
+        }
+    }
+
+    /**
+     * Calculate approximate marks from grade
+     */
+    private static double calculateMarksFromGrade(Grade grade) {
+        switch (grade) {
+            case S: return 95.0;
+            case A: return 85.0;
+            case B: return 75.0;
+            case C: return 65.0;
+            case D: return 55.0;
+            case F: return 35.0;
+            default: return -1.0;
+        }
+    }
+}
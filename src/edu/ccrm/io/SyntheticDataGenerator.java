@@ -0,0 +1,363 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.service.DataStore;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes a synthetic, reproducible dataset for scale and load testing: courses.csv,
+ * students.csv and enrollments.csv (with .gz appended if compressed), in the import layouts.
+ * Courses have valid codes (department prefix and number), departments, semesters and
+ * instructors. Students are rendered in fixed-size blocks, each with its own random stream
+ * derived from the seed and the block number, so the output depends only on the seed and
+ * the sizes, never on the number of threads. Blocks are rendered in parallel and written
+ * in order, with a bounded number in flight, so memory use does not depend on the row count.
+ * Enrollments follow a Zipf distribution over the courses (a few courses are very popular,
+ * most are not); marks are bell-shaped and grades follow from the marks.
+ * StudentID in enrollments.csv is the row number of the student, i.e. the ID the student
+ * gets when students.csv is imported into an empty store.
+ */
+public final class SyntheticDataGenerator {
+    private static final String[][] DEPARTMENTS = {
+            {"CS", "Computer Science"}, {"MATH", "Mathematics"}, {"PHYS", "Physics"}, {"CHEM", "Chemistry"},
+            {"BIO", "Biology"}, {"ENG", "English"}, {"HIST", "History"}, {"ECON", "Economics"},
+            {"PSY", "Psychology"}, {"EE", "Electrical Engineering"}, {"ME", "Mechanical Engineering"}, {"ART", "Fine Arts"}};
+    private static final String[] TOPICS = {
+            "Introduction to", "Foundations of", "Principles of", "Topics in", "Advanced", "Applied",
+            "Seminar in", "Methods in", "Theory of", "Laboratory in"};
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Priya", "Arjun",
+            "Wei", "Mei", "Hiroshi", "Yuki", "Carlos", "Sofia", "Ahmed", "Fatima", "Olga", "Ivan",
+            "Kwame", "Amara", "Liam", "Emma", "Noah", "Olivia", "Lucas", "Chloe", "Mateo", "Zoe"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee",
+            "Sharma", "Patel", "Wang", "Chen", "Tanaka", "Sato", "Silva", "Khan", "Ivanova", "Okafor",
+            "O'Brien", "Van der Berg", "Nguyen", "Kim", "Muller", "Rossi", "Dubois", "Kowalski", "Haddad", "Mensah"};
+    private static final String[] DOMAINS = {"example.edu", "university.edu", "campus.example.org"};
+    private static final LocalDate FIRST_REGISTRATION = LocalDate.of(2019, 8, 1);
+    private static final int REGISTRATION_DAYS = 6 * 365;
+    private static final String ENROLLMENT_HEADER = "StudentID,CourseCode,Semester,Grade,Credits,EnrollmentDate,Marks";
+    private static final int MAX_COURSE_NUMBERS = 9000; // 1000-9999 per department
+
+    /**
+     * Sizes of a generated dataset.
+     */
+    public record Summary(int students, int courses, long enrollments, long bytes) {
+    }
+
+    private final long seed;
+    private final int students;
+    private final int courses;
+    private final int enrollmentsPerStudent;
+    private final double skew;
+    private final int blockSize;
+    private final int parallelism;
+    private final boolean compress;
+
+    private SyntheticDataGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.students = builder.students;
+        this.courses = builder.courses;
+        this.enrollmentsPerStudent = builder.enrollmentsPerStudent;
+        this.skew = builder.skew;
+        this.blockSize = builder.blockSize;
+        this.parallelism = (builder.parallelism == 0) ? Runtime.getRuntime().availableProcessors() : builder.parallelism;
+        this.compress = builder.compress;
+    }
+
+    /**
+     * Writes the three files into dir (created if needed), replacing existing ones.
+     */
+    public Summary generate(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        String suffix = compress ? CsvFiles.GZIP_SUFFIX : "";
+        Path coursesFile = dir.resolve("courses.csv" + suffix);
+        Path studentsFile = dir.resolve("students.csv" + suffix);
+        Path enrollmentsFile = dir.resolve("enrollments.csv" + suffix);
+
+        CourseRow[] catalog = courseCatalog();
+        try (CsvWriter csv = new CsvWriter(CsvFiles.newWriter(coursesFile, compress, 65536, -1), 65536)) {
+            csv.header(CourseRecord.HEADER);
+            for (CourseRow course : catalog) {
+                csv.field(course.code).field(course.title).field(course.credits).field(course.department)
+                   .field(course.semester.name()).field(course.instructorName).field(course.instructorEmail)
+                   .field(String.valueOf(course.active)).endRow();
+            }
+        }
+
+        long enrollments = 0;
+        double[] popularity = zipfCdf(catalog.length, skew);
+        int[] byRank = shuffledIndexes(catalog.length, new SplittableRandom(seed));
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try (Writer studentOut = CsvFiles.newWriter(studentsFile, compress, 65536, -1);
+             Writer enrollmentOut = CsvFiles.newWriter(enrollmentsFile, compress, 65536, -1)) {
+            studentOut.write(StudentRecord.HEADER + System.lineSeparator());
+            enrollmentOut.write(ENROLLMENT_HEADER + System.lineSeparator());
+
+            // Render ahead by at most two blocks per thread; write strictly in block order
+            Deque<Future<Block>> inFlight = new ArrayDeque<>();
+            int blocks = (int) ((students + (long) blockSize - 1) / blockSize);
+            for (int b = 0; b < blocks || !inFlight.isEmpty(); ) {
+                if (b < blocks && inFlight.size() < 2 * parallelism) {
+                    int first = b * blockSize;
+                    int count = Math.min(blockSize, students - first);
+                    long blockSeed = mix64(seed + (b + 1) * 0x9E3779B97F4A7C15L);
+                    inFlight.add(executor.submit(() -> renderBlock(first, count, blockSeed, catalog, popularity, byRank)));
+                    b++;
+                    continue;
+                }
+                Block block = inFlight.poll().get();
+                studentOut.write(block.students);
+                enrollmentOut.write(block.enrollments);
+                enrollments += block.enrollmentCount;
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to render synthetic data: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating synthetic data", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long bytes = Files.size(coursesFile) + Files.size(studentsFile) + Files.size(enrollmentsFile);
+        return new Summary(students, catalog.length, enrollments, bytes);
+    }
+
+    private record CourseRow(String code, String title, int credits, String department, Semester semester,
+                             String instructorName, String instructorEmail, boolean active) {
+    }
+
+    private record Block(String students, String enrollments, long enrollmentCount) {
+    }
+
+    // Courses are spread round-robin over the departments, numbered 101, 102, ... within each
+    private CourseRow[] courseCatalog() {
+        SplittableRandom random = new SplittableRandom(mix64(seed));
+        CourseRow[] catalog = new CourseRow[courses];
+        for (int i = 0; i < courses; i++) {
+            String[] department = DEPARTMENTS[i % DEPARTMENTS.length];
+            int number = 101 + i / DEPARTMENTS.length;
+            int level = Math.min(number / 100, 4);
+            String topic = TOPICS[random.nextInt(TOPICS.length)];
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            catalog[i] = new CourseRow(department[0] + number,
+                    topic + " " + department[1] + (level > 1 ? " " + romanLevel(level) : ""),
+                    1 + random.nextInt(4), department[1], Semester.values()[random.nextInt(Semester.values().length)],
+                    "Dr. " + first + " " + last,
+                    emailLocalPart(first) + "." + emailLocalPart(last) + "@university.edu",
+                    random.nextInt(20) != 0);
+        }
+        return catalog;
+    }
+
+    private Block renderBlock(int first, int count, long blockSeed, CourseRow[] catalog, double[] popularity,
+                              int[] byRank) throws IOException {
+        SplittableRandom random = new SplittableRandom(blockSeed);
+        StringWriter studentText = new StringWriter(count * 160);
+        StringWriter enrollmentText = new StringWriter(count * enrollmentsPerStudent * 48);
+        long enrollmentCount = 0;
+        Set<Integer> taken = new HashSet<>();
+        try (CsvWriter studentCsv = new CsvWriter(studentText, 8192);
+             CsvWriter enrollmentCsv = new CsvWriter(enrollmentText, 8192)) {
+            for (int i = 0; i < count; i++) {
+                int id = first + i + 1;
+                String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                // One in twenty names is written "Last, First", which needs quoting
+                String fullName = (random.nextInt(20) == 0) ? lastName + ", " + firstName : firstName + " " + lastName;
+                String email = emailLocalPart(firstName) + "." + emailLocalPart(lastName) + id + "@"
+                        + DOMAINS[random.nextInt(DOMAINS.length)];
+                LocalDate registered = FIRST_REGISTRATION.plusDays(random.nextInt(REGISTRATION_DAYS));
+                LocalDate born = registered.minusYears(17 + random.nextInt(9)).minusDays(random.nextInt(365));
+                int roll = random.nextInt(10);
+                Student.Status status = (roll < 8) ? Student.Status.ACTIVE
+                        : (roll == 8) ? Student.Status.INACTIVE : Student.Status.GRADUATED;
+                LocalDate graduated = (status == Student.Status.GRADUATED) ? registered.plusYears(4) : null;
+                LocalDateTime lastLogin = registered.plusDays(random.nextInt(365))
+                        .atTime(7 + random.nextInt(15), random.nextInt(60), random.nextInt(60));
+
+                studentCsv.field(id).field(fullName).field(email).field(registered.toString()).field(status.name())
+                          .field(DataStore.registrationNumberFor(id)).field(born.toString())
+                          .field(graduated != null ? graduated.toString() : "").field(lastLogin.toString())
+                          .field("").field("").endRow();
+
+                // Between 0 and twice the mean, distinct courses drawn by popularity
+                int wanted = (enrollmentsPerStudent == 0) ? 0 : random.nextInt(2 * enrollmentsPerStudent + 1);
+                wanted = Math.min(wanted, catalog.length);
+                taken.clear();
+                for (int attempts = 0; taken.size() < wanted && attempts < 4 * wanted; attempts++) {
+                    int rank = Arrays.binarySearch(popularity, random.nextDouble());
+                    int index = byRank[Math.min((rank >= 0) ? rank : -rank - 1, catalog.length - 1)];
+                    if (!taken.add(index)) {
+                        continue;
+                    }
+                    CourseRow course = catalog[index];
+                    double marks = 30 + random.nextInt(36) + random.nextInt(36); // 30-100, peak at 65
+                    enrollmentCsv.field(id).field(course.code).field(course.semester.name())
+                                 .field(Grade.fromMarks(marks).name()).field(course.credits)
+                                 .field(registered.plusDays(random.nextInt(30)).toString())
+                                 .field(String.valueOf(marks)).endRow();
+                    enrollmentCount++;
+                }
+            }
+        }
+        return new Block(studentText.toString(), enrollmentText.toString(), enrollmentCount);
+    }
+
+    // Cumulative probabilities of ranks 0..n-1 with weight 1/(rank+1)^skew
+    private static double[] zipfCdf(int n, double skew) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += 1 / Math.pow(rank + 1, skew);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= total;
+        }
+        return cdf;
+    }
+
+    // Which course has which popularity rank, so popular courses are spread over the departments
+    private static int[] shuffledIndexes(int n, SplittableRandom random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    private static String emailLocalPart(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetter(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static String romanLevel(int level) {
+        return switch (level) {
+            case 2 -> "II";
+            case 3 -> "III";
+            default -> "IV";
+        };
+    }
+
+    // Finalizer of SplitMix64: nearby inputs give unrelated seeds
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Builder for a generator; the defaults give a small dataset (10 000 students, 200 courses).
+     */
+    public static class Builder {
+        private long seed = 42;
+        private int students = 10_000;
+        private int courses = 200;
+        private int enrollmentsPerStudent = 4;
+        private double skew = 1.1;
+        private int blockSize = 8192;
+        private int parallelism = 0;
+        private boolean compress;
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder students(int students) {
+            this.students = students;
+            return this;
+        }
+
+        public Builder courses(int courses) {
+            this.courses = courses;
+            return this;
+        }
+
+        /**
+         * Mean number of enrollments per student; each student gets between 0 and twice as many.
+         */
+        public Builder enrollmentsPerStudent(int enrollmentsPerStudent) {
+            this.enrollmentsPerStudent = enrollmentsPerStudent;
+            return this;
+        }
+
+        /**
+         * Zipf exponent of course popularity: 0 is uniform, larger values concentrate on fewer courses.
+         */
+        public Builder skew(double skew) {
+            this.skew = skew;
+            return this;
+        }
+
+        /**
+         * Students per block, the unit of parallel rendering. Part of the dataset's identity:
+         * the same seed with another block size gives other data.
+         */
+        public Builder blockSize(int blockSize) {
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * @param parallelism number of rendering threads; 0 uses all available processors
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder compress(boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        public SyntheticDataGenerator build() {
+            if (students < 0 || courses < 1 || enrollmentsPerStudent < 0 || skew < 0 || blockSize < 1 || parallelism < 0) {
+                throw new IllegalArgumentException("Invalid generator settings: students=" + students + ", courses=" + courses
+                        + ", enrollmentsPerStudent=" + enrollmentsPerStudent + ", skew=" + skew
+                        + ", blockSize=" + blockSize + ", parallelism=" + parallelism);
+            }
+            if (courses > DEPARTMENTS.length * MAX_COURSE_NUMBERS) {
+                throw new IllegalArgumentException("At most " + DEPARTMENTS.length * MAX_COURSE_NUMBERS + " courses, got: " + courses);
+            }
+            return new SyntheticDataGenerator(this);
+        }
+    }
+}
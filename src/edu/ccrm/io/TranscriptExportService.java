@@ -0,0 +1,279 @@
+package edu.ccrm.io;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.Transcript;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.service.DataStore;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Batch job that renders transcripts for a population of students and writes them to files.
+ * Every transcript is rendered on its own virtual thread, and the number of rendered
+ * transcripts waiting to be written is bounded by transcript.export.window. Output is
+ * either one file per student, with concurrent file writes bounded by a semaphore
+ * (transcript.export.io.concurrency), or a single combined file written in student ID
+ * order through one buffered channel.
+ */
+public class TranscriptExportService {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    public enum Kind { OFFICIAL, UNOFFICIAL, SEMESTER }
+
+    private final DataStore dataStore;
+    private final Path outputDir;
+    private final int ioConcurrency;
+    private final int window;
+
+    public TranscriptExportService(DataStore dataStore) {
+        AppConfig config = AppConfig.getInstance();
+        this.dataStore = dataStore;
+        this.outputDir = Paths.get(config.getDataDirectory())
+                .resolve(config.getProperty("transcript.export.directory", "transcripts"));
+        this.ioConcurrency = Math.max(1, config.getIntProperty("transcript.export.io.concurrency", 16));
+        this.window = Math.max(1, config.getIntProperty("transcript.export.window", 256));
+    }
+
+    /**
+     * Outcome of one export run.
+     */
+    public static final class Result {
+        private final int selected;
+        private final long written;
+        private final long bytes;
+        private final long elapsedNanos;
+        private final List<String> failures;
+
+        Result(int selected, long written, long bytes, long elapsedNanos, List<String> failures) {
+            this.selected = selected;
+            this.written = written;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+            this.failures = failures;
+        }
+
+        public int getSelected() { return selected; }
+        public long getWritten() { return written; }
+        public long getBytes() { return bytes; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public List<String> getFailures() { return failures; }
+    }
+
+    /**
+     * Writes one file per selected student (e.g. R2025001_official.txt) into the transcript directory.
+     * @param semester the semester for SEMESTER transcripts, ignored otherwise
+     */
+    public Result exportPerStudent(Kind kind, Semester semester, Predicate<Student> selection) {
+        List<Student> students = select(selection);
+        Progress progress = new Progress(students.size());
+        Semaphore ioPermits = new Semaphore(ioConcurrency);
+        Semaphore inFlight = new Semaphore(window);
+        String suffix = "_" + kind.name().toLowerCase() + ".txt";
+        long start = System.nanoTime();
+
+        try {
+            Files.createDirectories(outputDir);
+        } catch (IOException e) {
+            System.err.println("Error creating transcript directory " + outputDir + ": " + e.getMessage());
+            return new Result(students.size(), 0, 0, 0, List.of(e.getMessage()));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Student student : students) {
+                inFlight.acquireUninterruptibly();
+                executor.submit(() -> {
+                    try {
+                        ByteBuffer bytes = render(kind, semester, student);
+                        ioPermits.acquireUninterruptibly();
+                        try (FileChannel channel = FileChannel.open(outputDir.resolve(student.getRegNo() + suffix),
+                                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                            progress.written(writeFully(channel, bytes));
+                        } finally {
+                            ioPermits.release();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        progress.failed(student, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return progress.finish(System.nanoTime() - start, outputDir);
+    }
+
+    /**
+     * Writes all selected transcripts into one file, in student ID order, separated by blank lines.
+     * Rendering runs ahead of the (single, ordered) writer by at most transcript.export.window transcripts.
+     */
+    public Result exportCombined(Kind kind, Semester semester, Predicate<Student> selection, String filename) {
+        List<Student> students = select(selection);
+        Progress progress = new Progress(students.size());
+        Path target = outputDir.resolve(filename);
+        long start = System.nanoTime();
+
+        try {
+            Files.createDirectories(outputDir);
+        } catch (IOException e) {
+            System.err.println("Error creating transcript directory " + outputDir + ": " + e.getMessage());
+            return new Result(students.size(), 0, 0, 0, List.of(e.getMessage()));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             FileChannel channel = FileChannel.open(target,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            Deque<Student> order = new ArrayDeque<>();
+            Deque<Future<ByteBuffer>> renders = new ArrayDeque<>();
+            for (int i = 0; i <= students.size(); i++) {
+                // Write the oldest render once the window is full, and drain everything at the end
+                while (!renders.isEmpty() && (renders.size() >= window || i == students.size())) {
+                    Student student = order.poll();
+                    try {
+                        ByteBuffer bytes = renders.poll().get();
+                        long size = bytes.remaining() + 1;
+                        if (buffer.remaining() < size) {
+                            flush(channel, buffer);
+                        }
+                        if (buffer.remaining() < size) {
+                            writeFully(channel, bytes);
+                        } else {
+                            buffer.put(bytes);
+                        }
+                        buffer.put((byte) '\n');
+                        progress.written(size);
+                    } catch (ExecutionException e) {
+                        progress.failed(student, e.getCause());
+                    }
+                }
+                if (i < students.size()) {
+                    Student student = students.get(i);
+                    order.add(student);
+                    renders.add(executor.submit(() -> render(kind, semester, student)));
+                }
+            }
+            flush(channel, buffer);
+        } catch (IOException e) {
+            System.err.println("Error writing combined transcript file " + target + ": " + e.getMessage());
+            progress.abort(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.abort(e);
+        }
+        return progress.finish(System.nanoTime() - start, target);
+    }
+
+    private List<Student> select(Predicate<Student> selection) {
+        List<Student> students = new ArrayList<>();
+        for (Student student : dataStore.getStudents().values()) {
+            if (selection.test(student)) {
+                students.add(student);
+            }
+        }
+        students.sort(Comparator.comparingInt(Student::getId));
+        return students;
+    }
+
+    private static ByteBuffer render(Kind kind, Semester semester, Student student) {
+        Transcript transcript = switch (kind) {
+            case OFFICIAL -> Transcript.createOfficialTranscript(student);
+            case UNOFFICIAL -> Transcript.createUnnofficialTranscript(student);
+            case SEMESTER -> Transcript.createSemesterTranscript(student, semester);
+        };
+        StringBuilder sb = new StringBuilder(2048);
+        try {
+            transcript.writeTranscript(sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder does not throw
+        }
+        return StandardCharsets.UTF_8.encode(CharBuffer.wrap(sb));
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        long written = 0;
+        while (bytes.hasRemaining()) {
+            written += channel.write(bytes);
+        }
+        return written;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Shared counters plus a progress line at every 10% of the population.
+     */
+    private static final class Progress {
+        private final int total;
+        private final long step;
+        private final AtomicLong done = new AtomicLong();
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+        Progress(int total) {
+            this.total = total;
+            this.step = Math.max(1, total / 10);
+        }
+
+        void written(long size) {
+            written.incrementAndGet();
+            bytes.addAndGet(size);
+            advance();
+        }
+
+        void failed(Student student, Throwable error) {
+            failures.add("Student " + student.getId() + " (" + student.getRegNo() + "): " + error.getMessage());
+            advance();
+        }
+
+        void abort(Throwable error) {
+            failures.add("Export aborted: " + error.getMessage());
+        }
+
+        private void advance() {
+            long count = done.incrementAndGet();
+            if (count % step == 0 || count == total) {
+                System.out.printf("  Progress: %d/%d (%d%%)%n", count, total, count * 100 / total);
+            }
+        }
+
+        Result finish(long elapsedNanos, Path location) {
+            double seconds = Math.max(elapsedNanos, 1) / 1e9;
+            System.out.println("Transcript export complete:");
+            System.out.println("  - Selected: " + total + " students");
+            System.out.println("  - Written: " + written.get() + " transcripts");
+            System.out.printf("  - Throughput: %.0f transcripts/s, %.2f MB/s (%.2f s)%n",
+                    written.get() / seconds, bytes.get() / seconds / (1024 * 1024), seconds);
+            System.out.println("  - Failures: " + failures.size());
+            failures.stream().limit(10).forEach(f -> System.out.println("      " + f));
+            System.out.println("  - Location: " + location.toAbsolutePath());
+            return new Result(total, written.get(), bytes.get(), elapsedNanos, new ArrayList<>(failures));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package edu.ccrm.service;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.person.Student;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel report engine for campus-wide aggregates.
+ * A report snapshots the student set into an array and splits it recursively on a
+ * work-stealing ForkJoinPool. Each leaf range is aggregated into its own
+ * CampusStatistics with primitive counters, and the partial results are merged on the
+ * way back up, so no counter is shared between threads.
+ */
+public class CampusAnalytics implements AutoCloseable {
+    private final DataStore dataStore;
+    private final ForkJoinPool pool;
+    private final int leafSize;
+
+    public CampusAnalytics(DataStore dataStore) {
+        this(dataStore,
+             AppConfig.getInstance().getIntProperty("analytics.parallelism", 0),
+             AppConfig.getInstance().getIntProperty("analytics.leaf.size", 2048));
+    }
+
+    /**
+     * @param parallelism number of worker threads; 0 uses all available processors
+     * @param leafSize number of students a task aggregates without splitting further
+     */
+    public CampusAnalytics(DataStore dataStore, int parallelism, int leafSize) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Parallelism cannot be negative, got: " + parallelism);
+        }
+        if (leafSize < 1) {
+            throw new IllegalArgumentException("Leaf size must be positive, got: " + leafSize);
+        }
+        this.dataStore = dataStore;
+        this.pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+        this.leafSize = leafSize;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Computes all campus aggregates over the current students and courses.
+     */
+    public CampusStatistics compute() {
+        // Departments and courses get dense, sorted indexes so partitions can use plain arrays
+        TreeSet<String> departmentNames = new TreeSet<>();
+        TreeSet<String> codes = new TreeSet<>();
+        for (Course course : dataStore.getCourses().values()) {
+            departmentNames.add(course.getDepartment());
+            codes.add(course.getCourseCode().getCode());
+        }
+        String[] departments = departmentNames.toArray(new String[0]);
+        String[] courseCodes = codes.toArray(new String[0]);
+        CampusStatistics empty = new CampusStatistics(departments, indexOf(departments), courseCodes, indexOf(courseCodes));
+
+        Student[] students = dataStore.getStudents().values().toArray(new Student[0]);
+        return pool.invoke(new AggregateTask(students, 0, students.length, empty));
+    }
+
+    private static Map<String, Integer> indexOf(String[] names) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            index.put(names[i], i);
+        }
+        return index;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // Serializable only through RecursiveTask; tasks never leave the pool, so their state is transient
+    private final class AggregateTask extends RecursiveTask<CampusStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Student[] students;
+        private final int from;
+        private final int to;
+        private final transient CampusStatistics template;
+
+        AggregateTask(Student[] students, int from, int to, CampusStatistics template) {
+            this.students = students;
+            this.from = from;
+            this.to = to;
+            this.template = template;
+        }
+
+        @Override
+        protected CampusStatistics compute() {
+            if (to - from <= leafSize) {
+                CampusStatistics partial = template.newPartial();
+                for (int i = from; i < to; i++) {
+                    partial.addStudent(students[i]);
+                }
+                return partial;
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(students, from, mid, template);
+            left.fork();
+            CampusStatistics right = new AggregateTask(students, mid, to, template).compute();
+            CampusStatistics result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+}
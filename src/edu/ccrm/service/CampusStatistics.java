@@ -0,0 +1,200 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.enrollment.Enrollment;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Student;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Campus-wide aggregates produced by CampusAnalytics: GPA by department, credits by
+ * semester, pass/fail counts and enrollments per course.
+ * While a report is being computed each partition fills its own instance with primitive
+ * counters indexed by department and course position, and partial results are merged
+ * element-wise.
+ */
+public class CampusStatistics {
+    private static final int SEMESTERS = Semester.values().length;
+
+    private final String[] departments;
+    private final String[] courseCodes;
+    private final Map<String, Integer> departmentIndex;
+    private final Map<String, Integer> courseIndex;
+
+    private long students;
+    private long enrollments; // Not dropped
+    private long dropped;
+    private long passed;
+    private long failed;
+    private long ungraded;
+    private final double[] departmentQualityPoints;
+    private final long[] departmentGpaCredits;
+    private final long[] semesterCreditsAttempted = new long[SEMESTERS];
+    private final long[] semesterCreditsEarned = new long[SEMESTERS];
+    private final long[] courseEnrollments;
+    private final long[] coursePassed;
+    private final long[] courseFailed;
+
+    CampusStatistics(String[] departments, Map<String, Integer> departmentIndex,
+                     String[] courseCodes, Map<String, Integer> courseIndex) {
+        this.departments = departments;
+        this.departmentIndex = departmentIndex;
+        this.courseCodes = courseCodes;
+        this.courseIndex = courseIndex;
+        this.departmentQualityPoints = new double[departments.length];
+        this.departmentGpaCredits = new long[departments.length];
+        this.courseEnrollments = new long[courseCodes.length];
+        this.coursePassed = new long[courseCodes.length];
+        this.courseFailed = new long[courseCodes.length];
+    }
+
+    /**
+     * Empty partial result over the same department and course index.
+     */
+    CampusStatistics newPartial() {
+        return new CampusStatistics(departments, departmentIndex, courseCodes, courseIndex);
+    }
+
+    void addStudent(Student student) {
+        students++;
+        List<Enrollment> studentEnrollments = student.getEnrollments();
+        for (Enrollment enrollment : studentEnrollments) {
+            if (enrollment.isDropped()) {
+                dropped++;
+                continue;
+            }
+            enrollments++;
+            Integer course = courseIndex.get(enrollment.getCourse().getCourseCode().getCode());
+            if (course != null) {
+                courseEnrollments[course]++;
+            }
+            if (!enrollment.getGrade().countsTowardGPA()) {
+                ungraded++;
+            } else if (enrollment.getGrade().isPassing()) {
+                passed++;
+                if (course != null) coursePassed[course]++;
+            } else {
+                failed++;
+                if (course != null) courseFailed[course]++;
+            }
+            int semester = enrollment.getSemester().ordinal();
+            semesterCreditsAttempted[semester] += enrollment.getGPACredits();
+            semesterCreditsEarned[semester] += enrollment.getEarnedCredits();
+            Integer department = departmentIndex.get(enrollment.getCourse().getDepartment());
+            if (department != null) {
+                departmentQualityPoints[department] += enrollment.getQualityPoints();
+                departmentGpaCredits[department] += enrollment.getGPACredits();
+            }
+        }
+    }
+
+    void merge(CampusStatistics other) {
+        students += other.students;
+        enrollments += other.enrollments;
+        dropped += other.dropped;
+        passed += other.passed;
+        failed += other.failed;
+        ungraded += other.ungraded;
+        for (int i = 0; i < departments.length; i++) {
+            departmentQualityPoints[i] += other.departmentQualityPoints[i];
+            departmentGpaCredits[i] += other.departmentGpaCredits[i];
+        }
+        for (int i = 0; i < SEMESTERS; i++) {
+            semesterCreditsAttempted[i] += other.semesterCreditsAttempted[i];
+            semesterCreditsEarned[i] += other.semesterCreditsEarned[i];
+        }
+        for (int i = 0; i < courseCodes.length; i++) {
+            courseEnrollments[i] += other.courseEnrollments[i];
+            coursePassed[i] += other.coursePassed[i];
+            courseFailed[i] += other.courseFailed[i];
+        }
+    }
+
+    // Getters
+
+    public long getStudentCount() { return students; }
+    public long getEnrollmentCount() { return enrollments; }
+    public long getDroppedCount() { return dropped; }
+    public long getPassedCount() { return passed; }
+    public long getFailedCount() { return failed; }
+    public long getUngradedCount() { return ungraded; }
+
+    public List<String> getDepartments() {
+        return List.of(departments);
+    }
+
+    public List<String> getCourseCodes() {
+        return List.of(courseCodes);
+    }
+
+    /**
+     * Fraction of graded enrollments with a passing grade (0 when nothing is graded)
+     */
+    public double getPassRate() {
+        long graded = passed + failed;
+        return (graded > 0) ? (double) passed / graded : 0.0;
+    }
+
+    public double getFailRate() {
+        long graded = passed + failed;
+        return (graded > 0) ? (double) failed / graded : 0.0;
+    }
+
+    public double getDepartmentGpa(String department) {
+        Integer index = departmentIndex.get(department);
+        if (index == null || departmentGpaCredits[index] == 0) {
+            return 0.0;
+        }
+        return departmentQualityPoints[index] / departmentGpaCredits[index];
+    }
+
+    public long getCreditsAttempted(Semester semester) {
+        return semesterCreditsAttempted[semester.ordinal()];
+    }
+
+    public long getCreditsEarned(Semester semester) {
+        return semesterCreditsEarned[semester.ordinal()];
+    }
+
+    public long getCourseEnrollments(String courseCode) {
+        Integer index = courseIndex.get(courseCode);
+        return (index == null) ? 0 : courseEnrollments[index];
+    }
+
+    public double getCoursePassRate(String courseCode) {
+        Integer index = courseIndex.get(courseCode);
+        if (index == null) {
+            return 0.0;
+        }
+        long graded = coursePassed[index] + courseFailed[index];
+        return (graded > 0) ? (double) coursePassed[index] / graded : 0.0;
+    }
+
+    /**
+     * Compares two results for the same data. Counters must be equal; quality points may
+     * differ in the last bits because partitions add them in a different order.
+     */
+    public boolean matches(CampusStatistics other) {
+        if (students != other.students || enrollments != other.enrollments || dropped != other.dropped
+                || passed != other.passed || failed != other.failed || ungraded != other.ungraded
+                || !Arrays.equals(departments, other.departments)
+                || !Arrays.equals(courseCodes, other.courseCodes)
+                || !Arrays.equals(departmentGpaCredits, other.departmentGpaCredits)
+                || !Arrays.equals(semesterCreditsAttempted, other.semesterCreditsAttempted)
+                || !Arrays.equals(semesterCreditsEarned, other.semesterCreditsEarned)
+                || !Arrays.equals(courseEnrollments, other.courseEnrollments)
+                || !Arrays.equals(coursePassed, other.coursePassed)
+                || !Arrays.equals(courseFailed, other.courseFailed)) {
+            return false;
+        }
+        for (int i = 0; i < departments.length; i++) {
+            double a = departmentQualityPoints[i];
+            double b = other.departmentQualityPoints[i];
+            if (Math.abs(a - b) > 1e-9 * Math.max(1.0, Math.abs(a))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,6 +3,7 @@ package edu.ccrm.service;
 import edu.ccrm.domain.course.Course;
 import edu.ccrm.domain.enrollment.Semester;
 import edu.ccrm.domain.person.Instructor;
+import edu.ccrm.event.ChangeEvent;
 import edu.ccrm.exception.CourseNotFoundException;
 import java.util.List;
 import java.util.Optional;
@@ -55,18 +56,21 @@ public class CourseService {
         Course course = dataStore.findCourseByCode(courseCode)
                 .orElseThrow(() -> new CourseNotFoundException("Course with code " + courseCode + " not found."));
         course.setInstructor(instructor);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.INSTRUCTOR_ASSIGNED, courseCode);
     }
 
     public void deactivateCourse(String courseCode) throws CourseNotFoundException {
         Course course = dataStore.findCourseByCode(courseCode)
                 .orElseThrow(() -> new CourseNotFoundException("Course with code " + courseCode + " not found."));
         course.setActive(false);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.COURSE_DEACTIVATED, courseCode);
     }
 
     public void reactivateCourse(String courseCode) throws CourseNotFoundException {
         Course course = dataStore.findCourseByCode(courseCode)
                 .orElseThrow(() -> new CourseNotFoundException("Course with code " + courseCode + " not found."));
         course.setActive(true);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.COURSE_REACTIVATED, courseCode);
     }
 
     public List<Course> searchCourses(String keyword, Optional<String> department, Optional<Semester> semester) {
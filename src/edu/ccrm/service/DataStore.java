@@ -2,8 +2,11 @@ package edu.ccrm.service;
 
 import edu.ccrm.domain.course.Course;
 import edu.ccrm.domain.person.Student;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.event.ChangeEventBus;
 import edu.ccrm.util.IdGenerator;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -15,29 +18,56 @@ import java.util.concurrent.ConcurrentHashMap;
 public class DataStore {
     private final Map<Integer, Student> students = new ConcurrentHashMap<>();
     private final Map<String, Course> courses = new ConcurrentHashMap<>();
+    private final ChangeEventBus changeEvents = new ChangeEventBus();
 
     public Student addStudent(String fullName, String email, LocalDate registrationDate) {
         int id = IdGenerator.getNextStudentId();
-        String regNo = "R" + (2025000 + id);
+        String regNo = registrationNumberFor(id);
         Student student = new Student(id, regNo, fullName, email, registrationDate);
         students.put(id, student);
+        student.touch(); // Changed as of now, for delta exports (see VersionClock)
+        changeEvents.publish(ChangeEvent.Type.STUDENT_ADDED, id);
         return student;
     }
 
     public Student addStudent(String fullName, String email, LocalDate registrationDate, LocalDate birthDate) {
         int id = IdGenerator.getNextStudentId();
-        String regNo = "R" + (2025000 + id);
+        String regNo = registrationNumberFor(id);
         Student student = new Student(id, regNo, fullName, email, registrationDate, birthDate);
         students.put(id, student);
+        student.touch(); // Changed as of now, for delta exports (see VersionClock)
+        changeEvents.publish(ChangeEvent.Type.STUDENT_ADDED, id);
         return student;
     }
 
+    /**
+     * Bulk insert of fully built students whose IDs were reserved by the caller.
+     * No per-student events are published; the caller publishes DATA_IMPORTED once.
+     */
+    public void addStudents(Collection<Student> newStudents) {
+        for (Student student : newStudents) {
+            students.put(student.getId(), student);
+            student.touch();
+        }
+    }
+
+    /**
+     * Registration number assigned to the student with the given ID.
+     */
+    public static String registrationNumberFor(int id) {
+        return "R" + (2025000 + id);
+    }
+
     public void addCourse(Course course) {
         courses.put(course.getCourseCode().getCode(), course);
+        course.touch();
+        changeEvents.publish(ChangeEvent.Type.COURSE_ADDED, course.getCourseCode().getCode());
     }
 
     public void updateCourse(Course course) {
         courses.put(course.getCourseCode().getCode(), course);
+        course.touch();
+        changeEvents.publish(ChangeEvent.Type.COURSE_UPDATED, course.getCourseCode().getCode());
     }
 
     public Optional<Student> findStudentById(int id) {
@@ -55,4 +85,11 @@ public class DataStore {
     public Map<String, Course> getCourses() {
         return courses;
     }
+
+    /**
+     * Change-data-capture stream for students, courses and enrollments.
+     */
+    public ChangeEventBus getChangeEvents() {
+        return changeEvents;
+    }
 }
\ No newline at end of file
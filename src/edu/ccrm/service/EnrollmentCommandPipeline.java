@@ -0,0 +1,321 @@
+package edu.ccrm.service;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.exception.CourseNotFoundException;
+import edu.ccrm.exception.EnrollmentNotFoundException;
+import edu.ccrm.exception.InvalidUnenrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.exception.StudentNotFoundException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional single-writer pipeline for enrollment mutations.
+ * Enroll, drop, grade and marks commands are published into a pre-allocated ring buffer
+ * and applied by a writer thread. Commands are partitioned by student ID, so every
+ * mutation of a given student runs on the same thread in submission order without locks.
+ * Each submission returns a future that completes with the outcome of the command.
+ * <p>
+ * The single writer is per student: a command only mutates its student (enrollments,
+ * grades, GPA totals), while the Course objects it reads are immutable apart from volatile
+ * fields, the DataStore maps are concurrent and the change event bus takes concurrent
+ * publishers, so partitions need no coordination. This only holds while every enrollment
+ * mutation goes through the pipeline; the CLI routes them all through it when
+ * enrollment.pipeline.enabled is set.
+ * <p>
+ * Closing stops new submissions and lets each writer drain its ring until every slot
+ * reserved so far is applied; a submission that reserves a slot after its writer has
+ * finished fails with an IllegalStateException, so every returned future completes.
+ */
+public class EnrollmentCommandPipeline implements AutoCloseable {
+
+    public enum CommandType { ENROLL, DROP, GRADE, MARKS }
+
+    private final EnrollmentService enrollmentService;
+    private final Partition[] partitions;
+    private final Runnable batchListener;
+    private volatile boolean running = true;
+
+    public EnrollmentCommandPipeline(EnrollmentService enrollmentService) {
+        this(enrollmentService,
+             AppConfig.getInstance().getIntProperty("enrollment.pipeline.partitions", 2),
+             AppConfig.getInstance().getIntProperty("enrollment.pipeline.buffer.size", 1024),
+             null);
+    }
+
+    /**
+     * @param partitionCount number of writer threads (students are assigned by ID)
+     * @param bufferSize ring buffer capacity per partition, rounded up to a power of two
+     * @param batchListener optional hook run after each drained batch, e.g. to flush a journal
+     */
+    public EnrollmentCommandPipeline(EnrollmentService enrollmentService, int partitionCount,
+                                     int bufferSize, Runnable batchListener) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Partition count must be positive, got: " + partitionCount);
+        }
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("Buffer size must be at least 2, got: " + bufferSize);
+        }
+        this.enrollmentService = enrollmentService;
+        this.batchListener = batchListener;
+        int capacity = Integer.highestOneBit(bufferSize - 1) << 1;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, capacity);
+        }
+        for (Partition partition : partitions) {
+            partition.writer.start();
+        }
+    }
+
+    public CompletableFuture<Void> enroll(int studentId, String courseCode, Semester semester) {
+        return submit(CommandType.ENROLL, studentId, courseCode, semester, null, 0.0);
+    }
+
+    public CompletableFuture<Void> drop(int studentId, String courseCode) {
+        return submit(CommandType.DROP, studentId, courseCode, null, null, 0.0);
+    }
+
+    public CompletableFuture<Void> assignGrade(int studentId, String courseCode, Grade grade) {
+        return submit(CommandType.GRADE, studentId, courseCode, null, grade, 0.0);
+    }
+
+    public CompletableFuture<Void> assignMarks(int studentId, String courseCode, double marks) {
+        return submit(CommandType.MARKS, studentId, courseCode, null, null, marks);
+    }
+
+    // Blocking forms that throw EnrollmentService's exceptions, for callers such as the CLI
+
+    public void enrollAndWait(int studentId, String courseCode, Semester semester)
+        throws StudentNotFoundException, CourseNotFoundException, MaxCreditLimitExceededException,
+               PrerequisiteNotMetException {
+        EnrollmentService.rethrowEnrollmentFailure(await(enroll(studentId, courseCode, semester)));
+    }
+
+    public void dropAndWait(int studentId, String courseCode)
+        throws StudentNotFoundException, EnrollmentNotFoundException, InvalidUnenrollmentException {
+        Exception failure = await(drop(studentId, courseCode));
+        if (failure instanceof InvalidUnenrollmentException e) {
+            throw e;
+        }
+        EnrollmentService.rethrowGradingFailure(failure);
+    }
+
+    public void assignGradeAndWait(int studentId, String courseCode, Grade grade)
+        throws StudentNotFoundException, EnrollmentNotFoundException {
+        EnrollmentService.rethrowGradingFailure(await(assignGrade(studentId, courseCode, grade)));
+    }
+
+    public void assignMarksAndWait(int studentId, String courseCode, double marks)
+        throws StudentNotFoundException, EnrollmentNotFoundException {
+        EnrollmentService.rethrowGradingFailure(await(assignMarks(studentId, courseCode, marks)));
+    }
+
+    // Waits for a command; returns its failure, or null on success
+    private static Exception await(CompletableFuture<Void> result) {
+        try {
+            result.join();
+            return null;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            return (Exception) e.getCause();
+        }
+    }
+
+    private CompletableFuture<Void> submit(CommandType type, int studentId, String courseCode,
+                                           Semester semester, Grade grade, double marks) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        if (!running) {
+            result.completeExceptionally(closed());
+            return result;
+        }
+        Partition partition = partitions[Math.floorMod(studentId, partitions.length)];
+        if (!partition.publish(type, studentId, courseCode, semester, grade, marks, result)) {
+            result.completeExceptionally(closed());
+        } else if (!running || !partition.writer.isAlive()) {
+            // Closed meanwhile: the writer applies the command unless it finished before
+            // the slot was reserved, in which case nothing ever will
+            partition.awaitWriter();
+            result.completeExceptionally(closed());
+        }
+        return result;
+    }
+
+    private static IllegalStateException closed() {
+        return new IllegalStateException("Enrollment pipeline is closed.");
+    }
+
+    private void apply(Slot slot) throws Exception {
+        switch (slot.type) {
+            case ENROLL -> enrollmentService.enrollStudent(slot.studentId, slot.courseCode, slot.semester);
+            case DROP -> enrollmentService.unenrollStudent(slot.studentId, slot.courseCode);
+            case GRADE -> enrollmentService.assignGrade(slot.studentId, slot.courseCode, slot.grade);
+            case MARKS -> enrollmentService.assignMarks(slot.studentId, slot.courseCode, slot.marks);
+        }
+    }
+
+    /**
+     * Stops accepting commands, lets the writers apply every command already submitted and waits for them.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Partition partition : partitions) {
+            LockSupport.unpark(partition.writer);
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Pre-allocated ring buffer entry. The sequence field publishes the slot between
+     * producers and the writer (bounded multi-producer, single-consumer queue).
+     */
+    private static final class Slot {
+        volatile long sequence;
+        CommandType type;
+        int studentId;
+        String courseCode;
+        Semester semester;
+        Grade grade;
+        double marks;
+        CompletableFuture<Void> result;
+    }
+
+    private final class Partition {
+        private static final int MAX_BATCH = 256;
+
+        private final Slot[] slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private long head; // Only touched by the writer thread
+        private volatile boolean sleeping;
+        private final Thread writer;
+
+        Partition(int index, int capacity) {
+            this.slots = new Slot[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                slots[i] = new Slot();
+                slots[i].sequence = i;
+            }
+            this.writer = new Thread(this::runWriter, "enrollment-writer-" + index);
+            this.writer.setDaemon(true);
+        }
+
+        /**
+         * @return false if the ring is full and its writer is gone, so the command cannot be queued
+         */
+        boolean publish(CommandType type, int studentId, String courseCode, Semester semester,
+                        Grade grade, double marks, CompletableFuture<Void> result) {
+            while (true) {
+                long position = tail.get();
+                Slot slot = slots[(int) (position & mask)];
+                long difference = slot.sequence - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        slot.type = type;
+                        slot.studentId = studentId;
+                        slot.courseCode = courseCode;
+                        slot.semester = semester;
+                        slot.grade = grade;
+                        slot.marks = marks;
+                        slot.result = result;
+                        slot.sequence = position + 1;
+                        if (sleeping) {
+                            LockSupport.unpark(writer);
+                        }
+                        return true;
+                    }
+                } else if (difference < 0) {
+                    // Buffer full: back off until the writer catches up
+                    if (!writer.isAlive()) {
+                        return false;
+                    }
+                    LockSupport.unpark(writer);
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        private void runWriter() {
+            while (true) {
+                int processed = drainBatch();
+                if (processed > 0) {
+                    if (batchListener != null) {
+                        try {
+                            batchListener.run();
+                        } catch (RuntimeException e) {
+                            // The writer must keep going, or the commands behind it would never complete
+                            System.err.println("Enrollment pipeline batch listener failed: " + e.getMessage());
+                        }
+                    }
+                    continue;
+                }
+                if (!running && head == tail.get()) {
+                    return; // Every reserved slot is applied; later ones are failed by their submitters
+                }
+                sleeping = true;
+                if (!hasPending()) {
+                    LockSupport.parkNanos(1_000_000L);
+                }
+                sleeping = false;
+            }
+        }
+
+        // Waits until the writer has finished, ignoring interrupts (its futures must be settled first)
+        void awaitWriter() {
+            boolean interrupted = false;
+            while (writer.isAlive()) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean hasPending() {
+            return slots[(int) (head & mask)].sequence == head + 1;
+        }
+
+        private int drainBatch() {
+            int count = 0;
+            while (count < MAX_BATCH) {
+                Slot slot = slots[(int) (head & mask)];
+                if (slot.sequence != head + 1) {
+                    break;
+                }
+                CompletableFuture<Void> result = slot.result;
+                try {
+                    apply(slot);
+                    result.complete(null);
+                } catch (Exception | AssertionError e) {
+                    result.completeExceptionally(e);
+                }
+                slot.courseCode = null;
+                slot.result = null;
+                slot.sequence = head + mask + 1;
+                head++;
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import edu.ccrm.domain.enrollment.Enrollment;
 import edu.ccrm.domain.enrollment.Grade;
 import edu.ccrm.domain.enrollment.Semester;
 import edu.ccrm.domain.person.Student;
+import edu.ccrm.event.ChangeEvent;
 import edu.ccrm.exception.CourseNotFoundException;
 import edu.ccrm.exception.DuplicateEnrollmentException;
 import edu.ccrm.exception.EnrollmentNotFoundException;
@@ -24,6 +25,7 @@ public class EnrollmentService {
     private final int maxCredits;
     private final int minCredits;
     private final long enrollmentDeadlineHours; // Hours after which enrollment modifications are restricted
+    private final IdempotencyCache idempotencyCache; // Outcomes of keyed requests, for client retries
 
     public EnrollmentService(DataStore dataStore) {
         this.dataStore = dataStore;
@@ -31,6 +33,111 @@ public class EnrollmentService {
         this.maxCredits = config.getIntProperty("max.credits.per.semester", 18);
         this.minCredits = config.getIntProperty("min.credits.per.semester", 12);
         this.enrollmentDeadlineHours = config.getLongProperty("enrollment.deadline.hours", 168L); // Default 1 week
+        this.idempotencyCache = new IdempotencyCache(
+                config.getIntProperty("idempotency.max.entries", 10000),
+                config.getLongProperty("idempotency.ttl.seconds", 600L));
+    }
+
+    // Idempotent variants: a replayed key returns the recorded outcome without re-running the rules,
+    // and a retry arriving while the first attempt runs waits for its outcome.
+    // A null key behaves exactly like the plain method.
+
+    public void enrollStudent(String idempotencyKey, int studentId, String courseCode, Semester semester)
+        throws StudentNotFoundException, CourseNotFoundException, MaxCreditLimitExceededException,
+               DuplicateEnrollmentException, PrerequisiteNotMetException {
+        if (idempotencyKey == null) {
+            enrollStudent(studentId, courseCode, semester);
+            return;
+        }
+        String fingerprint = "ENROLL|" + studentId + "|" + courseCode + "|" + semester;
+        IdempotencyCache.Outcome prior = idempotencyCache.claim(idempotencyKey, fingerprint);
+        if (prior != null) {
+            rethrowEnrollmentFailure(prior.getFailure());
+            return;
+        }
+        try {
+            enrollStudent(studentId, courseCode, semester);
+            idempotencyCache.complete(idempotencyKey, null);
+        } catch (StudentNotFoundException | CourseNotFoundException | MaxCreditLimitExceededException |
+                 PrerequisiteNotMetException | RuntimeException e) {
+            idempotencyCache.complete(idempotencyKey, e);
+            throw e;
+        } finally {
+            idempotencyCache.release(idempotencyKey); // Only a claim left without an outcome, e.g. by an Error
+        }
+    }
+
+    public void unenrollStudent(String idempotencyKey, int studentId, String courseCode)
+        throws StudentNotFoundException, EnrollmentNotFoundException, InvalidUnenrollmentException {
+        if (idempotencyKey == null) {
+            unenrollStudent(studentId, courseCode);
+            return;
+        }
+        String fingerprint = "DROP|" + studentId + "|" + courseCode;
+        IdempotencyCache.Outcome prior = idempotencyCache.claim(idempotencyKey, fingerprint);
+        if (prior != null) {
+            if (prior.getFailure() instanceof InvalidUnenrollmentException e) {
+                throw e;
+            }
+            rethrowGradingFailure(prior.getFailure());
+            return;
+        }
+        try {
+            unenrollStudent(studentId, courseCode);
+            idempotencyCache.complete(idempotencyKey, null);
+        } catch (StudentNotFoundException | EnrollmentNotFoundException | InvalidUnenrollmentException |
+                 RuntimeException e) {
+            idempotencyCache.complete(idempotencyKey, e);
+            throw e;
+        } finally {
+            idempotencyCache.release(idempotencyKey); // Only a claim left without an outcome, e.g. by an Error
+        }
+    }
+
+    public void assignGrade(String idempotencyKey, int studentId, String courseCode, Grade grade)
+        throws StudentNotFoundException, EnrollmentNotFoundException {
+        if (idempotencyKey == null) {
+            assignGrade(studentId, courseCode, grade);
+            return;
+        }
+        String fingerprint = "GRADE|" + studentId + "|" + courseCode + "|" + grade;
+        IdempotencyCache.Outcome prior = idempotencyCache.claim(idempotencyKey, fingerprint);
+        if (prior != null) {
+            rethrowGradingFailure(prior.getFailure());
+            return;
+        }
+        try {
+            assignGrade(studentId, courseCode, grade);
+            idempotencyCache.complete(idempotencyKey, null);
+        } catch (StudentNotFoundException | EnrollmentNotFoundException | RuntimeException e) {
+            idempotencyCache.complete(idempotencyKey, e);
+            throw e;
+        } finally {
+            idempotencyCache.release(idempotencyKey); // Only a claim left without an outcome, e.g. by an Error
+        }
+    }
+
+    public void assignMarks(String idempotencyKey, int studentId, String courseCode, double marks)
+        throws StudentNotFoundException, EnrollmentNotFoundException {
+        if (idempotencyKey == null) {
+            assignMarks(studentId, courseCode, marks);
+            return;
+        }
+        String fingerprint = "MARKS|" + studentId + "|" + courseCode + "|" + marks;
+        IdempotencyCache.Outcome prior = idempotencyCache.claim(idempotencyKey, fingerprint);
+        if (prior != null) {
+            rethrowGradingFailure(prior.getFailure());
+            return;
+        }
+        try {
+            assignMarks(studentId, courseCode, marks);
+            idempotencyCache.complete(idempotencyKey, null);
+        } catch (StudentNotFoundException | EnrollmentNotFoundException | RuntimeException e) {
+            idempotencyCache.complete(idempotencyKey, e);
+            throw e;
+        } finally {
+            idempotencyCache.release(idempotencyKey); // Only a claim left without an outcome, e.g. by an Error
+        }
     }
 
     public void enrollStudent(int studentId, String courseCode) 
@@ -86,6 +193,8 @@ public class EnrollmentService {
         // Create and add enrollment
         Enrollment enrollment = new Enrollment(course, enrollmentSemester);
         student.addEnrollment(enrollment);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.ENROLLMENT_CREATED, studentId, courseCode,
+                enrollmentSemester, null, enrollment.getGrade());
     }
 
     public void unenrollStudent(int studentId, String courseCode) 
@@ -120,6 +229,8 @@ public class EnrollmentService {
         }
 
         enrollment.drop();
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.ENROLLMENT_DROPPED, studentId, courseCode,
+                enrollment.getSemester(), null, enrollment.getGrade());
     }
 
     public void assignGrade(int studentId, String courseCode, Grade grade) 
@@ -134,7 +245,10 @@ public class EnrollmentService {
                 .findFirst()
                 .orElseThrow(() -> new EnrollmentNotFoundException("Student is not enrolled in this course."));
 
+        Grade previousGrade = enrollment.getGrade();
         enrollment.setGrade(grade);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.GRADE_ASSIGNED, studentId, courseCode,
+                enrollment.getSemester(), previousGrade, grade);
     }
 
     public void assignMarks(int studentId, String courseCode, double marks) 
@@ -149,10 +263,34 @@ public class EnrollmentService {
                 .findFirst()
                 .orElseThrow(() -> new EnrollmentNotFoundException("Student is not enrolled in this course."));
 
+        Grade previousGrade = enrollment.getGrade();
         enrollment.setMarks(marks); // This automatically sets the grade based on marks
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.GRADE_ASSIGNED, studentId, courseCode,
+                enrollment.getSemester(), previousGrade, enrollment.getGrade());
+    }
+
+    // Helper methods (the rethrow helpers are shared with EnrollmentCommandPipeline)
+    static void rethrowEnrollmentFailure(Exception failure)
+        throws StudentNotFoundException, CourseNotFoundException, MaxCreditLimitExceededException,
+               PrerequisiteNotMetException {
+        if (failure == null) return;
+        if (failure instanceof StudentNotFoundException e) throw e;
+        if (failure instanceof CourseNotFoundException e) throw e;
+        if (failure instanceof MaxCreditLimitExceededException e) throw e;
+        if (failure instanceof PrerequisiteNotMetException e) throw e;
+        if (failure instanceof RuntimeException e) throw e;
+        throw new IllegalStateException("Unexpected recorded failure", failure);
+    }
+
+    static void rethrowGradingFailure(Exception failure)
+        throws StudentNotFoundException, EnrollmentNotFoundException {
+        if (failure == null) return;
+        if (failure instanceof StudentNotFoundException e) throw e;
+        if (failure instanceof EnrollmentNotFoundException e) throw e;
+        if (failure instanceof RuntimeException e) throw e;
+        throw new IllegalStateException("Unexpected recorded failure", failure);
     }
 
-    // Helper methods
     private int getCurrentSemesterCredits(Student student, Semester semester) {
         return student.getEnrollments().stream()
                 .filter(e -> !e.isDropped())
@@ -210,24 +348,6 @@ public class EnrollmentService {
         Student student = dataStore.findStudentById(studentId)
                 .orElseThrow(() -> new StudentNotFoundException("Student not found."));
         
-        List<Enrollment> semesterEnrollments = student.getEnrollments().stream()
-                .filter(e -> !e.isDropped())
-                .filter(e -> e.getSemester() == semester)
-                .filter(e -> e.getGrade().countsTowardGPA())
-                .collect(Collectors.toList());
-
-        if (semesterEnrollments.isEmpty()) {
-            return 0.0;
-        }
-
-        double totalQualityPoints = semesterEnrollments.stream()
-                .mapToDouble(Enrollment::getQualityPoints)
-                .sum();
-
-        int totalCredits = semesterEnrollments.stream()
-                .mapToInt(Enrollment::getGPACredits)
-                .sum();
-
-        return (totalCredits > 0) ? totalQualityPoints / totalCredits : 0.0;
+        return student.getAcademicTotals().getSemesterGPA(semester);
     }
 }
\ No newline at end of file
@@ -0,0 +1,319 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.enrollment.AcademicTotals;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.event.ChangeEventBus;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Materialized GPA rankings, kept up to date from the DataStore change stream.
+ * Each ranking is an order-statistic tree (a size-augmented treap) ordered by GPA
+ * descending and student ID ascending, so top-K, bottom-K and rank queries cost
+ * O(log n) (plus K) instead of a full sort. Rankings exist overall, per semester and
+ * per department; a student appears in a semester or department ranking only when
+ * they have graded credits there.
+ */
+public final class GpaLeaderboard implements AutoCloseable {
+    private final DataStore dataStore;
+    private final ChangeEventBus.Subscription subscription;
+    private final RankTree overall = new RankTree();
+    private final Map<Semester, RankTree> bySemester = new EnumMap<>(Semester.class);
+    private final Map<String, RankTree> byDepartment = new HashMap<>();
+    private final Map<Integer, Placement> placements = new HashMap<>();
+
+    public GpaLeaderboard(DataStore dataStore) {
+        this.dataStore = dataStore;
+        for (Semester semester : Semester.values()) {
+            bySemester.put(semester, new RankTree());
+        }
+        // Subscribe first, so no change between the rebuild and the subscription is missed
+        this.subscription = dataStore.getChangeEvents().subscribe("gpa-leaderboard", events -> {
+            for (ChangeEvent event : events) {
+                if (event.getType() == ChangeEvent.Type.DATA_IMPORTED) {
+                    rebuild();
+                } else if (event.getStudentId() > 0) {
+                    dataStore.findStudentById(event.getStudentId()).ifPresent(this::update);
+                }
+            }
+        }, 4096, 256);
+        rebuild();
+    }
+
+    /**
+     * Where a student currently sits in each ranking, so the old keys can be removed on update.
+     */
+    private static final class Placement {
+        double overallGpa;
+        final double[] semesterGpa = new double[Semester.values().length]; // NaN when not ranked
+        final Map<String, Double> departmentGpa = new HashMap<>();
+    }
+
+    public synchronized void rebuild() {
+        overall.clear();
+        bySemester.values().forEach(RankTree::clear);
+        byDepartment.clear();
+        placements.clear();
+        for (Student student : dataStore.getStudents().values()) {
+            insert(student);
+        }
+    }
+
+    /**
+     * Re-keys one student in every ranking from their running academic totals.
+     */
+    public synchronized void update(Student student) {
+        Placement old = placements.remove(student.getId());
+        if (old != null) {
+            int id = student.getId();
+            overall.delete(old.overallGpa, id);
+            for (Semester semester : Semester.values()) {
+                if (!Double.isNaN(old.semesterGpa[semester.ordinal()])) {
+                    bySemester.get(semester).delete(old.semesterGpa[semester.ordinal()], id);
+                }
+            }
+            old.departmentGpa.forEach((department, gpa) -> byDepartment.get(department).delete(gpa, id));
+        }
+        insert(student);
+    }
+
+    private void insert(Student student) {
+        int id = student.getId();
+        AcademicTotals totals = student.getAcademicTotals();
+        Placement placement = new Placement();
+        placement.overallGpa = totals.getOverallGPA();
+        overall.insert(placement.overallGpa, id);
+        for (Semester semester : Semester.values()) {
+            double gpa = Double.NaN;
+            if (totals.getSemesterCreditsAttempted(semester) > 0) {
+                gpa = totals.getSemesterGPA(semester);
+                bySemester.get(semester).insert(gpa, id);
+            }
+            placement.semesterGpa[semester.ordinal()] = gpa;
+        }
+        for (String department : totals.getGradedDepartments()) {
+            double gpa = totals.getDepartmentGPA(department);
+            byDepartment.computeIfAbsent(department, d -> new RankTree()).insert(gpa, id);
+            placement.departmentGpa.put(department, gpa);
+        }
+        placements.put(id, placement);
+    }
+
+    // Queries: top/bottom K students and 1-based rank (0 when not ranked)
+
+    public synchronized List<Student> top(int k) { return top(overall, k); }
+    public synchronized List<Student> top(int k, Semester semester) { return top(bySemester.get(semester), k); }
+    public synchronized List<Student> top(int k, String department) { return top(byDepartment.get(department), k); }
+
+    public synchronized List<Student> bottom(int k) { return bottom(overall, k); }
+    public synchronized List<Student> bottom(int k, Semester semester) { return bottom(bySemester.get(semester), k); }
+    public synchronized List<Student> bottom(int k, String department) { return bottom(byDepartment.get(department), k); }
+
+    public synchronized int rankOf(int studentId) {
+        Placement placement = placements.get(studentId);
+        return placement == null ? 0 : overall.rank(placement.overallGpa, studentId) + 1;
+    }
+
+    public synchronized int rankOf(int studentId, Semester semester) {
+        Placement placement = placements.get(studentId);
+        if (placement == null || Double.isNaN(placement.semesterGpa[semester.ordinal()])) {
+            return 0;
+        }
+        return bySemester.get(semester).rank(placement.semesterGpa[semester.ordinal()], studentId) + 1;
+    }
+
+    public synchronized int rankOf(int studentId, String department) {
+        Placement placement = placements.get(studentId);
+        Double gpa = (placement == null) ? null : placement.departmentGpa.get(department);
+        return gpa == null ? 0 : byDepartment.get(department).rank(gpa, studentId) + 1;
+    }
+
+    public synchronized int size() {
+        return overall.size();
+    }
+
+    /**
+     * Stops following changes (and the subscription's delivery thread); the rankings keep their last state.
+     */
+    @Override
+    public void close() {
+        subscription.close();
+    }
+
+    private List<Student> top(RankTree tree, int k) {
+        List<Student> result = new ArrayList<>();
+        int n = (tree == null) ? 0 : Math.min(k, tree.size());
+        for (int i = 0; i < n; i++) {
+            dataStore.findStudentById(tree.select(i)).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    private List<Student> bottom(RankTree tree, int k) {
+        List<Student> result = new ArrayList<>();
+        int size = (tree == null) ? 0 : tree.size();
+        for (int i = size - 1; i >= Math.max(0, size - k); i--) {
+            dataStore.findStudentById(tree.select(i)).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Treap keyed by (GPA descending, student ID ascending) with subtree sizes for rank/select.
+     */
+    private static final class RankTree {
+        private static final class Node {
+            final double gpa;
+            final int id;
+            final int priority = ThreadLocalRandom.current().nextInt();
+            int size = 1;
+            Node left, right;
+
+            Node(double gpa, int id) {
+                this.gpa = gpa;
+                this.id = id;
+            }
+        }
+
+        private Node root;
+
+        private static int compare(double gpaA, int idA, double gpaB, int idB) {
+            int c = Double.compare(gpaB, gpaA); // Higher GPA first
+            return c != 0 ? c : Integer.compare(idA, idB);
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+
+        private static void resize(Node node) {
+            node.size = 1 + size(node.left) + size(node.right);
+        }
+
+        int size() {
+            return size(root);
+        }
+
+        void clear() {
+            root = null;
+        }
+
+        void insert(double gpa, int id) {
+            root = insert(root, new Node(gpa, id));
+        }
+
+        private Node insert(Node tree, Node node) {
+            if (tree == null) {
+                return node;
+            }
+            if (node.priority > tree.priority) {
+                split(tree, node);
+                resize(node);
+                return node;
+            }
+            if (compare(node.gpa, node.id, tree.gpa, tree.id) < 0) {
+                tree.left = insert(tree.left, node);
+            } else {
+                tree.right = insert(tree.right, node);
+            }
+            resize(tree);
+            return tree;
+        }
+
+        // Splits tree around the pivot's key into pivot.left (smaller) and pivot.right (larger)
+        private void split(Node tree, Node pivot) {
+            if (tree == null) {
+                pivot.left = null;
+                pivot.right = null;
+                return;
+            }
+            if (compare(tree.gpa, tree.id, pivot.gpa, pivot.id) < 0) {
+                split(tree.right, pivot);
+                tree.right = pivot.left;
+                resize(tree);
+                pivot.left = tree;
+            } else {
+                split(tree.left, pivot);
+                tree.left = pivot.right;
+                resize(tree);
+                pivot.right = tree;
+            }
+        }
+
+        void delete(double gpa, int id) {
+            root = delete(root, gpa, id);
+        }
+
+        private Node delete(Node tree, double gpa, int id) {
+            if (tree == null) {
+                return null;
+            }
+            int c = compare(gpa, id, tree.gpa, tree.id);
+            if (c == 0) {
+                return merge(tree.left, tree.right);
+            }
+            if (c < 0) {
+                tree.left = delete(tree.left, gpa, id);
+            } else {
+                tree.right = delete(tree.right, gpa, id);
+            }
+            resize(tree);
+            return tree;
+        }
+
+        private Node merge(Node left, Node right) {
+            if (left == null) return right;
+            if (right == null) return left;
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                resize(left);
+                return left;
+            }
+            right.left = merge(left, right.left);
+            resize(right);
+            return right;
+        }
+
+        // Student ID at 0-based position in ranking order
+        int select(int index) {
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else if (index == leftSize) {
+                    return node.id;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+            throw new IndexOutOfBoundsException("Rank index out of range: " + index);
+        }
+
+        // Number of entries ranked ahead of the given key
+        int rank(double gpa, int id) {
+            int rank = 0;
+            Node node = root;
+            while (node != null) {
+                int c = compare(gpa, id, node.gpa, node.id);
+                if (c <= 0) {
+                    if (c == 0) {
+                        return rank + size(node.left);
+                    }
+                    node = node.left;
+                } else {
+                    rank += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return rank;
+        }
+    }
+}
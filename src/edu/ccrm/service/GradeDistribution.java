@@ -0,0 +1,231 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.enrollment.Enrollment;
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.event.ChangeEventBus;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Online grade histogram: enrollment counts per Grade (indexed by ordinal), overall and
+ * per course, department and semester. Counters are updated from the enrollment and
+ * grading events of the DataStore change stream, so distribution reports read counters
+ * instead of scanning every enrollment. Bulk loads (DATA_IMPORTED) and course updates
+ * trigger a parallel full rebuild, which is also used to verify the counters.
+ * <p>
+ * Services change an enrollment before publishing its event, so a rebuild may already
+ * have counted a change whose event is still to come. Events are therefore not applied as
+ * deltas: each one reconciles its enrollment, moving it from the grade it is counted with
+ * to its current grade, which is a no-op for a change the rebuild has seen. Enrollments
+ * reconciled while a rebuild scans are reconciled again against its counters.
+ */
+public class GradeDistribution implements AutoCloseable {
+    private static final int GRADES = Grade.values().length;
+
+    private final DataStore dataStore;
+    private final ChangeEventBus.Subscription subscription;
+    private final Object rebuildLock = new Object(); // One rebuild at a time
+    private Counts counts = new Counts(); // Guarded by this
+    private List<Enrollment> touchedDuringRebuild; // Guarded by this; non-null while a rebuild scans
+
+    public GradeDistribution(DataStore dataStore) {
+        this.dataStore = dataStore;
+        // Subscribe first, so no change between the rebuild and the subscription is missed
+        this.subscription = dataStore.getChangeEvents().subscribe("grade-distribution", events -> {
+            for (ChangeEvent event : events) {
+                apply(event);
+            }
+        }, 4096, 256);
+        rebuild();
+    }
+
+    private void apply(ChangeEvent event) {
+        switch (event.getType()) {
+            case ENROLLMENT_CREATED, GRADE_ASSIGNED -> {
+                Student student = dataStore.getStudents().get(event.getStudentId());
+                if (student == null) {
+                    return;
+                }
+                for (Enrollment enrollment : student.getEnrollments()) {
+                    if (enrollment.getSemester() == event.getSemester()
+                            && enrollment.getCourse().getCourseCode().getCode().equals(event.getCourseCode())) {
+                        reconcile(enrollment);
+                    }
+                }
+            }
+            case DATA_IMPORTED, COURSE_UPDATED -> rebuild();
+            default -> { } // Drops keep their grade in the distribution; other events do not affect it
+        }
+    }
+
+    // Moves the enrollment from the grade it is counted with (if any) to its current grade
+    private synchronized void reconcile(Enrollment enrollment) {
+        counts.reconcile(enrollment);
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.add(enrollment);
+        }
+    }
+
+    /**
+     * Recomputes all counters from the DataStore in parallel and replaces the current ones.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                touchedDuringRebuild = new ArrayList<>();
+            }
+            Counts fresh = computeCounts();
+            synchronized (this) {
+                counts = fresh;
+                List<Enrollment> touched = touchedDuringRebuild;
+                touchedDuringRebuild = null;
+                // The scan may have read these before their latest change
+                for (Enrollment enrollment : touched) {
+                    counts.reconcile(enrollment);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if the online counters match a full parallel recomputation
+     */
+    public boolean verify() {
+        Counts expected = computeCounts();
+        synchronized (this) {
+            return counts.sameAs(expected);
+        }
+    }
+
+    private Counts computeCounts() {
+        return dataStore.getStudents().values().parallelStream()
+                .collect(Counts::new, Counts::addStudent, Counts::merge);
+    }
+
+    // Counter snapshots, indexed by Grade ordinal
+
+    public synchronized long[] getCounts() {
+        return counts.overall.clone();
+    }
+
+    public synchronized long[] getSemesterCounts(Semester semester) {
+        return counts.bySemester[semester.ordinal()].clone();
+    }
+
+    public synchronized long[] getCourseCounts(String courseCode) {
+        return counts.byCourse.getOrDefault(courseCode, new long[GRADES]).clone();
+    }
+
+    public synchronized long[] getDepartmentCounts(String department) {
+        return counts.byDepartment.getOrDefault(department, new long[GRADES]).clone();
+    }
+
+    public synchronized Set<String> getDepartments() {
+        return new TreeSet<>(counts.byDepartment.keySet());
+    }
+
+    /**
+     * Stops following changes (and the subscription's delivery thread); the counters keep their last state.
+     */
+    @Override
+    public void close() {
+        subscription.close();
+    }
+
+    /**
+     * Mutable accumulator; also the reduction container for the parallel rebuild.
+     * Remembers the grade each enrollment is counted with.
+     */
+    private static final class Counts {
+        final Map<Enrollment, Grade> counted = new IdentityHashMap<>();
+        final long[] overall = new long[GRADES];
+        final long[][] bySemester = new long[Semester.values().length][GRADES];
+        final Map<String, long[]> byCourse = new HashMap<>();
+        final Map<String, long[]> byDepartment = new HashMap<>();
+
+        void add(String courseCode, String department, Semester semester, Grade grade, int delta) {
+            int index = grade.ordinal();
+            overall[index] += delta;
+            bySemester[semester.ordinal()][index] += delta;
+            byCourse.computeIfAbsent(courseCode, c -> new long[GRADES])[index] += delta;
+            byDepartment.computeIfAbsent(department, d -> new long[GRADES])[index] += delta;
+        }
+
+        void addStudent(Student student) {
+            for (Enrollment e : student.getEnrollments()) {
+                Grade grade = e.getGrade();
+                counted.put(e, grade);
+                add(e, grade, 1);
+            }
+        }
+
+        void reconcile(Enrollment e) {
+            Grade grade = e.getGrade();
+            Grade before = counted.put(e, grade);
+            if (before != grade) {
+                if (before != null) {
+                    add(e, before, -1);
+                }
+                add(e, grade, 1);
+            }
+        }
+
+        private void add(Enrollment e, Grade grade, int delta) {
+            Course course = e.getCourse();
+            add(course.getCourseCode().getCode(), course.getDepartment(), e.getSemester(), grade, delta);
+        }
+
+        void merge(Counts other) {
+            counted.putAll(other.counted);
+            for (int i = 0; i < GRADES; i++) {
+                overall[i] += other.overall[i];
+            }
+            for (int s = 0; s < bySemester.length; s++) {
+                for (int i = 0; i < GRADES; i++) {
+                    bySemester[s][i] += other.bySemester[s][i];
+                }
+            }
+            mergeMap(byCourse, other.byCourse);
+            mergeMap(byDepartment, other.byDepartment);
+        }
+
+        private static void mergeMap(Map<String, long[]> target, Map<String, long[]> source) {
+            source.forEach((key, values) -> {
+                long[] existing = target.computeIfAbsent(key, k -> new long[GRADES]);
+                for (int i = 0; i < GRADES; i++) {
+                    existing[i] += values[i];
+                }
+            });
+        }
+
+        boolean sameAs(Counts other) {
+            if (!Arrays.equals(overall, other.overall)
+                    || !Arrays.deepEquals(bySemester, other.bySemester)) {
+                return false;
+            }
+            return sameMap(byCourse, other.byCourse) && sameMap(byDepartment, other.byDepartment);
+        }
+
+        private static boolean sameMap(Map<String, long[]> a, Map<String, long[]> b) {
+            Set<String> keys = new TreeSet<>(a.keySet());
+            keys.addAll(b.keySet());
+            long[] zero = new long[GRADES];
+            for (String key : keys) {
+                if (!Arrays.equals(a.getOrDefault(key, zero), b.getOrDefault(key, zero))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package edu.ccrm.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded, time-expiring table of operation outcomes keyed by client idempotency key.
+ * A replayed request finds the recorded outcome in O(1) and returns it without
+ * re-running business rules. The first caller of a key claims it atomically and runs the
+ * operation; concurrent retries with the same key wait for its outcome instead of running
+ * it again, and a completed outcome is never replaced. Entries are only ever added at the
+ * tail and all share one time-to-live counted from the claim, so insertion order is also
+ * expiry order and expired entries are always at the head of the map.
+ */
+public class IdempotencyCache {
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    /**
+     * Recorded result of an operation: success when failure is null.
+     */
+    public static final class Outcome {
+        private final Exception failure;
+
+        private Outcome(Exception failure) {
+            this.failure = failure;
+        }
+
+        public boolean isSuccess() { return failure == null; }
+        public Exception getFailure() { return failure; }
+    }
+
+    // A claimed key: pending until its outcome completes; a released claim completes with null
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isPending() {
+            return !outcome.isDone();
+        }
+    }
+
+    public IdempotencyCache(int maxEntries, long ttlSeconds) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be positive, got: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Returns the recorded outcome for a key, waiting while another caller is running it.
+     * If the key is unknown or expired, claims it for the caller and returns null; the caller
+     * must then run the operation and call complete(), or release() if it could not finish.
+     * @param fingerprint description of the request; a key reused for a different request is rejected
+     */
+    public Outcome claim(String key, String fingerprint) {
+        while (true) {
+            Entry entry;
+            synchronized (this) {
+                long now = System.nanoTime();
+                evictExpired(now);
+                entry = entries.get(key);
+                if (entry == null) {
+                    entries.put(key, new Entry(fingerprint, now + ttlNanos));
+                    evictOverflow();
+                    return null;
+                }
+                if (!entry.fingerprint.equals(fingerprint)) {
+                    throw new IllegalArgumentException("Idempotency key " + key + " was already used for a different request.");
+                }
+            }
+            Outcome outcome = entry.outcome.join(); // Waits outside the lock
+            if (outcome != null) {
+                return outcome;
+            }
+            // The claim was released without an outcome; try to claim the key again
+        }
+    }
+
+    /**
+     * Records the outcome of a claimed key and wakes the callers waiting for it.
+     * Does nothing if the key is no longer pending (a completed outcome is never replaced).
+     */
+    public synchronized void complete(String key, Exception failure) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isPending()) {
+            entry.outcome.complete(new Outcome(failure));
+        }
+    }
+
+    /**
+     * Gives up a claim that has no outcome, so a waiting or later caller runs the operation.
+     * Does nothing once the outcome is recorded, so it can be called from a finally block.
+     */
+    public synchronized void release(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isPending()) {
+            entries.remove(key);
+            entry.outcome.complete(null);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Expired entries are at the head; a pending one stops the sweep until it completes
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.expiresAt - now > 0 || entry.isPending()) {
+                return;
+            }
+            it.remove();
+        }
+    }
+
+    // Drops the eldest completed entries beyond the bound; pending claims are kept
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            if (!it.next().getValue().isPending()) {
+                it.remove();
+            }
+        }
+    }
+}
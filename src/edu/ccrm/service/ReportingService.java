@@ -2,45 +2,155 @@ package edu.ccrm.service;
 
 import edu.ccrm.domain.Transcript;
 import edu.ccrm.domain.enrollment.Grade;
-import java.util.Arrays;
-import java.util.Comparator;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Student;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
-public class ReportingService {
+/**
+ * Reports over the store. Owns a GPA leaderboard and a grade distribution, each kept up
+ * to date by its own change subscription, and the campus analytics pool; close() releases them.
+ */
+public class ReportingService implements AutoCloseable {
     private final DataStore dataStore;
+    private final GpaLeaderboard leaderboard;
+    private final GradeDistribution gradeDistribution;
+    private final CampusAnalytics campusAnalytics;
 
     public ReportingService(DataStore dataStore) {
         this.dataStore = dataStore;
+        this.leaderboard = new GpaLeaderboard(dataStore);
+        this.gradeDistribution = new GradeDistribution(dataStore);
+        this.campusAnalytics = new CampusAnalytics(dataStore);
+    }
+
+    @Override
+    public void close() {
+        leaderboard.close();
+        gradeDistribution.close();
+        campusAnalytics.close();
+    }
+
+    public GpaLeaderboard getLeaderboard() {
+        // Make sure pending changes have reached the leaderboard before it is read
+        dataStore.getChangeEvents().awaitDelivery();
+        return leaderboard;
+    }
+
+    public GradeDistribution getGradeDistribution() {
+        dataStore.getChangeEvents().awaitDelivery();
+        return gradeDistribution;
     }
 
     public void printTopStudentsByGpa(int limit) {
         System.out.println("\n--- Top " + limit + " Students by GPA ---");
-        dataStore.getStudents().values().stream()
-            .map(Transcript::new) // Create a transcript for each student
-            .sorted(Comparator.comparingDouble(Transcript::calculateOverallGPA).reversed()) // Sort by GPA descending
-            .limit(limit)
-            .forEach(t -> System.out.println(t.generateTranscript()));
+        getLeaderboard().top(limit)
+            .forEach(s -> System.out.println(new Transcript(s).generateTranscript()));
+    }
+
+    public void printTopStudentsBySemester(int limit, Semester semester) {
+        System.out.println("\n--- Top " + limit + " Students by " + semester + " Semester GPA ---");
+        printRanking(getLeaderboard().top(limit, semester), s -> s.getAcademicTotals().getSemesterGPA(semester));
+    }
+
+    public void printTopStudentsByDepartment(int limit, String department) {
+        System.out.println("\n--- Top " + limit + " Students by GPA in " + department + " ---");
+        printRanking(getLeaderboard().top(limit, department), s -> s.getAcademicTotals().getDepartmentGPA(department));
+    }
+
+    private void printRanking(List<Student> students, ToDoubleFunction<Student> gpa) {
+        if (students.isEmpty()) {
+            System.out.println("No graded students found.");
+            return;
+        }
+        int rank = 1;
+        for (Student s : students) {
+            System.out.printf("%2d. %-25s (ID: %d) GPA: %.2f%n", rank++, s.getFullName(), s.getId(), gpa.applyAsDouble(s));
+        }
     }
 
     public void printGpaDistribution() {
         System.out.println("\n--- GPA Distribution Report ---");
-        // Using a complex stream pipeline to aggregate data
-        Map<String, Long> distribution = dataStore.getStudents().values().stream()
-            .flatMap(s -> s.getEnrollments().stream())
-            .filter(e -> e.getGrade() != Grade.NA)
-            .collect(Collectors.groupingBy(
-                e -> getGpaRange(e.getGrade()),
-                Collectors.counting()
-            ));
+        printDistribution(getGradeDistribution().getCounts());
+    }
+
+    public void printGradeDistributionByDepartment() {
+        System.out.println("\n--- GPA Distribution by Department ---");
+        GradeDistribution distribution = getGradeDistribution();
+        for (String department : distribution.getDepartments()) {
+            System.out.println("\n" + department);
+            printDistribution(distribution.getDepartmentCounts(department));
+        }
+    }
+
+    // Folds the per-grade counters into the report's grade point ranges
+    private void printDistribution(long[] counts) {
+        Map<String, Long> distribution = new TreeMap<>();
+        for (Grade grade : Grade.values()) {
+            if (grade != Grade.NA && counts[grade.ordinal()] > 0) {
+                distribution.merge(getGpaRange(grade), counts[grade.ordinal()], Long::sum);
+            }
+        }
 
         System.out.println("Grade Point Range | Count");
         System.out.println("------------------|-------");
-        distribution.entrySet().stream()
-            .sorted(Map.Entry.comparingByKey())
-            .forEach(entry -> System.out.printf("%-17s | %d\n", entry.getKey(), entry.getValue()));
+        distribution.forEach((range, count) -> System.out.printf("%-17s | %d\n", range, count));
+    }
+
+    public void printCampusAnalytics() {
+        System.out.println("\n--- Campus Analytics Report ---");
+        long start = System.nanoTime();
+        CampusStatistics stats = campusAnalytics.compute();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Students: %d | Enrollments: %d | Dropped: %d%n",
+            stats.getStudentCount(), stats.getEnrollmentCount(), stats.getDroppedCount());
+        System.out.printf("Passed: %d | Failed: %d | Ungraded: %d | Pass rate: %.1f%% | Fail rate: %.1f%%%n",
+            stats.getPassedCount(), stats.getFailedCount(), stats.getUngradedCount(),
+            stats.getPassRate() * 100, stats.getFailRate() * 100);
+
+        System.out.println("\nDepartment        | GPA");
+        System.out.println("------------------|------");
+        for (String department : stats.getDepartments()) {
+            System.out.printf("%-17s | %.2f%n", department, stats.getDepartmentGpa(department));
+        }
+
+        System.out.println("\nSemester | Credits Attempted | Credits Earned");
+        System.out.println("---------|-------------------|---------------");
+        for (Semester semester : Semester.values()) {
+            System.out.printf("%-8s | %17d | %14d%n", semester,
+                stats.getCreditsAttempted(semester), stats.getCreditsEarned(semester));
+        }
+
+        System.out.println("\nCourse     | Enrolled | Pass Rate");
+        System.out.println("-----------|----------|----------");
+        for (String code : stats.getCourseCodes()) {
+            System.out.printf("%-10s | %8d | %8.1f%%%n", code,
+                stats.getCourseEnrollments(code), stats.getCoursePassRate(code) * 100);
+        }
+        System.out.printf("%nComputed in %d ms on %d worker threads%n", elapsedMs, campusAnalytics.getParallelism());
     }
-    
+
+    /**
+     * Verifies every student's running GPA and credit totals against a full recomputation.
+     * @return the number of students whose totals do not match
+     */
+    public long verifyStudentAggregates() {
+        System.out.println("\n--- GPA Aggregate Consistency Check ---");
+        List<Student> mismatched = dataStore.getStudents().values().parallelStream()
+            .filter(s -> !s.verifyAcademicTotals())
+            .collect(Collectors.toList());
+        mismatched.forEach(s -> System.out.println("Mismatch for student " + s.getId() + " (" + s.getFullName() + ")"));
+        long mismatches = mismatched.size();
+        System.out.println("Students checked: " + dataStore.getStudents().size() + ", mismatches: " + mismatches);
+        boolean distributionConsistent = getGradeDistribution().verify();
+        System.out.println("Grade distribution counters: " + (distributionConsistent ? "consistent" : "MISMATCH"));
+        return mismatches;
+    }
+
     private String getGpaRange(Grade grade) {
         double gp = grade.getGradePoint();
         if (gp >= 9.0) return "9.0 - 10.0 (S/A)";
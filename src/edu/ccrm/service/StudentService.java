@@ -2,6 +2,7 @@ package edu.ccrm.service;
 
 import edu.ccrm.domain.Transcript;
 import edu.ccrm.domain.person.Student;
+import edu.ccrm.event.ChangeEvent;
 import edu.ccrm.exception.StudentNotFoundException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -32,6 +33,7 @@ public class StudentService {
                 .orElseThrow(() -> new StudentNotFoundException("Student with ID " + id + " not found."));
         student.setFullName(newName);
         student.setEmail(newEmail);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.STUDENT_UPDATED, id);
     }
 
     public String getStudentProfile(int id) throws StudentNotFoundException {
@@ -50,29 +52,34 @@ public class StudentService {
         Student student = dataStore.findStudentById(id)
                 .orElseThrow(() -> new StudentNotFoundException("Student with ID " + id + " not found."));
         student.setStatus(Student.Status.INACTIVE);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.STUDENT_STATUS_CHANGED, id);
     }
 
     public void reactivateStudent(int id) throws StudentNotFoundException {
         Student student = dataStore.findStudentById(id)
                 .orElseThrow(() -> new StudentNotFoundException("Student with ID " + id + " not found."));
         student.setStatus(Student.Status.ACTIVE);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.STUDENT_STATUS_CHANGED, id);
     }
 
     public void updateStudentBirthDate(int id, LocalDate birthDate) throws StudentNotFoundException {
         Student student = dataStore.findStudentById(id)
                 .orElseThrow(() -> new StudentNotFoundException("Student with ID " + id + " not found."));
         student.setBirthDate(birthDate);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.STUDENT_UPDATED, id);
     }
 
     public void recordStudentLogin(int id) throws StudentNotFoundException {
         Student student = dataStore.findStudentById(id)
                 .orElseThrow(() -> new StudentNotFoundException("Student with ID " + id + " not found."));
         student.recordLogin();
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.STUDENT_UPDATED, id);
     }
 
     public void graduateStudent(int id, LocalDate graduationDate) throws StudentNotFoundException {
         Student student = dataStore.findStudentById(id)
                 .orElseThrow(() -> new StudentNotFoundException("Student with ID " + id + " not found."));
         student.setGraduationDate(graduationDate);
+        dataStore.getChangeEvents().publish(ChangeEvent.Type.STUDENT_STATUS_CHANGED, id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package edu.ccrm.test;
+
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.SyntheticDataGenerator;
+import edu.ccrm.service.CampusAnalytics;
+import edu.ccrm.service.CampusStatistics;
+import edu.ccrm.service.DataStore;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Scaling benchmark for CampusAnalytics: computes the campus report over a dataset from
+ * SyntheticDataGenerator with 1, 2, 4, ... up to N worker threads and checks every result
+ * against the single-threaded one.
+ * Usage: AnalyticsBenchmark [students (default 1000000)] [max threads (default: all cores)]
+ * The default size needs a few GB of heap (e.g. -Xmx4g).
+ */
+public class AnalyticsBenchmark {
+    private static final int ENROLLMENTS_PER_STUDENT = 5;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int studentCount = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("=== CCRM Analytics Scaling Benchmark ===");
+        System.out.println("Generating " + studentCount + " students...");
+        DataStore dataStore = load(studentCount);
+
+        CampusStatistics baseline = null;
+        double baselineMs = 0;
+        System.out.println("\nThreads | Best (ms) | Speedup | Result");
+        System.out.println("--------|-----------|---------|-------");
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            try (CampusAnalytics analytics = new CampusAnalytics(dataStore, threads, 2048)) {
+                CampusStatistics result = analytics.compute(); // Warm-up
+                long best = Long.MAX_VALUE;
+                for (int run = 0; run < RUNS; run++) {
+                    long start = System.nanoTime();
+                    result = analytics.compute();
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                double bestMs = best / 1_000_000.0;
+                if (baseline == null) {
+                    baseline = result;
+                    baselineMs = bestMs;
+                }
+                System.out.printf("%7d | %9.1f | %6.2fx | %s%n", threads, bestMs, baselineMs / bestMs,
+                        result.matches(baseline) ? "OK" : "MISMATCH");
+            }
+        }
+
+        System.out.printf("%nPass rate: %.2f%%, enrollments: %d%n", baseline.getPassRate() * 100, baseline.getEnrollmentCount());
+        System.out.println("\n=== Benchmark Complete ===");
+    }
+
+    // 1, 2, 4, ... and finally maxThreads itself
+    private static int nextThreadCount(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+
+    // Generates the dataset into a temporary directory and imports it, quietly
+    private static DataStore load(int studentCount) throws IOException {
+        Path dir = Files.createTempDirectory("ccrm-analytics-bench");
+        DataStore dataStore = new DataStore();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        try {
+            new SyntheticDataGenerator.Builder().students(studentCount).enrollmentsPerStudent(ENROLLMENTS_PER_STUDENT)
+                    .build().generate(dir);
+            ImportExportService service = new ImportExportService(dataStore, dir);
+            service.importCourses("courses.csv");
+            service.importStudents("students.csv");
+            service.importEnrollments("enrollments.csv");
+        } finally {
+            System.setOut(console);
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+        return dataStore;
+    }
+}
@@ -0,0 +1,104 @@
+package edu.ccrm.test;
+
+import edu.ccrm.io.CsvFiles;
+import edu.ccrm.io.CsvTokenizer;
+import edu.ccrm.io.SyntheticDataGenerator;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compares plain and gzip-compressed CSV files of students from SyntheticDataGenerator: file size, write throughput and read
+ * throughput (reading includes tokenizing every record, as an import does).
+ * Throughput is measured in uncompressed MB/s.
+ * Usage: CompressionBenchmark [rows (default 500000)] [buffer size (default 65536)]
+ */
+public class CompressionBenchmark {
+    private static final int[] LEVELS = {0, 1, 6, 9}; // 0 = plain CSV
+
+    public static void main(String[] args) throws IOException {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 500_000;
+        int bufferSize = (args.length > 1) ? Integer.parseInt(args[1]) : 65536;
+
+        System.out.println("=== CCRM CSV Compression Benchmark ===");
+        Path dir = Files.createTempDirectory("ccrm-compression-bench");
+        List<String> lines = generateStudents(dir.resolve("generated"), rows);
+        long rawBytes = lines.stream().mapToLong(line -> line.length() + 1).sum();
+        double rawMb = rawBytes / (1024.0 * 1024);
+        System.out.printf("Generated %d rows (%.1f MB uncompressed), buffer size %d%n", rows, rawMb, bufferSize);
+
+        for (int level : LEVELS) {
+            Path file = fileFor(dir, level); // JIT warm-up, not measured
+            write(file, level, lines, bufferSize);
+            read(file, bufferSize);
+            Files.delete(file);
+        }
+
+        System.out.println("\nFormat      | Size (MB) | Ratio | Write MB/s | Read MB/s | Rows read");
+        System.out.println("------------|-----------|-------|------------|-----------|----------");
+        for (int level : LEVELS) {
+            Path file = fileFor(dir, level);
+            long start = System.nanoTime();
+            write(file, level, lines, bufferSize);
+            double writeSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            long rowsRead = read(file, bufferSize);
+            double readSeconds = (System.nanoTime() - start) / 1e9;
+
+            long size = Files.size(file);
+            System.out.printf("%-11s | %9.1f | %4.1fx | %10.1f | %9.1f | %s%n",
+                    (level == 0) ? "csv" : "csv.gz (" + level + ")", size / (1024.0 * 1024), (double) rawBytes / size,
+                    rawMb / writeSeconds, rawMb / readSeconds, (rowsRead == rows) ? "OK" : rowsRead + " (MISMATCH)");
+            Files.delete(file);
+        }
+        Files.delete(dir);
+        System.out.println("\n=== Benchmark Complete ===");
+    }
+
+    private static Path fileFor(Path dir, int level) {
+        return dir.resolve((level == 0) ? "students.csv" : "students-" + level + ".csv" + CsvFiles.GZIP_SUFFIX);
+    }
+
+    private static void write(Path file, int level, List<String> lines, int bufferSize) throws IOException {
+        try (Writer out = new BufferedWriter(CsvFiles.newWriter(file, level > 0, bufferSize, level), bufferSize)) {
+            for (String line : lines) {
+                out.write(line);
+                out.write('\n');
+            }
+        }
+    }
+
+    private static long read(Path file, int bufferSize) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        long rows = 0;
+        try (BufferedReader reader = CsvFiles.newReader(file, bufferSize)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (tokenizer.reset(line).fieldCount() == 11) {
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Student rows without the header line, as text to be written in each format
+    private static List<String> generateStudents(Path dir, int rows) throws IOException {
+        new SyntheticDataGenerator.Builder().students(rows).build().generate(dir);
+        List<String> lines = Files.readAllLines(dir.resolve("students.csv"), StandardCharsets.UTF_8);
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+        return lines.subList(1, lines.size());
+    }
+}
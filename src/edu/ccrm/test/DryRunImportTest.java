@@ -0,0 +1,122 @@
+package edu.ccrm.test;
+
+import edu.ccrm.exception.InvalidRecordException.Reason;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportExportService.ValidationResult;
+import edu.ccrm.io.SyntheticDataGenerator;
+import edu.ccrm.service.DataStore;
+import edu.ccrm.util.IdGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Checks the dry-run import (ImportExportService.validateImport): a generated dataset with
+ * a few broken rows appended validates with exactly those rows rejected, for the right
+ * reasons, in plain and gzip-compressed form, while the store stays empty and no student
+ * IDs are used; an import of the same files then accepts what the dry run accepted, and
+ * reports the rows it only warns about in its error report instead of on System.err.
+ * Usage: DryRunImportTest [students (default 200000)]
+ */
+public class DryRunImportTest {
+
+    public static void main(String[] args) throws IOException {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+        System.out.println("=== CCRM Dry-Run Import Test ===");
+        Path dir = Files.createTempDirectory("ccrm-dry-run");
+        boolean passed = true;
+        try {
+            SyntheticDataGenerator.Builder builder = new SyntheticDataGenerator.Builder().students(rows).courses(100);
+            builder.build().generate(dir);
+            builder.compress(true).build().generate(dir);
+            for (String file : new String[] {"students.csv", "students.csv.gz"}) {
+                appendBrokenStudents(dir.resolve(file), file.endsWith(".gz"));
+            }
+
+            DataStore dataStore = new DataStore();
+            ImportExportService service = new ImportExportService(dataStore, dir);
+            int nextId = IdGenerator.reserveStudentIds(0);
+            for (String suffix : new String[] {"", ".gz"}) {
+                String label = suffix.isEmpty() ? "" : " (gzip)";
+                List<ValidationResult> results = service.validateImport("courses.csv" + suffix, "students.csv" + suffix,
+                        "enrollments.csv" + suffix);
+                passed &= check("Three files validated" + label, results.size() == 3);
+                ValidationResult courses = results.get(0);
+                ValidationResult students = results.get(1);
+                ValidationResult enrollments = results.get(2);
+                passed &= check("Courses all valid" + label, courses.records() == 100 && courses.rejected() == 0);
+                passed &= check("Students: every row read" + label, students.records() == rows + 5);
+                passed &= check("Students: broken rows rejected" + label, students.rejected() == 5
+                        && students.reasons().get(Reason.INVALID_VALUE) == 2
+                        && students.reasons().get(Reason.UNKNOWN_REFERENCE) == 1
+                        && students.reasons().get(Reason.INVALID_DATE) == 1
+                        && students.reasons().get(Reason.MISSING_VALUE) == 1);
+                passed &= check("Enrollments all valid" + label, enrollments.rejected() == 0);
+            }
+            passed &= check("Store unchanged", dataStore.getStudents().isEmpty() && dataStore.getCourses().isEmpty());
+            passed &= check("No student IDs used", IdGenerator.reserveStudentIds(0) == nextId);
+
+            // The import accepts the dry run's rows, and also the rows it only warns about
+            PrintStream console = System.out;
+            PrintStream errors = System.err;
+            ByteArrayOutputStream errorOutput = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+            System.setErr(new PrintStream(errorOutput, true, StandardCharsets.UTF_8));
+            try {
+                service.importCourses("courses.csv");
+                service.importStudents("students.csv");
+            } finally {
+                System.setOut(console);
+                System.setErr(errors);
+            }
+            passed &= check("Import accepts the valid rows and the warned ones", dataStore.getStudents().size() == rows + 3);
+            List<String> report = Files.readAllLines(dir.resolve("students.csv.errors.csv"));
+            passed &= check("Warnings are in the error report", report.stream().filter(line -> line.contains(",DEFAULT_USED,")).count() == 1
+                    && report.stream().filter(line -> line.contains(",VALUE_SKIPPED,")).count() == 1
+                    && report.get(0).contains("2 student records rejected") && report.get(0).contains("2 warnings"));
+            List<String> messages = errorOutput.toString(StandardCharsets.UTF_8).lines().toList();
+            passed &= check("One summary line per import on System.err", messages.size() == 1 && messages.get(0).contains("2 warnings"));
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+        System.out.println(passed ? "\nAll checks passed." : "\nSOME CHECKS FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    // Invalid email and unknown status (an import only warns), unknown course (an import skips it),
+    // bad date and missing name (an import rejects them too)
+    private static void appendBrokenStudents(Path file, boolean gzip) throws IOException {
+        String rows = String.join(System.lineSeparator(),
+                "0,Bad Email,not-an-email,2024-01-02,ACTIVE,,,,,,",
+                "0,Bad Status,bad.status@example.edu,2024-01-02,ENROLLED,,,,,,",
+                "0,Bad Course,bad.course@example.edu,2024-01-02,ACTIVE,,,,,NOPE999:A,",
+                "0,Bad Date,bad.date@example.edu,2024-02-30x,ACTIVE,,,,,,",
+                "0,,no.name@example.edu,2024-01-02,ACTIVE,,,,,,") + System.lineSeparator();
+        if (!gzip) {
+            Files.writeString(file, rows, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            return;
+        }
+        // A gzip file may hold several members; readers see their concatenation
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND))) {
+            out.write(rows.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static boolean check(String name, boolean ok) {
+        System.out.println((ok ? "PASS " : "FAIL ") + name);
+        return ok;
+    }
+}
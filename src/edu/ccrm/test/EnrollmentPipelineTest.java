@@ -0,0 +1,154 @@
+package edu.ccrm.test;
+
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.enrollment.Enrollment;
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.exception.CourseNotFoundException;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.service.DataStore;
+import edu.ccrm.service.EnrollmentCommandPipeline;
+import edu.ccrm.service.EnrollmentService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks EnrollmentCommandPipeline: commands submitted from several threads are all applied,
+ * in submission order per student; the blocking forms throw EnrollmentService's exceptions;
+ * and closing the pipeline while producers are still submitting into small, full rings
+ * completes every future (applied, or failed because the pipeline is closed).
+ * Usage: EnrollmentPipelineTest [students (default 2000)] [close rounds (default 200)]
+ */
+public class EnrollmentPipelineTest {
+    private static final String[] COURSES = {"CS101", "MATH101", "PHYS101"};
+
+    public static void main(String[] args) throws Exception {
+        int studentCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 200;
+        System.out.println("=== CCRM Enrollment Pipeline Test ===");
+        DataStore dataStore = new DataStore();
+        for (String code : COURSES) {
+            dataStore.addCourse(new Course.Builder(code, code + " Course").credits(4).department(code.substring(0, 2))
+                    .semester(Semester.FALL).build());
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            students.add(dataStore.addStudent("Student " + i, "student" + i + "@example.edu", LocalDate.of(2024, 1, 15)));
+        }
+        EnrollmentService service = new EnrollmentService(dataStore);
+        boolean passed = true;
+
+        // Four producers, each enrolling and then grading its share of the students
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        try (EnrollmentCommandPipeline pipeline = new EnrollmentCommandPipeline(service, 3, 64, null)) {
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                int first = p;
+                List<CompletableFuture<Void>> own = new ArrayList<>();
+                Thread producer = new Thread(() -> {
+                    for (int i = first; i < studentCount; i += 4) {
+                        int id = students.get(i).getId();
+                        for (String code : COURSES) {
+                            own.add(pipeline.enroll(id, code, Semester.FALL));
+                            own.add(pipeline.assignGrade(id, code, Grade.values()[i % 3]));
+                        }
+                    }
+                    synchronized (results) {
+                        results.addAll(own);
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture<?>[]::new)).get(1, TimeUnit.MINUTES);
+            passed &= check("Every command applied", results.stream().noneMatch(CompletableFuture::isCompletedExceptionally));
+
+            boolean ordered = true;
+            for (int i = 0; i < studentCount; i++) {
+                List<Enrollment> enrollments = students.get(i).getEnrollments();
+                Grade expected = Grade.values()[i % 3];
+                ordered &= enrollments.size() == COURSES.length
+                        && enrollments.stream().allMatch(e -> e.getGrade() == expected);
+            }
+            passed &= check("Each student enrolled, then graded, in submission order", ordered);
+
+            int id = students.get(0).getId();
+            passed &= check("Blocking form throws DuplicateEnrollmentException", throwsType(
+                    () -> pipeline.enrollAndWait(id, "CS101", Semester.FALL), DuplicateEnrollmentException.class));
+            passed &= check("Blocking form throws CourseNotFoundException", throwsType(
+                    () -> pipeline.enrollAndWait(id, "NOPE101", Semester.FALL), CourseNotFoundException.class));
+        }
+
+        // Close while producers keep submitting into two-slot rings behind a slow writer
+        long unsettled = 0;
+        long applied = 0;
+        long rejected = 0;
+        for (int round = 0; round < rounds; round++) {
+            EnrollmentCommandPipeline pipeline = new EnrollmentCommandPipeline(service, 2, 2, Thread::onSpinWait);
+            List<CompletableFuture<Void>> submitted = new ArrayList<>();
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 3; p++) {
+                Thread producer = new Thread(() -> {
+                    List<CompletableFuture<Void>> own = new ArrayList<>();
+                    for (int i = 0; i < 200; i++) {
+                        own.add(pipeline.assignMarks(students.get(i % studentCount).getId(), "CS101", 75));
+                    }
+                    synchronized (submitted) {
+                        submitted.addAll(own);
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            Thread.sleep(round % 3); // Close at varying points of the run
+            pipeline.close();
+            for (Thread producer : producers) {
+                producer.join(10_000);
+            }
+            for (CompletableFuture<Void> future : submitted) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                    applied++;
+                } catch (ExecutionException e) {
+                    rejected++;
+                } catch (TimeoutException e) {
+                    unsettled++;
+                }
+            }
+            unsettled += producers.stream().filter(Thread::isAlive).count();
+        }
+        System.out.printf("Close rounds: %d commands applied, %d failed as closed%n", applied, rejected);
+        passed &= check("Every future completes when the pipeline closes mid-stream", unsettled == 0);
+
+        System.out.println(passed ? "\nAll checks passed." : "\nSOME CHECKS FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    private static boolean throwsType(Call call, Class<? extends Exception> type) {
+        try {
+            call.run();
+            return false;
+        } catch (Exception e) {
+            return type.isInstance(e);
+        }
+    }
+
+    private static boolean check(String name, boolean ok) {
+        System.out.println((ok ? "PASS " : "FAIL ") + name);
+        return ok;
+    }
+}
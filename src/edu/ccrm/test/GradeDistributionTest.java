@@ -0,0 +1,70 @@
+package edu.ccrm.test;
+
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.enrollment.Grade;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.service.DataStore;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.GradeDistribution;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that GradeDistribution's online counters do not drift when full rebuilds run
+ * while grades keep changing: once the change stream is drained, the counters match a
+ * full recomputation.
+ * Usage: GradeDistributionTest [students (default 20000)] [grade changes (default 400000)]
+ */
+public class GradeDistributionTest {
+
+    public static void main(String[] args) throws Exception {
+        int studentCount = (args.length > 0) ? Integer.parseInt(args[0]) : 20_000;
+        int changes = (args.length > 1) ? Integer.parseInt(args[1]) : 400_000;
+        System.out.println("=== CCRM Grade Distribution Test ===");
+        DataStore dataStore = new DataStore();
+        dataStore.addCourse(new Course.Builder("CS101", "Programming").credits(3).department("CS").semester(Semester.FALL).build());
+        EnrollmentService service = new EnrollmentService(dataStore);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            int id = dataStore.addStudent("Student " + i, "student" + i + "@example.edu", LocalDate.of(2024, 1, 15)).getId();
+            service.enrollStudent(id, "CS101", Semester.FALL);
+            ids.add(id);
+        }
+        GradeDistribution distribution = new GradeDistribution(dataStore);
+
+        Thread grader = new Thread(() -> {
+            Random random = new Random(31);
+            try {
+                for (int i = 0; i < changes; i++) {
+                    service.assignGrade(ids.get(random.nextInt(ids.size())), "CS101", Grade.values()[random.nextInt(6)]);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        grader.start();
+        int rebuilds = 0;
+        while (grader.isAlive()) {
+            distribution.rebuild();
+            rebuilds++;
+        }
+
+        // Events are applied on the subscriber thread; give it time to drain
+        boolean consistent = false;
+        for (int attempt = 0; attempt < 100 && !consistent; attempt++) {
+            Thread.sleep(50);
+            consistent = distribution.verify();
+        }
+        System.out.println(rebuilds + " rebuilds during " + changes + " grade changes");
+        boolean passed = check("Counters match a full recomputation", consistent);
+        System.out.println(passed ? "\nAll checks passed." : "\nSOME CHECKS FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean check(String name, boolean ok) {
+        System.out.println((ok ? "PASS " : "FAIL ") + name);
+        return ok;
+    }
+}
@@ -0,0 +1,133 @@
+package edu.ccrm.test;
+
+import edu.ccrm.domain.course.Course;
+import edu.ccrm.domain.enrollment.Semester;
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.exception.CourseNotFoundException;
+import edu.ccrm.service.DataStore;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.IdempotencyCache;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks idempotent enrollment: concurrent retries with one key enroll the student once
+ * and all report the first attempt's success, also on a later replay; a recorded failure
+ * is replayed without re-running the rules; a key reused for another request is rejected;
+ * a released claim passes the key on to a waiting retry.
+ * Usage: IdempotencyTest [rounds (default 500)] [retries per round (default 8)]
+ */
+public class IdempotencyTest {
+
+    public static void main(String[] args) throws Exception {
+        int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+        int retries = (args.length > 1) ? Integer.parseInt(args[1]) : 8;
+        System.out.println("=== CCRM Idempotency Test ===");
+        DataStore dataStore = new DataStore();
+        dataStore.addCourse(new Course.Builder("CS101", "Programming").credits(3).department("CS").semester(Semester.FALL).build());
+        EnrollmentService service = new EnrollmentService(dataStore);
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < rounds; i++) {
+            students.add(dataStore.addStudent("Student " + i, "student" + i + "@example.edu", LocalDate.of(2024, 1, 15)));
+        }
+        boolean passed = true;
+
+        // Every retry of a round starts at once, with the same key
+        ExecutorService pool = Executors.newFixedThreadPool(retries);
+        int failedRetries = 0;
+        int duplicateEnrollments = 0;
+        try {
+            for (int round = 0; round < rounds; round++) {
+                Student student = students.get(round);
+                String key = "enroll-" + round;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> attempts = new ArrayList<>();
+                for (int r = 0; r < retries; r++) {
+                    attempts.add(pool.submit(() -> {
+                        start.await();
+                        service.enrollStudent(key, student.getId(), "CS101", Semester.FALL);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> attempt : attempts) {
+                    try {
+                        attempt.get();
+                    } catch (Exception e) {
+                        failedRetries++;
+                    }
+                }
+                if (student.getEnrollments().size() != 1) {
+                    duplicateEnrollments++;
+                }
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        passed &= check("Concurrent retries all report success (" + rounds * retries + " calls)", failedRetries == 0);
+        passed &= check("Each student enrolled exactly once", duplicateEnrollments == 0);
+        passed &= check("Later replay still reports success", succeeds(() ->
+                service.enrollStudent("enroll-0", students.get(0).getId(), "CS101", Semester.FALL)));
+
+        // A failure is recorded and replayed, even once the request would now succeed
+        Student other = students.get(1);
+        passed &= check("Unknown course fails", !succeeds(() -> service.enrollStudent("late", other.getId(), "CS201", Semester.FALL)));
+        dataStore.addCourse(new Course.Builder("CS201", "Data Structures").credits(3).department("CS").semester(Semester.FALL).build());
+        boolean replayed = false;
+        try {
+            service.enrollStudent("late", other.getId(), "CS201", Semester.FALL);
+        } catch (CourseNotFoundException e) {
+            replayed = true;
+        }
+        passed &= check("Recorded failure is replayed", replayed && other.getEnrollments().size() == 1);
+        passed &= check("Key reused for another request is rejected", !succeeds(() ->
+                service.enrollStudent("enroll-0", students.get(2).getId(), "CS201", Semester.FALL)));
+
+        // A claim given up without an outcome goes to the retry waiting for it
+        IdempotencyCache cache = new IdempotencyCache(10, 60);
+        passed &= check("First caller claims the key", cache.claim("k", "op") == null);
+        Thread waiter = new Thread(() -> {
+            if (cache.claim("k", "op") == null) {
+                cache.complete("k", null);
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        passed &= check("Retry waits while the key is pending", waiter.isAlive());
+        cache.release("k");
+        waiter.join(5000);
+        IdempotencyCache.Outcome outcome = cache.claim("k", "op");
+        passed &= check("Released claim is taken over by the retry", !waiter.isAlive() && outcome != null && outcome.isSuccess());
+        cache.complete("k", new IllegalStateException("late"));
+        passed &= check("Completed outcome is never replaced", cache.claim("k", "op").isSuccess());
+
+        System.out.println(passed ? "\nAll checks passed." : "\nSOME CHECKS FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    private static boolean succeeds(Call call) {
+        try {
+            call.run();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean check(String name, boolean ok) {
+        System.out.println((ok ? "PASS " : "FAIL ") + name);
+        return ok;
+    }
+}
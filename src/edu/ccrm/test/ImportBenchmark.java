@@ -0,0 +1,97 @@
+package edu.ccrm.test;
+
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.io.MappedCsvImporter;
+import edu.ccrm.io.SyntheticDataGenerator;
+import edu.ccrm.service.DataStore;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Scaling benchmark for MappedCsvImporter: generates a students CSV (with quoted fields)
+ * with SyntheticDataGenerator, imports it with 1, 2, 4, ... up to N threads into a fresh DataStore each time,
+ * and checks that IDs were assigned in row order.
+ * Usage: ImportBenchmark [rows (default 1000000)] [max threads (default: all cores)]
+ * The default size needs a few GB of heap (e.g. -Xmx4g).
+ */
+public class ImportBenchmark {
+    public static void main(String[] args) throws IOException {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("=== CCRM Parallel Import Scaling Benchmark ===");
+        Path dir = Files.createTempDirectory("ccrm-import-bench");
+        Path courses = dir.resolve("courses.csv");
+        Path students = dir.resolve("students.csv");
+        new SyntheticDataGenerator.Builder().students(rows).build().generate(dir);
+        System.out.printf("Generated %d rows (%.1f MB) in %s%n", rows, Files.size(students) / (1024.0 * 1024), dir);
+
+        // Warm-up pass (JIT and heap sizing), not measured
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        try {
+            MappedCsvImporter warmUp = new MappedCsvImporter(new DataStore(), maxThreads);
+            warmUp.importCourses(courses);
+            warmUp.importStudents(students);
+        } finally {
+            System.setOut(console);
+        }
+
+        double baselineMs = 0;
+        System.out.println("\nThreads | Time (ms) | Rows/s     | Speedup | IDs in row order");
+        System.out.println("--------|-----------|------------|---------|-----------------");
+        for (int threads = 1; threads <= maxThreads; threads = (threads == maxThreads) ? threads + 1 : Math.min(threads * 2, maxThreads)) {
+            DataStore dataStore = new DataStore();
+            MappedCsvImporter importer = new MappedCsvImporter(dataStore, threads);
+            System.setOut(new PrintStream(PrintStream.nullOutputStream())); // Hide the importer's own report
+            long elapsed;
+            try {
+                importer.importCourses(courses);
+                System.gc();
+                long start = System.nanoTime();
+                importer.importStudents(students);
+                elapsed = System.nanoTime() - start;
+            } finally {
+                System.setOut(console);
+            }
+            double ms = elapsed / 1_000_000.0;
+            if (threads == 1) {
+                baselineMs = ms;
+            }
+            System.out.printf("%7d | %9.0f | %10.0f | %6.2fx | %s%n", threads, ms, rows / (ms / 1000),
+                    baselineMs / ms, idsInRowOrder(dataStore, rows) ? "OK" : "MISMATCH");
+        }
+
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+        System.out.println("\n=== Benchmark Complete ===");
+    }
+
+    // Row i has ID i in the file and an email ending in i before the '@', so IDs in row
+    // order means that number = ID - first ID + 1
+    private static boolean idsInRowOrder(DataStore dataStore, int rows) {
+        if (dataStore.getStudents().size() != rows) {
+            return false;
+        }
+        int firstId = dataStore.getStudents().keySet().stream().mapToInt(Integer::intValue).min().orElse(0);
+        for (Student student : dataStore.getStudents().values()) {
+            String email = student.getEmail();
+            int end = email.indexOf('@');
+            int start = end;
+            while (start > 0 && Character.isDigit(email.charAt(start - 1))) {
+                start--;
+            }
+            if (student.getId() - firstId + 1 != Integer.parseInt(email.substring(start, end))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
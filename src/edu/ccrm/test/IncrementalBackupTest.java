@@ -0,0 +1,117 @@
+package edu.ccrm.test;
+
+import edu.ccrm.io.BackupService;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Checks incremental backups (BackupService): the second of two backups shares the files
+ * that did not change with the first (hard links) and copies only the changed ones, every
+ * backup holds exactly the data directory as it was, its manifest lists the right SHA-256
+ * hashes, and restoring either backup (also after the other is deleted) brings back its data.
+ */
+public class IncrementalBackupTest {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== CCRM Incremental Backup Test ===");
+        Path root = Files.createTempDirectory("ccrm-backup");
+        Path data = root.resolve("data");
+        boolean passed = true;
+        try {
+            Files.createDirectories(data.resolve("deltas"));
+            Files.writeString(data.resolve("students.csv"), "ID,FullName\n1,Ada\n".repeat(5000));
+            Files.writeString(data.resolve("courses.csv"), "Code,Title\nCS101,Programming\n");
+            Files.writeString(data.resolve("enrollments.csv"), "StudentID,CourseCode\n1,CS101\n");
+            Files.writeString(data.resolve("deltas/students.jsonl"), "{\"id\":1}\n");
+            BackupService service = new BackupService(data, root.resolve("backup"));
+
+            Path first = Path.of(quietly(service::backupData));
+            Map<String, String> firstData = snapshot(data);
+
+            // Next backup in the next second (backups are named by timestamp)
+            Thread.sleep(1100);
+            Files.writeString(data.resolve("courses.csv"), "Code,Title\nCS101,Programming\nCS102,Data Structures\n");
+            Files.writeString(data.resolve("deltas/courses.jsonl"), "{\"code\":\"CS102\"}\n");
+            Files.delete(data.resolve("enrollments.csv"));
+            Path second = Path.of(quietly(service::backupData));
+            Map<String, String> secondData = snapshot(data);
+
+            passed &= check("First backup holds the data as it was", snapshot(first).equals(firstData));
+            passed &= check("Second backup holds the data as it is", snapshot(second).equals(secondData));
+            passed &= check("Unchanged files are shared with the first backup",
+                    Files.isSameFile(first.resolve("students.csv"), second.resolve("students.csv"))
+                    && Files.isSameFile(first.resolve("deltas/students.jsonl"), second.resolve("deltas/students.jsonl")));
+            passed &= check("Changed files are copied", !Files.isSameFile(first.resolve("courses.csv"), second.resolve("courses.csv")));
+            passed &= check("Manifests list the SHA-256 of every file",
+                    readManifest(manifestOf(first)).equals(firstData) && readManifest(manifestOf(second)).equals(secondData));
+
+            passed &= check("First backup restores", service.restoreBackup(timestampOf(first)) && snapshot(data).equals(firstData));
+            passed &= check("First backup deleted with its manifest", service.deleteBackup(timestampOf(first))
+                    && Files.notExists(first) && Files.notExists(manifestOf(first)));
+            passed &= check("Second backup intact and restores", snapshot(second).equals(secondData)
+                    && service.restoreBackup(timestampOf(second)) && snapshot(data).equals(secondData));
+        } finally {
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+        System.out.println(passed ? "\nAll checks passed." : "\nSOME CHECKS FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    // SHA-256 of every regular file, by path relative to the directory
+    private static Map<String, String> snapshot(Path dir) throws IOException, NoSuchAlgorithmException {
+        Map<String, String> hashes = new HashMap<>();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path file : paths.filter(Files::isRegularFile).toList()) {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+                hashes.put(dir.relativize(file).toString().replace('\\', '/'), HexFormat.of().formatHex(digest));
+            }
+        }
+        return hashes;
+    }
+
+    private static Map<String, String> readManifest(Path manifest) throws IOException {
+        Map<String, String> hashes = new HashMap<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            hashes.put(line.substring(line.indexOf("  ") + 2), line.substring(0, line.indexOf("  ")));
+        }
+        return hashes;
+    }
+
+    private static Path manifestOf(Path backup) {
+        return backup.resolveSibling(backup.getFileName() + ".sha256");
+    }
+
+    private static String timestampOf(Path backup) {
+        return backup.getFileName().toString().substring("backup_".length());
+    }
+
+    private static String quietly(Supplier<String> task) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        try {
+            return task.get();
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static boolean check(String name, boolean ok) {
+        System.out.println((ok ? "PASS " : "FAIL ") + name);
+        return ok;
+    }
+}
@@ -0,0 +1,116 @@
+package edu.ccrm.test;
+
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.SyntheticDataGenerator;
+import edu.ccrm.service.DataStore;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Compares the JSON Lines and CSV paths of ImportExportService on a dataset from
+ * SyntheticDataGenerator: export time and size for students and enrollments, and import
+ * time for students. Note that CSV files of at least
+ * import.parallel.min.bytes are imported by the memory-mapped parallel importer.
+ * Usage: JsonLinesBenchmark [students (default 1000000)]
+ * The default size needs a few GB of heap (e.g. -Xmx4g).
+ */
+public class JsonLinesBenchmark {
+    private static final int ENROLLMENTS_PER_STUDENT = 3;
+
+    public static void main(String[] args) throws IOException {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.println("=== CCRM JSON Lines vs CSV Benchmark ===");
+        Path dir = Files.createTempDirectory("ccrm-jsonl-bench");
+        DataStore source = load(dir.resolve("generated"), count);
+        ImportExportService service = new ImportExportService(source, dir);
+        System.out.printf("Generated %d students with %d enrollments each on average in %s%n",
+                count, ENROLLMENTS_PER_STUDENT, dir);
+
+        // Warm-up pass (JIT and heap sizing), not measured
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        try {
+            for (String extension : new String[] {".csv", ".jsonl"}) {
+                service.exportData("courses", "courses" + extension);
+                service.exportData("students", "students" + extension);
+                importInto(dir, extension);
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        System.out.println("\nFormat | Export students (ms) | Export enrollments (ms) | Students MB | Enrollments MB | Import students (ms) | Imported");
+        System.out.println("-------|----------------------|-------------------------|-------------|----------------|----------------------|---------");
+        for (String extension : new String[] {".csv", ".jsonl"}) {
+            System.setOut(new PrintStream(PrintStream.nullOutputStream())); // Hide the service's own report
+            long studentsNanos;
+            long enrollmentsNanos;
+            long importNanos;
+            int imported;
+            try {
+                long start = System.nanoTime();
+                service.exportData("students", "students" + extension);
+                studentsNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                service.exportData("enrollments", "enrollments" + extension);
+                enrollmentsNanos = System.nanoTime() - start;
+
+                System.gc();
+                start = System.nanoTime();
+                imported = importInto(dir, extension);
+                importNanos = System.nanoTime() - start;
+            } finally {
+                System.setOut(console);
+            }
+            System.out.printf("%-6s | %20.0f | %23.0f | %11.1f | %14.1f | %20.0f | %s%n", extension.substring(1),
+                    studentsNanos / 1e6, enrollmentsNanos / 1e6,
+                    Files.size(dir.resolve("students" + extension)) / (1024.0 * 1024),
+                    Files.size(dir.resolve("enrollments" + extension)) / (1024.0 * 1024),
+                    importNanos / 1e6, (imported == count) ? "OK" : imported + " (MISMATCH)");
+        }
+
+        deleteTree(dir);
+        System.out.println("\n=== Benchmark Complete ===");
+    }
+
+    // Imports courses, then students, into a fresh store (only the student import is of interest)
+    private static int importInto(Path dir, String extension) {
+        DataStore target = new DataStore();
+        ImportExportService service = new ImportExportService(target, dir);
+        service.importCourses("courses" + extension);
+        service.importStudents("students" + extension);
+        return target.getStudents().size();
+    }
+
+    // Generates the dataset into dir and imports it into the store to export from, quietly
+    private static DataStore load(Path dir, int count) throws IOException {
+        DataStore dataStore = new DataStore();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        try {
+            new SyntheticDataGenerator.Builder().students(count).enrollmentsPerStudent(ENROLLMENTS_PER_STUDENT)
+                    .build().generate(dir);
+            ImportExportService service = new ImportExportService(dataStore, dir);
+            service.importCourses("courses.csv");
+            service.importStudents("students.csv");
+            service.importEnrollments("enrollments.csv");
+        } finally {
+            System.setOut(console);
+            deleteTree(dir);
+        }
+        return dataStore;
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
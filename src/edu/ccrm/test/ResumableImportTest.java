@@ -0,0 +1,187 @@
+package edu.ccrm.test;
+
+import edu.ccrm.domain.person.Student;
+import edu.ccrm.io.MappedCsvImporter;
+import edu.ccrm.io.SyntheticDataGenerator;
+import edu.ccrm.service.DataStore;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Checks checkpointed student imports: an import killed with its JVM after its first
+ * checkpoint resumes from it in a new JVM, rebuilding the committed students under their
+ * old IDs; an import interrupted after its first checkpoint resumes from it when run
+ * again; both end with every student exactly once, in row order, and no checkpoint left
+ * behind; a checkpoint is ignored by a store without its rows whose IDs are in use.
+ * Usage: ResumableImportTest [students (default 300000)]
+ */
+public class ResumableImportTest {
+
+    public static void main(String[] args) throws Exception {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 300_000;
+        System.out.println("=== CCRM Resumable Import Test ===");
+        Path dir = Files.createTempDirectory("ccrm-resume");
+        boolean passed = true;
+        try {
+            new SyntheticDataGenerator.Builder().students(rows).enrollmentsPerStudent(0).build().generate(dir);
+            Path students = dir.resolve("students.csv");
+            Path checkpoint = dir.resolve("students.csv.checkpoint");
+            System.out.printf("Generated %d students (%.1f MB)%n", rows, Files.size(students) / (1024.0 * 1024));
+
+            // Kill an import in a JVM of its own once its first checkpoint is on disk, then
+            // resume it here, before this JVM hands out any student ID
+            Process crashed = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"), Child.class.getName(), students.toString())
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            while (crashed.isAlive() && Files.notExists(checkpoint)) {
+                Thread.onSpinWait();
+            }
+            crashed.destroyForcibly().waitFor();
+            passed &= check("Killed import left a checkpoint", Files.exists(checkpoint));
+            Properties saved = new Properties();
+            try (Reader in = Files.newBufferedReader(checkpoint, StandardCharsets.ISO_8859_1)) {
+                saved.load(in);
+            }
+            String[] committed = saved.getProperty("ids").split("-");
+            int firstId = Integer.parseInt(committed[0]);
+            int lastId = Integer.parseInt(committed[1]);
+            System.out.println("Killed after " + saved.getProperty("rows") + " committed students");
+
+            DataStore restarted = new DataStore();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            PrintStream console = System.out;
+            System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+            long afterRestart;
+            try {
+                afterRestart = new MappedCsvImporter(restarted, 2, 256 * 1024).importStudents(students);
+            } finally {
+                System.setOut(console);
+            }
+            passed &= check("Restarted import rebuilds the committed students",
+                    output.toString(StandardCharsets.UTF_8).contains("Rebuilding those students"));
+            passed &= check("Restarted import reports every student", afterRestart == rows);
+            passed &= check("Every student imported once, in row order", inRowOrder(restarted, rows));
+            passed &= check("Committed students keep their IDs", keptIds(restarted, firstId, lastId));
+            passed &= check("Checkpoint removed after the restarted import", Files.notExists(checkpoint));
+
+            // Interrupt the import as soon as its first checkpoint is on disk
+            DataStore dataStore = new DataStore();
+            MappedCsvImporter importer = new MappedCsvImporter(dataStore, 2, 256 * 1024);
+            Thread first = new Thread(() -> importer.importStudents(students));
+            first.start();
+            while (first.isAlive() && Files.notExists(checkpoint)) {
+                Thread.onSpinWait();
+            }
+            first.interrupt();
+            first.join();
+            int partial = dataStore.getStudents().size();
+            System.out.println("Interrupted after " + partial + " students");
+            passed &= check("Interrupted import left a checkpoint", Files.exists(checkpoint));
+            passed &= check("Interrupted import stopped part-way", partial > 0 && partial < rows);
+
+            // A store without the committed rows must not resume from the checkpoint
+            DataStore other = new DataStore();
+            quietly(() -> new MappedCsvImporter(other, 2, 256 * 1024).importStudents(students));
+            passed &= check("Other store imports every student", other.getStudents().size() == rows);
+            passed &= check("Checkpoint removed after the complete import", Files.notExists(checkpoint));
+
+            // The same store resumes (the checkpoint is gone now, so interrupt and resume once more)
+            dataStore = new DataStore();
+            MappedCsvImporter again = new MappedCsvImporter(dataStore, 2, 256 * 1024);
+            Thread second = new Thread(() -> again.importStudents(students));
+            second.start();
+            while (second.isAlive() && Files.notExists(checkpoint)) {
+                Thread.onSpinWait();
+            }
+            second.interrupt();
+            second.join();
+            long resumed = again.importStudents(students);
+            passed &= check("Resumed import reports every student", resumed == rows);
+            passed &= check("Every student imported once, in row order", inRowOrder(dataStore, rows));
+            passed &= check("Checkpoint removed after the resumed import", Files.notExists(checkpoint));
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+        System.out.println(passed ? "\nAll checks passed." : "\nSOME CHECKS FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /** Imports the students file named by its argument, to be killed part-way by the test. */
+    public static final class Child {
+
+        public static void main(String[] args) {
+            new MappedCsvImporter(new DataStore(), 2, 256 * 1024).importStudents(Path.of(args[0]));
+        }
+    }
+
+    // The committed rows are the first of the file, in row order under consecutive IDs
+    private static boolean keptIds(DataStore dataStore, int firstId, int lastId) {
+        for (int id = firstId; id <= lastId; id++) {
+            Student student = dataStore.getStudents().get(id);
+            if (student == null || rowOf(student) != id - firstId + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The generator's emails end in the row number, so row order means increasing numbers by ID
+    private static boolean inRowOrder(DataStore dataStore, int rows) {
+        List<Student> students = new ArrayList<>(dataStore.getStudents().values());
+        students.sort(Comparator.comparingInt(Student::getId));
+        Set<Integer> seen = new HashSet<>();
+        int previous = 0;
+        for (Student student : students) {
+            int row = rowOf(student);
+            if (row <= previous || !seen.add(row)) {
+                return false;
+            }
+            previous = row;
+        }
+        return seen.size() == rows;
+    }
+
+    private static int rowOf(Student student) {
+        String email = student.getEmail();
+        int at = email.indexOf('@');
+        int start = at;
+        while (Character.isDigit(email.charAt(start - 1))) {
+            start--;
+        }
+        return Integer.parseInt(email.substring(start, at));
+    }
+
+    private static void quietly(Runnable task) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        try {
+            task.run();
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static boolean check(String name, boolean ok) {
+        System.out.println((ok ? "PASS " : "FAIL ") + name);
+        return ok;
+    }
+}
@@ -0,0 +1,146 @@
+package edu.ccrm.test;
+
+import edu.ccrm.util.Validator;
+import edu.ccrm.util.Validator.Format;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Property test of the Validator matchers against the regular expressions they replace:
+ * on random strings drawn from the characters that matter to each format (and valid values
+ * with random edits), matcher and regular expression must agree every time, on whole
+ * strings and on ranges inside a longer line. Also checks the bulk column API and prints
+ * the speed of both.
+ * Usage: ValidatorTest [cases per format (default 1000000)] [seed]
+ */
+public class ValidatorTest {
+    private static final Pattern EMAIL = Pattern.compile(
+            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+    private static final Pattern COURSE_CODE = Pattern.compile("[A-Z]{2,4}\\d{3,4}");
+    private static final Pattern REG_NO = Pattern.compile("^R\\d{7}$");
+
+    private static final String[] VALID_EMAILS = {"a@b.co", "john.doe@university.edu", "x_y+z&w*v-u@mail-1.dept.ac.uk"};
+    private static final String[] VALID_CODES = {"CS101", "MATH2001", "ABC123", "PHYS9999"};
+    private static final String[] VALID_REG_NOS = {"R2025001", "R0000000", "R9999999"};
+
+    public static void main(String[] args) {
+        int cases = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : 2025L;
+        System.out.println("=== CCRM Validator Test (seed " + seed + ") ===");
+        Random random = new Random(seed);
+        boolean passed = true;
+
+        passed &= agree(Format.EMAIL, EMAIL, "aZ9_+&*-.@.@x", VALID_EMAILS, cases, random);
+        passed &= agree(Format.COURSE_CODE, COURSE_CODE, "ACZa09 ", VALID_CODES, cases, random);
+        passed &= agree(Format.REG_NO, REG_NO, "R09r ", VALID_REG_NOS, cases, random);
+        passed &= check("Null is invalid", !Validator.isValidEmail(null) && !Validator.isValidCourseCode(null)
+                && !Validator.isValidRegNo(null));
+
+        List<String> column = new ArrayList<>();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 10_000; i++) {
+            String value = (i % 3 == 0) ? mutate(VALID_EMAILS[i % VALID_EMAILS.length], "a@.-", random) : VALID_EMAILS[i % VALID_EMAILS.length];
+            column.add(value);
+            if (!EMAIL.matcher(value).matches()) {
+                expected.set(i);
+            }
+        }
+        column.add(null);
+        expected.set(column.size() - 1);
+        BitSet invalid = new BitSet();
+        int count = Validator.findInvalid(Format.EMAIL, column, invalid);
+        passed &= check("Bulk column validation flags exactly the invalid values",
+                invalid.equals(expected) && count == expected.cardinality());
+
+        timing(column.subList(0, column.size() - 1));
+        System.out.println(passed ? "\nAll checks passed." : "\nSOME CHECKS FAILED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean agree(Format format, Pattern oracle, String alphabet, String[] valid, int cases, Random random) {
+        long accepted = 0;
+        for (int n = 0; n < cases; n++) {
+            String value = (n % 2 == 0)
+                    ? randomString(alphabet, random.nextInt(14), random)
+                    : mutate(valid[random.nextInt(valid.length)], alphabet, random);
+            boolean expected = oracle.matcher(value).matches();
+            // The same value as a range of a longer line, as CSV fields are checked
+            String line = "x," + value + ",y";
+            if (format.matches(value) != expected || format.matches(line, 2, 2 + value.length()) != expected) {
+                System.out.println("Mismatch for " + format + ": '" + value + "' (regular expression: " + expected + ")");
+                return check(format + " agrees with its regular expression", false);
+            }
+            if (expected) {
+                accepted++;
+            }
+        }
+        System.out.printf("%s: %d cases, %d valid%n", format, cases, accepted);
+        return check(format + " agrees with its regular expression", accepted > 0 && accepted < cases);
+    }
+
+    private static String randomString(String alphabet, int length, Random random) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    // One to three random insertions, deletions or replacements
+    private static String mutate(String value, String alphabet, Random random) {
+        StringBuilder sb = new StringBuilder(value);
+        int edits = 1 + random.nextInt(3);
+        for (int e = 0; e < edits; e++) {
+            int pos = random.nextInt(sb.length() + 1);
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+            switch (random.nextInt(3)) {
+                case 0 -> sb.insert(pos, c);
+                case 1 -> {
+                    if (pos < sb.length()) {
+                        sb.deleteCharAt(pos);
+                    }
+                }
+                default -> {
+                    if (pos < sb.length()) {
+                        sb.setCharAt(pos, c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void timing(List<String> emails) {
+        int rounds = 200;
+        long sink = 0;
+        for (int warm = 0; warm < 2; warm++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (String email : emails) {
+                    sink += EMAIL.matcher(email).matches() ? 1 : 0;
+                }
+            }
+            long regex = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (String email : emails) {
+                    sink += Validator.isValidEmail(email) ? 1 : 0;
+                }
+            }
+            long matcher = System.nanoTime() - start;
+            if (warm == 1) {
+                long checks = (long) rounds * emails.size();
+                System.out.printf("Email check: regular expression %.0f ns, matcher %.0f ns (%d)%n",
+                        (double) regex / checks, (double) matcher / checks, sink);
+            }
+        }
+    }
+
+    private static boolean check(String name, boolean ok) {
+        System.out.println((ok ? "PASS " : "FAIL ") + name);
+        return ok;
+    }
+}
@@ -13,6 +13,35 @@ public class IdGenerator {
         return studentIdCounter.incrementAndGet();
     }
 
+    /**
+     * Reserves a contiguous block of student IDs, e.g. for a bulk import that assigns them in row order.
+     * @return the first ID of the block
+     */
+    public static int reserveStudentIds(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Cannot reserve a negative number of IDs: " + count);
+        }
+        return studentIdCounter.getAndAdd(count) + 1;
+    }
+
+    /**
+     * Gives back the last count IDs of the most recent reservation, from firstUnused on, so the
+     * next ID follows the last one used. Does nothing if other IDs were handed out since.
+     * @return whether the IDs were given back
+     */
+    public static boolean releaseStudentIds(int firstUnused, int count) {
+        return count == 0 || studentIdCounter.compareAndSet(firstUnused + count - 1, firstUnused - 1);
+    }
+
+    /**
+     * Moves the student counter forward so that the next ID is above id; never moves it back.
+     * Used when resuming an import whose IDs up to id were handed out before.
+     * @return the highest ID handed out before the call (0 if none)
+     */
+    public static int ensureStudentIdAtLeast(int id) {
+        return studentIdCounter.getAndAccumulate(id, Math::max);
+    }
+
     public static int getNextInstructorId() {
         return instructorIdCounter.incrementAndGet();
     }
@@ -1,18 +1,164 @@
 package edu.ccrm.util;
 
-import java.util.regex.Pattern;
+import java.util.BitSet;
+import java.util.List;
 
 /**
  * Utility class for input validation.
+ * The formats are checked by hand-written matchers rather than regular expressions: one
+ * pass over the characters, no allocation, and they work on any CharSequence or a range
+ * of one (such as a field of a CSV line), so import paths can check values in place.
+ * Each accepts exactly what its regular expression (given below) accepts.
  */
 public class Validator {
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
 
-    public static boolean isValidEmail(String email) {
-        if (email == null) {
+    /**
+     * Validated value formats.
+     */
+    public enum Format {
+        /** {@code ^[a-zA-Z0-9_+&*-]+(?:\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\.)+[a-zA-Z]{2,7}$} */
+        EMAIL,
+        /** {@code [A-Z]{2,4}\d{3,4}} */
+        COURSE_CODE,
+        /** {@code ^R\d{7}$} */
+        REG_NO;
+
+        public boolean matches(CharSequence value) {
+            return value != null && matches(value, 0, value.length());
+        }
+
+        /**
+         * Checks the characters value[start, end) without copying them.
+         */
+        public boolean matches(CharSequence value, int start, int end) {
+            switch (this) {
+                case EMAIL:
+                    return matchesEmail(value, start, end);
+                case COURSE_CODE:
+                    return matchesCourseCode(value, start, end);
+                default:
+                    return matchesRegNo(value, start, end);
+            }
+        }
+    }
+
+    public static boolean isValidEmail(CharSequence email) {
+        return Format.EMAIL.matches(email);
+    }
+
+    public static boolean isValidCourseCode(CharSequence code) {
+        return Format.COURSE_CODE.matches(code);
+    }
+
+    public static boolean isValidRegNo(CharSequence regNo) {
+        return Format.REG_NO.matches(regNo);
+    }
+
+    /**
+     * Validates a whole column of values at once, e.g. the emails of a batch of imported rows.
+     * @param invalid receives the index of every invalid (or null) value; other bits are left as they are
+     * @return the number of invalid values
+     */
+    public static int findInvalid(Format format, List<? extends CharSequence> column, BitSet invalid) {
+        int count = 0;
+        int size = column.size();
+        for (int i = 0; i < size; i++) {
+            if (!format.matches(column.get(i))) {
+                invalid.set(i);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Local part: dot-separated non-empty atoms; domain: at least two dot-separated non-empty
+    // labels, the last of 2 to 7 letters
+    private static boolean matchesEmail(CharSequence s, int start, int end) {
+        int i = start;
+        boolean atomStart = true;
+        while (i < end) {
+            char c = s.charAt(i);
+            if (c == '@') {
+                break;
+            }
+            if (c == '.') {
+                if (atomStart) {
+                    return false;
+                }
+                atomStart = true;
+            } else if (isLocalChar(c)) {
+                atomStart = false;
+            } else {
+                return false;
+            }
+            i++;
+        }
+        if (i == end || atomStart) {
+            return false; // No '@', empty local part or a trailing dot
+        }
+
+        int labels = 0;
+        int labelStart = i + 1;
+        boolean letters = true; // The current label consists of letters only
+        for (i = labelStart; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                if (i == labelStart) {
+                    return false;
+                }
+                labels++;
+                labelStart = i + 1;
+                letters = true;
+            } else if (isLetter(c)) {
+                // Still a candidate top-level domain
+            } else if (isDigit(c) || c == '-') {
+                letters = false;
+            } else {
+                return false;
+            }
+        }
+        int tldLength = end - labelStart;
+        return labels > 0 && letters && tldLength >= 2 && tldLength <= 7;
+    }
+
+    private static boolean matchesCourseCode(CharSequence s, int start, int end) {
+        int i = start;
+        while (i < end && i - start < 4 && s.charAt(i) >= 'A' && s.charAt(i) <= 'Z') {
+            i++;
+        }
+        int digits = end - i;
+        if (i - start < 2 || digits < 3 || digits > 4) {
             return false;
         }
-        return EMAIL_PATTERN.matcher(email).matches();
+        for (; i < end; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesRegNo(CharSequence s, int start, int end) {
+        if (end - start != 8 || s.charAt(start) != 'R') {
+            return false;
+        }
+        for (int i = start + 1; i < end; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_' || c == '+' || c == '&' || c == '*' || c == '-';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
-}
\ No newline at end of file
+}